@@ -52,4 +52,10 @@ public class BeanModelProviderGeneralTest extends GWTTestCase
       runner.c_modelCommit();
    }
 
+   @Test
+   public void testAllModelsUpdatedBeforeEventsFire()
+   {
+      runner.d_allModelsUpdatedBeforeEventsFire();
+   }
+
 }
\ No newline at end of file
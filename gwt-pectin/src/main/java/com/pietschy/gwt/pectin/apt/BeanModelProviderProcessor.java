@@ -0,0 +1,277 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.apt;
+
+import com.google.gwt.user.rebind.StringSourceWriter;
+import com.pietschy.gwt.pectin.client.bean.BeanModelProvider;
+import com.pietschy.gwt.pectin.client.bean.GenerateProvider;
+import com.pietschy.gwt.pectin.client.bean.LimitPropertyDepth;
+import com.pietschy.gwt.pectin.client.bean.NestedTypes;
+import com.pietschy.gwt.pectin.rebind.BeanInfo;
+import com.pietschy.gwt.pectin.rebind.BeanIntrospector;
+import com.pietschy.gwt.pectin.rebind.Context;
+import com.pietschy.gwt.pectin.rebind.InvalidBeanException;
+import com.pietschy.gwt.pectin.rebind.ProviderWriter;
+import com.pietschy.gwt.pectin.rebind.Writer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An annotation processor that generates the same bean model provider implementations as the
+ * GWT generator at <code>javac</code> time, so providers can be used on the JVM without
+ * reflection.  Only providers annotated with {@link GenerateProvider} are processed, e.g. given
+ * <pre>
+ * &#064;GenerateProvider
+ * public abstract class PersonProvider extends BeanModelProvider&lt;Person&gt; {}
+ * </pre>
+ * the processor generates <code>PersonProviderImpl</code> in the same package which can then be
+ * created directly, i.e. <code>new PersonProviderImpl()</code>.  The generated source is also
+ * valid GWT client code.
+ * <p>
+ * The processor is registered in <code>META-INF/services</code>, but since it only supports
+ * {@link GenerateProvider} javac won't run it for code that doesn't use the annotation.
+ */
+@SupportedAnnotationTypes("com.pietschy.gwt.pectin.client.bean.GenerateProvider")
+public class BeanModelProviderProcessor extends AbstractProcessor
+{
+   // shared by all the providers in the compilation so each bean type is only introspected once.
+   private BeanIntrospector introspector = new BeanIntrospector();
+
+   @Override
+   public SourceVersion getSupportedSourceVersion()
+   {
+      return SourceVersion.latestSupported();
+   }
+
+   @Override
+   public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment)
+   {
+      TypeMirror providerType = getErasure(BeanModelProvider.class.getName());
+      if (providerType == null)
+      {
+         // pectin isn't on the compile path.
+         return false;
+      }
+
+      // this includes subclasses of annotated types since the annotation is inherited.
+      for (TypeElement type : ElementFilter.typesIn(roundEnvironment.getElementsAnnotatedWith(GenerateProvider.class)))
+      {
+         if (isProviderDeclaration(type, providerType))
+         {
+            generateProvider(type);
+         }
+      }
+
+      // we don't claim any annotations.
+      return false;
+   }
+
+   private boolean isProviderDeclaration(TypeElement type, TypeMirror providerType)
+   {
+      return type.getKind() == ElementKind.CLASS
+             && type.getModifiers().contains(Modifier.ABSTRACT)
+             && !type.getQualifiedName().contentEquals(BeanModelProvider.class.getName())
+             && processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), providerType)
+             && getBeanType(type) != null;
+   }
+
+   /**
+    * Gets the bean type from the provider's declaration, i.e. the type argument of its superclass.
+    * Generic and intermediate providers don't specify a bean type so we return <code>null</code> and
+    * they're skipped.
+    */
+   private TypeMirror getBeanType(TypeElement type)
+   {
+      if (!type.getTypeParameters().isEmpty() || type.getSuperclass().getKind() != TypeKind.DECLARED)
+      {
+         return null;
+      }
+
+      List<? extends TypeMirror> typeArguments = ((DeclaredType) type.getSuperclass()).getTypeArguments();
+      if (typeArguments.size() != 1 || typeArguments.get(0).getKind() != TypeKind.DECLARED)
+      {
+         return null;
+      }
+
+      return typeArguments.get(0);
+   }
+
+   private TypeMirror getErasure(String typeName)
+   {
+      TypeElement element = processingEnv.getElementUtils().getTypeElement(typeName);
+      return element != null ? processingEnv.getTypeUtils().erasure(element.asType()) : null;
+   }
+
+   private void generateProvider(TypeElement type)
+   {
+      // as with the GWT generator the bean type is in our declaration e.g.
+      // class MyProvider extends BeanModelProvider<BeanType>
+      TypeMirror beanType = getBeanType(type);
+
+      String providerTypeName = type.getQualifiedName().toString();
+      String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+      String className = getClassPrefix(type) + type.getSimpleName() + "Impl";
+
+      try
+      {
+         Context context = new Context(providerTypeName, getNestedTypeNames(type), getRecursionDepth(type), introspector);
+         BeanInfo beanInfo = new BeanInfo(context, new ElementTypeInfo(beanType, processingEnv));
+
+         StringSourceWriter body = new StringSourceWriter();
+         new ProviderWriter(new Writer(body)).writeBody(beanInfo);
+
+         String qualifiedName = packageName.length() > 0 ? packageName + "." + className : className;
+         PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter());
+         try
+         {
+            if (packageName.length() > 0)
+            {
+               out.println("package " + packageName + ";");
+               out.println();
+            }
+            for (Class<?> importedType : ProviderWriter.IMPORTS)
+            {
+               out.println("import " + importedType.getName() + ";");
+            }
+            out.println();
+            out.println("public class " + className + " extends " + providerTypeName + " {");
+            out.print(body.toString());
+            out.println("}");
+         }
+         finally
+         {
+            out.close();
+         }
+      }
+      catch (InvalidBeanException e)
+      {
+         error(type, e.getMessage());
+      }
+      catch (IllegalStateException e)
+      {
+         error(type, e.getMessage());
+      }
+      catch (IOException e)
+      {
+         error(type, "Couldn't create " + className + ": " + e.getMessage());
+      }
+   }
+
+   /**
+    * Computes the same prefix the GWT generator uses for nested providers.
+    */
+   private String getClassPrefix(TypeElement type)
+   {
+      StringBuilder prefix = new StringBuilder();
+      Element enclosing = type.getEnclosingElement();
+      while (enclosing instanceof TypeElement)
+      {
+         prefix.append(enclosing.getSimpleName()).append('_');
+         enclosing = enclosing.getEnclosingElement();
+      }
+      return prefix.toString();
+   }
+
+   /**
+    * Reads the {@link NestedTypes} annotation from the provider or its superclasses.  The classes
+    * have to be read from the mirror since they may not have been compiled yet.
+    */
+   private Set<String> getNestedTypeNames(TypeElement type)
+   {
+      HashSet<String> names = new HashSet<String>();
+      AnnotationMirror annotation = findAnnotation(type, NestedTypes.class.getName());
+      if (annotation != null)
+      {
+         for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet())
+         {
+            if (entry.getKey().getSimpleName().contentEquals("value"))
+            {
+               for (Object value : (List<?>) entry.getValue().getValue())
+               {
+                  TypeMirror nestedType = (TypeMirror) ((AnnotationValue) value).getValue();
+                  TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(nestedType);
+                  // the generator matches on Class.getName() so we use the binary name.
+                  names.add(processingEnv.getElementUtils().getBinaryName(element).toString());
+               }
+            }
+         }
+      }
+      return names;
+   }
+
+   private int getRecursionDepth(TypeElement type)
+   {
+      while (type != null)
+      {
+         LimitPropertyDepth limit = type.getAnnotation(LimitPropertyDepth.class);
+         if (limit != null)
+         {
+            return limit.value();
+         }
+         type = getSuperclass(type);
+      }
+      return -1;
+   }
+
+   private AnnotationMirror findAnnotation(TypeElement type, String annotationName)
+   {
+      while (type != null)
+      {
+         for (AnnotationMirror annotation : type.getAnnotationMirrors())
+         {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+            {
+               return annotation;
+            }
+         }
+         type = getSuperclass(type);
+      }
+      return null;
+   }
+
+   private TypeElement getSuperclass(TypeElement type)
+   {
+      TypeMirror superclass = type.getSuperclass();
+      return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+   }
+
+   private void error(Element element, String message)
+   {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+   }
+}
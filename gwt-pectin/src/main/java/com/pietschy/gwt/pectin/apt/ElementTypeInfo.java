@@ -0,0 +1,177 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.apt;
+
+import com.pietschy.gwt.pectin.client.bean.NestedBean;
+import com.pietschy.gwt.pectin.rebind.MethodInfo;
+import com.pietschy.gwt.pectin.rebind.TypeInfo;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TypeInfo} backed by <code>javax.lang.model</code>.
+ */
+class ElementTypeInfo implements TypeInfo
+{
+   private TypeMirror type;
+   private ProcessingEnvironment environment;
+
+   ElementTypeInfo(TypeMirror type, ProcessingEnvironment environment)
+   {
+      this.type = type;
+      this.environment = environment;
+   }
+
+   private Types types()
+   {
+      return environment.getTypeUtils();
+   }
+
+   public String getQualifiedSourceName()
+   {
+      switch (type.getKind())
+      {
+         case DECLARED:
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+         case ARRAY:
+            return wrap(((ArrayType) type).getComponentType()).getQualifiedSourceName() + "[]";
+         case WILDCARD:
+            TypeMirror bound = ((WildcardType) type).getExtendsBound();
+            return bound != null ? wrap(bound).getQualifiedSourceName() : Object.class.getName();
+         case TYPEVAR:
+            return wrap(types().erasure(type)).getQualifiedSourceName();
+         default:
+            // primitives and void.
+            return type.toString();
+      }
+   }
+
+   public String getParameterizedQualifiedSourceName()
+   {
+      // the string form of a type mirror is its fully qualified source form.
+      return type.toString();
+   }
+
+   public boolean isPrimitive()
+   {
+      return type.getKind().isPrimitive();
+   }
+
+   public String getBoxedSourceName()
+   {
+      return types().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+   }
+
+   public boolean isVoid()
+   {
+      return type.getKind() == TypeKind.VOID;
+   }
+
+   public boolean isClassOrInterface()
+   {
+      return type.getKind() == TypeKind.DECLARED;
+   }
+
+   public boolean isAssignableToCollection()
+   {
+      TypeMirror collection = environment.getElementUtils().getTypeElement("java.util.Collection").asType();
+      return isClassOrInterface() && types().isAssignable(types().erasure(type), types().erasure(collection));
+   }
+
+   public TypeInfo getFirstTypeArgument()
+   {
+      if (isClassOrInterface())
+      {
+         List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+         return typeArguments.isEmpty() ? null : wrap(typeArguments.get(0));
+      }
+      return null;
+   }
+
+   public TypeInfo getSuperclass()
+   {
+      if (!isClassOrInterface())
+      {
+         return null;
+      }
+
+      // directSupertypes gives us the superclass with our type arguments substituted.
+      TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+      if (element.getSuperclass().getKind() == TypeKind.NONE)
+      {
+         return null;
+      }
+
+      List<? extends TypeMirror> supertypes = types().directSupertypes(type);
+      return supertypes.isEmpty() ? null : wrap(supertypes.get(0));
+   }
+
+   public List<MethodInfo> getDeclaredMethods()
+   {
+      DeclaredType declaredType = (DeclaredType) type;
+      ArrayList<MethodInfo> result = new ArrayList<MethodInfo>();
+      for (ExecutableElement method : ElementFilter.methodsIn(declaredType.asElement().getEnclosedElements()))
+      {
+         // resolves any type variables using our type arguments.
+         ExecutableType methodType = (ExecutableType) types().asMemberOf(declaredType, method);
+
+         ArrayList<TypeInfo> parameterTypes = new ArrayList<TypeInfo>();
+         for (TypeMirror parameterType : methodType.getParameterTypes())
+         {
+            parameterTypes.add(wrap(parameterType));
+         }
+
+         result.add(new MethodInfo(method.getSimpleName().toString(),
+                                   method.getModifiers().contains(Modifier.PUBLIC),
+                                   method.getModifiers().contains(Modifier.STATIC),
+                                   wrap(methodType.getReturnType()),
+                                   parameterTypes,
+                                   method.getAnnotation(NestedBean.class) != null));
+      }
+      return result;
+   }
+
+   public boolean isSameType(TypeInfo other)
+   {
+      return other instanceof ElementTypeInfo && types().isSameType(type, ((ElementTypeInfo) other).type);
+   }
+
+   private ElementTypeInfo wrap(TypeMirror type)
+   {
+      return new ElementTypeInfo(type, environment);
+   }
+
+   @Override
+   public String toString()
+   {
+      return type.toString();
+   }
+}
@@ -5,6 +5,7 @@ import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.pietschy.gwt.pectin.client.form.ListModelProvider;
 import com.pietschy.gwt.pectin.client.form.ValueModelProvider;
 import com.pietschy.gwt.pectin.client.value.AbstractMutableValueModel;
+import com.pietschy.gwt.pectin.client.value.BooleanValueModel;
 import com.pietschy.gwt.pectin.client.value.DelegatingValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueHolder;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
@@ -21,21 +22,36 @@ public abstract class AbstractBeanModelProvider<B> extends AbstractMutableValueM
    protected DelegatingValueModel<B> source = new DelegatingValueModel<B>(new ValueHolder<B>());
    private PropertyModelRegistry registry = new PropertyModelRegistry();
    private CollectionConverters collectionConverters = new CollectionConverters();
-   private ValueHolder<Boolean> autoCommit = new ValueHolder<Boolean>(false);
+   private BooleanValueModel autoCommit = new BooleanValueModel(false);
 
    protected AbstractBeanModelProvider()
    {
-      // Each BeanPropertyValue/ListModel monitors their source model and will automatically
-      // readFromSource() when on value changes, so there's not explicit read from source to
-      // call here.
-      //
       // Our actual value is held in our delegating model so we always
       // fire a value change when it changes.
       source.addValueChangeHandler(new ValueChangeHandler<B>()
       {
          public void onValueChange(ValueChangeEvent<B> event)
          {
-            fireValueChangeEvent(event.getValue());
+            onBeanChanged(event.getValue());
+         }
+      });
+   }
+
+   /**
+    * Updates all our models for the new bean in one pass and then fires all the resulting
+    * events (including our own) together, so no one sees a partially updated provider.  Each
+    * BeanPropertyValue/ListModel still monitors its source model for changes that don't come
+    * from us, e.g. a nested bean being replaced.
+    *
+    * @param bean the new bean.
+    */
+   private void onBeanChanged(final B bean)
+   {
+      registry.readAllFromSource(new Runnable()
+      {
+         public void run()
+         {
+            fireValueChangeEvent(bean);
          }
       });
    }
@@ -94,12 +110,12 @@ public abstract class AbstractBeanModelProvider<B> extends AbstractMutableValueM
 
    public void setAutoCommit(boolean autoCommit)
    {
-      this.autoCommit.setValue(autoCommit);
+      this.autoCommit.setBooleanValue(autoCommit);
    }
 
    public boolean isAutoCommit()
    {
-      return this.autoCommit.getValue();
+      return this.autoCommit.booleanValue();
    }
 
    /**
@@ -19,7 +19,10 @@ package com.pietschy.gwt.pectin.client.bean;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.pietschy.gwt.pectin.client.list.ArrayListModel;
-import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import com.pietschy.gwt.pectin.client.list.ListChange;
+import com.pietschy.gwt.pectin.client.list.ListMutation;
+import com.pietschy.gwt.pectin.client.util.Utils;
+import com.pietschy.gwt.pectin.client.value.BooleanValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
 import java.util.ArrayList;
@@ -34,15 +37,22 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
 {
    private List<T> EMPTY_LIST = Collections.emptyList();
 
-   private List<T> checkpointValue = null;
+   private ListCheckpoint<T> checkpoint = new ListCheckpoint<T>();
+   // the modification count at the last checkpoint, lets us skip the dirty check entirely.
+   private int checkpointModificationCount = -1;
    private CollectionConverter listConverter;
-   private ValueHolder<Boolean> dirtyModel = new ValueHolder<Boolean>(false);
-   private ValueHolder<Boolean> mutableModel = new ValueHolder<Boolean>(false);
+   private BooleanValueModel dirtyModel = new BooleanValueModel(false);
+   private BooleanValueModel mutableModel = new BooleanValueModel(false);
    private ValueModel<?> source;
    private ValueModel<Boolean> autoCommit;
    private UpdateStrategy<T> defaultUpdateStrategy = new DefaultUpdateStrategy();
    private UpdateStrategy<T> autoCommitUpdateStrategy = new AutoCommitUpdateStrategy();
    private PropertyDescriptor propertyDescriptor;
+   // the source bean we last read from.
+   private Object lastReadSource;
+   // set while a bean swap has read us but its event hasn't reached us yet.
+   private boolean readAhead = false;
+   private Object readAheadSource;
 
 
    public BeanPropertyListModel(ValueModel<?> sourceModel, PropertyDescriptor descriptor, CollectionConverter converter, ValueModel<Boolean> autoCommit)
@@ -51,7 +61,6 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
       this.propertyDescriptor = descriptor;
       this.listConverter = converter;
       this.autoCommit = autoCommit;
-      dirtyModel.setFireEventsEvenWhenValuesEqual(false);
 
       installValueChangeHandler();
       handleSourceModelChange();
@@ -75,8 +84,40 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
 
    private void handleSourceModelChange()
    {
-      readFromSource();
-      onSourceModelChanged(source.getValue());
+      Object sourceBean = source.getValue();
+      // the provider may have already read us as part of a bean swap, either way this
+      // event consumes the read ahead.
+      boolean alreadyRead = readAhead && sourceBean == readAheadSource;
+      clearReadAhead();
+      if (!alreadyRead)
+      {
+         readFromSource();
+      }
+      onSourceModelChanged(sourceBean);
+   }
+
+   /**
+    * Reads from the source ahead of a bean swap.  The provider reads all its models before any of
+    * the swap's events are fired, so when the event for the same source bean arrives we don't need to
+    * read it again.
+    */
+   void readAheadFromSource()
+   {
+      Object sourceBean = source.getValue();
+      // a nested model's source only fires if its value changes so we only read if it has,
+      // otherwise we'd update (and fire events) when we never used to.
+      if (propertyDescriptor.isTopLevel() || Utils.areDifferent(sourceBean, lastReadSource))
+      {
+         readFromSource();
+         readAhead = true;
+         readAheadSource = sourceBean;
+      }
+   }
+
+   void clearReadAhead()
+   {
+      readAhead = false;
+      readAheadSource = null;
    }
 
    /**
@@ -121,6 +162,7 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
    @SuppressWarnings("unchecked")
    public void readFromSource()
    {
+      lastReadSource = source.getValue();
       getUpdateStrategy().readFromSource();
    }
 
@@ -130,27 +172,172 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
    }
 
    @Override
-   public void setElements(Collection<? extends T> elements)
+   protected void fireListChanged()
+   {
+      checkpoint.invalidate();
+      super.fireListChanged();
+   }
+
+   @Override
+   protected void fireListChanged(List<ListChange<T>> changes)
+   {
+      for (ListChange<T> change : changes)
+      {
+         checkpoint.apply(change);
+      }
+      super.fireListChanged(changes);
+   }
+
+   @Override
+   public void setElements(final Collection<? extends T> elements)
    {
-      getUpdateStrategy().setElements(elements);
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.setElements(elements);
+         }
+      });
    }
 
    @Override
    public void clear()
    {
-      getUpdateStrategy().clear();
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.clear();
+         }
+      });
+   }
+
+   @Override
+   public void remove(final T element)
+   {
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.remove(element);
+         }
+      });
+   }
+
+   @Override
+   public T removeAt(final int index)
+   {
+      final List<T> removed = new ArrayList<T>(1);
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            removed.add(BeanPropertyListModel.super.removeAt(index));
+         }
+      });
+      return removed.get(0);
+   }
+
+   @Override
+   public void add(final T element)
+   {
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.add(element);
+         }
+      });
+   }
+
+   @Override
+   public void add(final int index, final T element)
+   {
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.add(index, element);
+         }
+      });
+   }
+
+   @Override
+   public void insert(final int index, final Collection<? extends T> elements)
+   {
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.insert(index, elements);
+         }
+      });
+   }
+
+   @Override
+   public T set(final int index, final T element)
+   {
+      final List<T> replaced = new ArrayList<T>(1);
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            replaced.add(BeanPropertyListModel.super.set(index, element));
+         }
+      });
+      return replaced.get(0);
+   }
+
+   @Override
+   public void move(final int fromIndex, final int toIndex)
+   {
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.move(fromIndex, toIndex);
+         }
+      });
+   }
+
+   @Override
+   public void removeAll(final Collection<?> elements)
+   {
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.removeAll(elements);
+         }
+      });
    }
 
    @Override
-   public void remove(T element)
+   public void retainAll(final Collection<?> elements)
    {
-      getUpdateStrategy().remove(element);
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.retainAll(elements);
+         }
+      });
    }
 
+   /**
+    * Runs the mutation, firing a single change event and (when auto committing) writing
+    * the result to the bean once all the changes have been made.
+    */
    @Override
-   public void add(T element)
+   public void mutate(final ListMutation<T> mutation)
    {
-      getUpdateStrategy().add(element);
+      getUpdateStrategy().mutate(new Runnable()
+      {
+         public void run()
+         {
+            BeanPropertyListModel.super.mutate(mutation);
+         }
+      });
    }
 
    /**
@@ -199,7 +386,7 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
 
    private void updateMutableState()
    {
-      mutableModel.setValue(isMutableProperty() && isNonNullSource());
+      mutableModel.setBooleanValue(isMutableProperty() && isNonNullSource());
    }
 
    private boolean isNonNullSource()
@@ -224,13 +411,7 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
 
       void writeToSource(boolean checkpoint);
 
-      void setElements(Collection<? extends T> elements);
-
-      void add(T value);
-
-      void remove(T value);
-
-      void clear();
+      void mutate(Runnable mutation);
 
       void checkpoint();
 
@@ -264,32 +445,19 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
          BeanPropertyListModel.super.setElements(elements);
       }
 
-      public void setElements(Collection<? extends T> elements)
-      {
-         ensureMutable();
-         updateElements(elements);
-         afterMutate();
-      }
-
-      public void add(T element)
-      {
-         ensureMutable();
-         BeanPropertyListModel.super.add(element);
-         afterMutate();
-      }
-
-      public void remove(T element)
-      {
-         ensureMutable();
-         BeanPropertyListModel.super.remove(element);
-         afterMutate();
-      }
-
-      public void clear()
+      public void mutate(Runnable mutation)
       {
-         ensureMutable();
-         BeanPropertyListModel.super.clear();
-         afterMutate();
+         if (isMutating())
+         {
+            // we're part of a larger mutation that will call afterMutate once it's done.
+            mutation.run();
+         }
+         else
+         {
+            ensureMutable();
+            mutation.run();
+            afterMutate();
+         }
       }
 
       protected void afterMutate()
@@ -299,9 +467,10 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
 
       public void checkpoint()
       {
-         // we copy so mutations don't affect us.
-         checkpointValue = new ArrayList<T>(asUnmodifiableList());
-         dirtyModel.setValue(false);
+         // the snapshot shares our elements until the next change so this is constant time.
+         checkpoint.reset(snapshot());
+         checkpointModificationCount = getModificationCount();
+         dirtyModel.setBooleanValue(false);
       }
 
       public void revert()
@@ -318,7 +487,7 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
        */
       private List<T> getCheckpoint()
       {
-         return checkpointValue != null ? checkpointValue : EMPTY_LIST;
+         return checkpoint.getElements();
       }
 
       /**
@@ -344,31 +513,14 @@ public class BeanPropertyListModel<T> extends ArrayListModel<T> implements BeanP
 
       void updateDirtyState()
       {
-         dirtyModel.setValue(computeDirty());
+         dirtyModel.setBooleanValue(computeDirty());
       }
 
       protected boolean computeDirty()
       {
-         if (checkpointValue == null)
-         {
-            return size() != 0;
-         }
-         else if (size() != checkpointValue.size())
-         {
-            return true;
-         }
-         else
-         {
-            // the sizes are equal so we check the contents are the same.
-            for (int i = 0; i < checkpointValue.size(); i++)
-            {
-               if (!areEqual(get(i), checkpointValue.get(i)))
-               {
-                  return true;
-               }
-            }
-            return false;
-         }
+         // only the elements touched since the last check are compared.
+         return getModificationCount() != checkpointModificationCount
+                && checkpoint.isDirty(asUnmodifiableList());
       }
    }
 
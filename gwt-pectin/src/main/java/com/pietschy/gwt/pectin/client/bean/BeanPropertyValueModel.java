@@ -18,24 +18,32 @@ package com.pietschy.gwt.pectin.client.bean;
 
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.util.Utils;
 import com.pietschy.gwt.pectin.client.value.AbstractMutableValueModel;
-import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import com.pietschy.gwt.pectin.client.value.BooleanValueModel;
+import com.pietschy.gwt.pectin.client.value.HasPropagationHeight;
+import com.pietschy.gwt.pectin.client.value.Propagation;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
 /**
  *
  */
-public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> implements BeanPropertyModelBase, HasMutableModel
+public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> implements BeanPropertyModelBase, HasMutableModel, HasPropagationHeight
 {
    private PropertyDescriptor propertyDescriptor;
    private T checkpointValue;
    private T currentValue;
-   private ValueHolder<Boolean> dirtyModel = new ValueHolder<Boolean>(false);
-   private ValueHolder<Boolean> mutableModel = new ValueHolder<Boolean>(false);
+   private BooleanValueModel dirtyModel = new BooleanValueModel(false);
+   private BooleanValueModel mutableModel = new BooleanValueModel(false);
    private ValueModel<?> source;
    private ValueModel<Boolean> autoCommit;
    private UpdateStrategy<T> defaultUpdateStrategy = new DefaultUpdateStrategy();
    private UpdateStrategy<T> autoCommitUpdateStrategy = new AutoCommitUpdateStrategy();
+   // the source bean we last read from.
+   private Object lastReadSource;
+   // set while a bean swap has read us but its event hasn't reached us yet.
+   private boolean readAhead = false;
+   private Object readAheadSource;
 
 
    public BeanPropertyValueModel(ValueModel<?> sourceModel, PropertyDescriptor descriptor, ValueModel<Boolean> autoCommit)
@@ -43,7 +51,6 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
       this.source = sourceModel;
       this.propertyDescriptor = descriptor;
       this.autoCommit = autoCommit;
-      dirtyModel.setFireEventsEvenWhenValuesEqual(false);
 
       installValueChangeHandler(source);
       handleSourceModelChange();
@@ -65,8 +72,40 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
 
    private void handleSourceModelChange()
    {
-      readFromSource();
-      onSourceModelChanged(source.getValue());
+      Object sourceBean = source.getValue();
+      // the provider may have already read us as part of a bean swap, either way this
+      // event consumes the read ahead.
+      boolean alreadyRead = readAhead && sourceBean == readAheadSource;
+      clearReadAhead();
+      if (!alreadyRead)
+      {
+         readFromSource();
+      }
+      onSourceModelChanged(sourceBean);
+   }
+
+   /**
+    * Reads from the source ahead of a bean swap.  The provider reads all its models before any of
+    * the swap's events are fired, so when the event for the same source bean arrives we don't need to
+    * read it again.
+    */
+   void readAheadFromSource()
+   {
+      Object sourceBean = source.getValue();
+      // a nested model's source only fires if its value changes so we only read if it has,
+      // otherwise we'd update (and fire events) when we never used to.
+      if (propertyDescriptor.isTopLevel() || Utils.areDifferent(sourceBean, lastReadSource))
+      {
+         readFromSource();
+         readAhead = true;
+         readAheadSource = sourceBean;
+      }
+   }
+
+   void clearReadAhead()
+   {
+      readAhead = false;
+      readAheadSource = null;
    }
 
    /**
@@ -79,6 +118,15 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
    {
    }
 
+   /**
+    * We read our value when the source bean changes so models derived from us must be ranked
+    * above it.
+    */
+   public int getPropagationHeight()
+   {
+      return Propagation.heightOf(source) + 1;
+   }
+
    public String getPropertyName()
    {
       return propertyDescriptor.getPropertyName();
@@ -124,6 +172,7 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
 
    public void readFromSource()
    {
+      lastReadSource = source.getValue();
       getUpdateStrategy().readFromSource();
    }
 
@@ -159,7 +208,7 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
 
    private void updateMutableState()
    {
-      mutableModel.setValue(isMutableProperty() && isNonNullSource());
+      mutableModel.setBooleanValue(isMutableProperty() && isNonNullSource());
    }
 
    private boolean isNonNullSource()
@@ -241,7 +290,7 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
       public void checkpoint()
       {
          checkpointValue = getValue();
-         dirtyModel.setValue(false);
+         dirtyModel.setBooleanValue(false);
       }
 
       public void revertToCheckpoint()
@@ -264,7 +313,7 @@ public class BeanPropertyValueModel<T> extends AbstractMutableValueModel<T> impl
 
       void updateDirtyState()
       {
-         dirtyModel.setValue(computeDirty());
+         dirtyModel.setBooleanValue(computeDirty());
       }
 
       boolean computeDirty()
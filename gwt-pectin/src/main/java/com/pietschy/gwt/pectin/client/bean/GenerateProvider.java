@@ -0,0 +1,43 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.bean;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks the pectin annotation processor to generate an implementation of the provider at
+ * <code>javac</code> time, e.g.
+ * <pre>
+ * &#064;GenerateProvider
+ * public abstract class PersonProvider extends BeanModelProvider&lt;Person&gt; {}
+ * </pre>
+ * will generate <code>PersonProviderImpl</code> in the same package.  Providers only used from GWT
+ * client code don't need this annotation since the GWT generator creates them via deferred binding.
+ * <p>
+ * The annotation is inherited so it can be placed on a generic base provider, in which case an
+ * implementation is generated for each abstract subclass that specifies the bean type.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface GenerateProvider
+{
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.bean;
+
+import com.pietschy.gwt.pectin.client.list.ListChange;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.pietschy.gwt.pectin.client.util.Utils.areEqual;
+
+/**
+ * Tracks whether a list differs from a checkpoint without comparing the whole list on every
+ * change.  The checkpoint keeps track of how many of the leading and trailing elements are
+ * known to match, each change shrinks that range to exclude the elements it touched so only the
+ * elements in between need comparing.  Editing a single element of a large list is then a
+ * constant time check.
+ */
+class ListCheckpoint<T>
+{
+   private List<T> elements = Collections.emptyList();
+
+   // the number of elements at the start and end of the list known to match the checkpoint,
+   // only meaningful while size >= 0.
+   private int matchingPrefix = 0;
+   private int matchingSuffix = 0;
+   // the size of the list as tracked by the changes or -1 after a refresh.
+   private int size = 0;
+
+   /**
+    * Resets the checkpoint to the specified elements.  The list is kept as is, so it must not
+    * be changed afterward.
+    *
+    * @param snapshot the elements of the checkpoint.
+    */
+   void reset(List<T> snapshot)
+   {
+      elements = snapshot;
+      size = snapshot.size();
+      matchingPrefix = size;
+      matchingSuffix = size;
+   }
+
+   List<T> getElements()
+   {
+      return elements;
+   }
+
+   /**
+    * Called when the list has changed in ways that aren't described by individual changes.
+    */
+   void invalidate()
+   {
+      size = -1;
+   }
+
+   void apply(ListChange<T> change)
+   {
+      if (size < 0)
+      {
+         return;
+      }
+
+      int index = change.getIndex();
+      int end;
+      switch (change.getType())
+      {
+         case INSERTED:
+            size += change.getCount();
+            end = index + change.getCount();
+            break;
+         case REMOVED:
+            size -= change.getCount();
+            end = index;
+            break;
+         case MOVED:
+            end = Math.max(index, change.getToIndex()) + 1;
+            index = Math.min(index, change.getToIndex());
+            break;
+         default:
+            end = index + change.getCount();
+            break;
+      }
+
+      matchingPrefix = Math.min(matchingPrefix, index);
+      matchingSuffix = Math.min(matchingSuffix, size - end);
+   }
+
+   /**
+    * Checks if the list differs from the checkpoint, only comparing the elements that may have
+    * changed since the last check.
+    *
+    * @param current the current elements of the list.
+    * @return <code>true</code> if the list differs from the checkpoint.
+    */
+   boolean isDirty(List<T> current)
+   {
+      if (current.size() != elements.size())
+      {
+         // we don't know which elements match, but we know the list is dirty.
+         return true;
+      }
+
+      if (size != current.size())
+      {
+         // we've had a refresh so we have to check everything.
+         size = current.size();
+         matchingPrefix = 0;
+         matchingSuffix = 0;
+      }
+
+      // narrow the unknown range from both ends so the next check has less work to do.
+      while (matchingPrefix + matchingSuffix < size && areEqual(current.get(matchingPrefix), elements.get(matchingPrefix)))
+      {
+         matchingPrefix++;
+      }
+
+      while (matchingPrefix + matchingSuffix < size)
+      {
+         int index = size - 1 - matchingSuffix;
+         if (!areEqual(current.get(index), elements.get(index)))
+         {
+            return true;
+         }
+         matchingSuffix++;
+      }
+
+      // everything matches.
+      matchingPrefix = size;
+      matchingSuffix = size;
+      return false;
+   }
+}
@@ -1,10 +1,10 @@
 package com.pietschy.gwt.pectin.client.bean;
 
 import com.pietschy.gwt.pectin.client.condition.OrFunction;
+import com.pietschy.gwt.pectin.client.value.Batch;
 import com.pietschy.gwt.pectin.client.value.ReducingValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 
 /**
@@ -18,8 +18,9 @@ public class PropertyModelRegistry
 {
    private LinkedHashMap<String, BeanPropertyModelBase> allModels = new LinkedHashMap<String, BeanPropertyModelBase>();
 
-   private HashMap<String, BeanPropertyValueModel<?>> valueModels = new HashMap<String, BeanPropertyValueModel<?>>();
-   private HashMap<String, BeanPropertyListModel<?>> listModels = new HashMap<String, BeanPropertyListModel<?>>();
+   // these are in order of registration so parents are always read before their nested properties.
+   private LinkedHashMap<String, BeanPropertyValueModel<?>> valueModels = new LinkedHashMap<String, BeanPropertyValueModel<?>>();
+   private LinkedHashMap<String, BeanPropertyListModel<?>> listModels = new LinkedHashMap<String, BeanPropertyListModel<?>>();
 
    private ReducingValueModel<Boolean, Boolean> dirtyModel = new ReducingValueModel<Boolean, Boolean>(new OrFunction());
 
@@ -54,6 +55,70 @@ public class PropertyModelRegistry
       });
    }
 
+   /**
+    * Updates every model after the source bean has been swapped.  All the models are read in a
+    * single pass (value models first so any list model sees its parent's new bean) and the dirty
+    * state is recomputed once.  All the value change events, including those fired by the
+    * specified notifier, are deferred until every model has been read and are then fired as a
+    * single {@link Batch}.  Each model remembers the bean it has read and ignores the event for
+    * that bean, even if an outer batch delays the event until long after this method returns.
+    * <p>
+    * Batches only defer value change events, list models fire their list change events as they're
+    * read, i.e. while the pass is still running.  A list change handler that reads other models
+    * of the provider may see some that haven't been read yet.
+    *
+    * @param notifier fires the event for the new source bean.
+    */
+   public void readAllFromSource(final Runnable notifier)
+   {
+      try
+      {
+         Batch.run(new Runnable()
+         {
+            public void run()
+            {
+               dirtyModel.recomputeAfterRunning(new Runnable()
+               {
+                  public void run()
+                  {
+                     for (BeanPropertyValueModel<?> model : valueModels.values())
+                     {
+                        model.readAheadFromSource();
+                     }
+                     for (BeanPropertyListModel<?> model : listModels.values())
+                     {
+                        model.readAheadFromSource();
+                     }
+                  }
+               });
+
+               notifier.run();
+            }
+         });
+      }
+      finally
+      {
+         // inside an outer batch the events haven't been fired yet so we leave the read aheads
+         // for them to consume.  Otherwise any that are left never got their event.
+         if (!Batch.isActive())
+         {
+            clearReadAheads();
+         }
+      }
+   }
+
+   private void clearReadAheads()
+   {
+      for (BeanPropertyValueModel<?> model : valueModels.values())
+      {
+         model.clearReadAhead();
+      }
+      for (BeanPropertyListModel<?> model : listModels.values())
+      {
+         model.clearReadAhead();
+      }
+   }
+
    public BeanPropertyValueModel<?> getValueModel(String fullPath)
    {
       return valueModels.get(fullPath);
@@ -30,6 +30,10 @@ implements BindingContainer
 {
    GarbageCollector gc = new GarbageCollector();
 
+   private BindingUpdateQueue updateQueue;
+   // maintained by the update queue.
+   boolean updatePending = false;
+
    public void registerDisposable(HandlerRegistration registration)
    {
       gc.add(registration);
@@ -37,6 +41,7 @@ implements BindingContainer
    
    public void registerDisposableAndUpdateTarget(AbstractBinding binding)
    {
+      binding.setUpdateQueue(updateQueue);
       binding.updateTarget();
       gc.add(binding);
    }
@@ -47,11 +52,42 @@ implements BindingContainer
    }
 
    public abstract void updateTarget();
+
+   /**
+    * Configures the queue used to defer target updates, or <code>null</code> if the target should
+    * be updated as soon as the model changes.
+    */
+   void setUpdateQueue(BindingUpdateQueue updateQueue)
+   {
+      this.updateQueue = updateQueue;
+   }
+
+   /**
+    * Subclasses call this when their model changes.  If this binding defers its updates it's
+    * queued to have {@link #updateTarget()} called later and this method returns <code>true</code>,
+    * otherwise it returns <code>false</code> and the subclass should update its target immediately.
+    *
+    * @return <code>true</code> if the update has been deferred, <code>false</code> otherwise.
+    */
+   protected boolean deferTargetUpdate()
+   {
+      if (updateQueue == null)
+      {
+         return false;
+      }
+
+      updateQueue.add(this);
+      return true;
+   }
    
    public abstract Object getTarget();
    
    public void dispose()
    {
+      if (updateQueue != null)
+      {
+         updateQueue.remove(this);
+      }
       gc.dispose();
    }
 }
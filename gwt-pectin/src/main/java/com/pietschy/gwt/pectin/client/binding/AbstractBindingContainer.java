@@ -12,6 +12,7 @@ import com.google.gwt.event.shared.HandlerRegistration;
 public class AbstractBindingContainer implements BindingContainer
 {
    private GarbageCollector gc = new GarbageCollector();
+   private BindingUpdateQueue updateQueue;
 
    /**
     * Registers a binding with this binder.  The binding will be disposed when this binder
@@ -21,6 +22,7 @@ public class AbstractBindingContainer implements BindingContainer
     */
    public void registerDisposableAndUpdateTarget(AbstractBinding binding)
    {
+      binding.setUpdateQueue(updateQueue);
       binding.updateTarget();
       gc.add(binding);
    }
@@ -41,6 +43,39 @@ public class AbstractBindingContainer implements BindingContainer
       gc.add(disposable);
    }
 
+   /**
+    * Configures this binder to defer widget updates using the default {@link BindingUpdateQueue}.
+    * Instead of updating its widget every time its model changes, each binding is queued and
+    * updated once at the end of the current event.  This only affects bindings created after
+    * this method is called.
+    */
+   public void deferUpdates()
+   {
+      deferUpdates(BindingUpdateQueue.getDefault());
+   }
+
+   /**
+    * Configures this binder to defer widget updates using the specified queue.  This only affects
+    * bindings created after this method is called.
+    *
+    * @param queue the queue to use, or <code>null</code> to update widgets immediately.
+    * @see #deferUpdates()
+    */
+   public void deferUpdates(BindingUpdateQueue queue)
+   {
+      this.updateQueue = queue;
+   }
+
+   /**
+    * Gets the queue used to defer widget updates.
+    *
+    * @return the queue or <code>null</code> if widgets are updated immediately.
+    */
+   public BindingUpdateQueue getUpdateQueue()
+   {
+      return updateQueue;
+   }
+
    /**
     * Disposes all bindings created by the binder.  After this methods has finished
     * listeners created by the bindings will be removed from all widgets and models.
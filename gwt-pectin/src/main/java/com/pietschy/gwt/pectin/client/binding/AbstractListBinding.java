@@ -1,8 +1,10 @@
 package com.pietschy.gwt.pectin.client.binding;
 
+import com.pietschy.gwt.pectin.client.list.LazyListModel;
 import com.pietschy.gwt.pectin.client.list.ListModel;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedEvent;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedHandler;
+import com.pietschy.gwt.pectin.client.list.ListModels;
 
 /**
  * Created by IntelliJ IDEA.
@@ -30,11 +32,54 @@ public abstract class AbstractListBinding<T> extends AbstractBinding implements
    @Override
    public final void updateTarget()
    {
+      // lazy models discard their elements when they're refreshed so we ask for the ones
+      // we display each time we update the whole target.
+      requestDisplayedRange();
       updateTarget(getModel());
    }
 
    protected abstract void updateTarget(ListModel<T> model);
 
+   /**
+    * Called when the model changes.  The default implementation updates the whole target,
+    * subclasses can override to apply only the {@link ListModelChangedEvent#getChanges() changes}
+    * described by the event.
+    *
+    * @param event the event describing the change.
+    */
+   protected void onModelChanged(ListModelChangedEvent<T> event)
+   {
+      updateTarget();
+   }
+
+   /**
+    * Requests the range of elements the target displays be loaded when the model is
+    * a {@link com.pietschy.gwt.pectin.client.list.LazyListModel}.
+    *
+    * @param start the index of the first element.
+    * @param count the number of elements.
+    */
+   protected void requestRange(int start, int count)
+   {
+      ListModels.requestRange(getModel(), start, count);
+   }
+
+   /**
+    * Called before the whole target is updated (i.e. when the binding is first updated and whenever
+    * the model is refreshed) to request the elements the target displays.  Since a binding can't
+    * tell how much of the list its target shows the default only requests the first
+    * {@link LazyListModel#getPageSize() page}, requesting the whole list would load (and pin) every
+    * page of a large model.  Subclasses that know which elements are visible should override this.
+    */
+   protected void requestDisplayedRange()
+   {
+      LazyListModel<T> lazyModel = ListModels.lazyModelOf(getModel());
+      if (lazyModel != null)
+      {
+         requestRange(0, lazyModel.getPageSize());
+      }
+   }
+
    protected void whileIgnoringModelChanges(Runnable r)
    {
       boolean oldIgnoreValue = listMonitor.isIgnoreEvents();
@@ -55,9 +100,9 @@ public abstract class AbstractListBinding<T> extends AbstractBinding implements
 
       public void onListDataChanged(ListModelChangedEvent<T> event)
       {
-         if (!ignoreEvents)
+         if (!ignoreEvents && !deferTargetUpdate())
          {
-            updateTarget();
+            onModelChanged(event);
          }
       }
 
@@ -50,8 +50,10 @@ public abstract class AbstractValueBinding<T> extends AbstractBinding
       @Override
       public void onGuardedValueChanged(ValueChangeEvent<T> event)
       {
-            T value = event.getValue();
-            updateTarget(value);
+         if (!deferTargetUpdate())
+         {
+            updateTarget(event.getValue());
+         }
       }
    }
 }
@@ -54,6 +54,13 @@ public class Binder extends AbstractBindingContainer
    }
 
 
+   @Override
+   public void deferUpdates(BindingUpdateQueue queue)
+   {
+      super.deferUpdates(queue);
+      metadataBinder.deferUpdates(queue);
+   }
+
    // Value Model Bindings
    public <T> ValueBindingBuilder<T> bind(ValueModel<T> field)
    {
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.binding;
+
+import com.pietschy.gwt.pectin.client.util.TaskScheduler;
+import com.pietschy.gwt.pectin.client.util.TaskSchedulers;
+
+import java.util.ArrayList;
+
+/**
+ * Collects bindings whose models have changed and updates their targets together once the
+ * current event has been processed.  A binding that's changed several times only updates its
+ * widget once, using the model's final value, which avoids needless DOM updates and reflows.
+ * <p>
+ * Binders use a queue once {@link AbstractBindingContainer#deferUpdates()} has been called.  A
+ * single queue can be shared by any number of binders.
+ */
+public class BindingUpdateQueue
+{
+   private static BindingUpdateQueue defaultQueue;
+
+   /**
+    * Gets the queue shared by binders that don't specify their own.
+    *
+    * @return the default queue.
+    */
+   public static BindingUpdateQueue getDefault()
+   {
+      if (defaultQueue == null)
+      {
+         defaultQueue = new BindingUpdateQueue(TaskSchedulers.getDefault());
+      }
+      return defaultQueue;
+   }
+
+   private TaskScheduler scheduler;
+   private ArrayList<AbstractBinding> pendingBindings = new ArrayList<AbstractBinding>();
+   private TaskScheduler.Task flushTask;
+
+   private Runnable flushCommand = new Runnable()
+   {
+      public void run()
+      {
+         flushTask = null;
+         flush();
+      }
+   };
+
+   public BindingUpdateQueue(TaskScheduler scheduler)
+   {
+      if (scheduler == null)
+      {
+         throw new NullPointerException("scheduler is null");
+      }
+
+      this.scheduler = scheduler;
+   }
+
+   /**
+    * Marks the binding as needing its target updated.  Bindings already in the queue aren't
+    * added a second time.
+    */
+   void add(AbstractBinding binding)
+   {
+      if (!binding.updatePending)
+      {
+         binding.updatePending = true;
+         pendingBindings.add(binding);
+      }
+
+      if (flushTask == null)
+      {
+         flushTask = scheduler.scheduleDeferred(flushCommand);
+      }
+   }
+
+   void remove(AbstractBinding binding)
+   {
+      if (binding.updatePending)
+      {
+         binding.updatePending = false;
+         pendingBindings.remove(binding);
+      }
+   }
+
+   /**
+    * Checks if any bindings are waiting to update their targets.
+    *
+    * @return <code>true</code> if there are pending updates, <code>false</code> otherwise.
+    */
+   public boolean hasPendingUpdates()
+   {
+      return !pendingBindings.isEmpty();
+   }
+
+   /**
+    * Updates the targets of all pending bindings immediately.  This is normally called
+    * automatically but can be called manually if the widgets need to be up to date straight away.
+    */
+   public void flush()
+   {
+      if (flushTask != null)
+      {
+         flushTask.cancel();
+         flushTask = null;
+      }
+
+      // updating a target can change other models, any bindings they affect are appended
+      // to the list and updated in the same pass.
+      int i = 0;
+      try
+      {
+         for (; i < pendingBindings.size(); i++)
+         {
+            AbstractBinding binding = pendingBindings.get(i);
+            binding.updatePending = false;
+            binding.updateTarget();
+         }
+      }
+      finally
+      {
+         if (i >= pendingBindings.size())
+         {
+            pendingBindings.clear();
+         }
+         else
+         {
+            // a binding threw, so we keep the ones we didn't get to for next time.
+            pendingBindings.subList(0, i + 1).clear();
+            if (flushTask == null && !pendingBindings.isEmpty())
+            {
+               flushTask = scheduler.scheduleDeferred(flushCommand);
+            }
+         }
+      }
+   }
+}
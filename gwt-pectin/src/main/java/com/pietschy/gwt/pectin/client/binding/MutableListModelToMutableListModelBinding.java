@@ -16,9 +16,12 @@
 
 package com.pietschy.gwt.pectin.client.binding;
 
+import com.pietschy.gwt.pectin.client.list.ArrayListModel;
+import com.pietschy.gwt.pectin.client.list.ListChange;
 import com.pietschy.gwt.pectin.client.list.ListModel;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedEvent;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedHandler;
+import com.pietschy.gwt.pectin.client.list.ListMutation;
 import com.pietschy.gwt.pectin.client.list.MutableListModel;
 
 /**
@@ -32,12 +35,13 @@ public class MutableListModelToMutableListModelBinding<T>
 extends AbstractMutableListBinding<T>
 {
    private MutableListModel<T> target;
+   private WidgetMonitor widgetMonitor = new WidgetMonitor();
 
    public MutableListModelToMutableListModelBinding(MutableListModel<T> source, MutableListModel<T> target)
    {
       super(source);
       this.target = target;
-      registerDisposable(target.addListModelChangedHandler(new WidgetMonitor()));
+      registerDisposable(target.addListModelChangedHandler(widgetMonitor));
    }
 
    @Override
@@ -46,6 +50,89 @@ extends AbstractMutableListBinding<T>
       target.setElements(model.asUnmodifiableList());
    }
 
+   @Override
+   protected void onModelChanged(ListModelChangedEvent<T> event)
+   {
+      // we can only apply the changes to targets that support indexed
+      // updates and that are currently in sync with the model.
+      if (!event.isRefresh() && target instanceof ArrayListModel && target.size() == sizeBefore(event))
+      {
+         // the target is only consistent once all the changes have been
+         // applied so we don't write it back to the model until then.
+         widgetMonitor.setIgnoreEvents(true);
+         try
+         {
+            applyChanges((ArrayListModel<T>) target, event);
+         }
+         finally
+         {
+            widgetMonitor.setIgnoreEvents(false);
+         }
+      }
+      else
+      {
+         updateTarget();
+      }
+   }
+
+   private int sizeBefore(ListModelChangedEvent<T> event)
+   {
+      int size = getModel().size();
+      for (ListChange<T> change : event.getChanges())
+      {
+         if (change.getType() == ListChange.Type.INSERTED)
+         {
+            size -= change.getCount();
+         }
+         else if (change.getType() == ListChange.Type.REMOVED)
+         {
+            size += change.getCount();
+         }
+      }
+      return size;
+   }
+
+   private void applyChanges(final ArrayListModel<T> target, final ListModelChangedEvent<T> event)
+   {
+      // the target reports all the changes in a single event.
+      target.mutate(new ListMutation<T>()
+      {
+         public void execute(ArrayListModel<T> list)
+         {
+            for (ListChange<T> change : event.getChanges())
+            {
+               applyChange(target, change);
+            }
+         }
+      });
+   }
+
+   private void applyChange(ArrayListModel<T> target, ListChange<T> change)
+   {
+      int index = change.getIndex();
+      switch (change.getType())
+      {
+         case INSERTED:
+            target.insert(index, change.getNewElements());
+            break;
+         case REMOVED:
+            for (int i = 0; i < change.getCount(); i++)
+            {
+               target.removeAt(index);
+            }
+            break;
+         case UPDATED:
+            for (int i = 0; i < change.getCount(); i++)
+            {
+               target.set(index + i, change.getNewElements().get(i));
+            }
+            break;
+         case MOVED:
+            target.move(index, change.getToIndex());
+            break;
+      }
+   }
+
    public MutableListModel<T> getTarget()
    {
       return target;
@@ -53,15 +140,25 @@ extends AbstractMutableListBinding<T>
 
    private class WidgetMonitor implements ListModelChangedHandler<T>
    {
+      private boolean ignoreEvents = false;
+
       public void onListDataChanged(ListModelChangedEvent<T> event)
       {
-         updateModel(new MutateOperation<T>()
+         if (!ignoreEvents)
          {
-            public void execute(MutableListModel<T> model)
+            updateModel(new MutateOperation<T>()
             {
-               model.setElements(target.asUnmodifiableList());
-            }
-         });
+               public void execute(MutableListModel<T> model)
+               {
+                  model.setElements(target.asUnmodifiableList());
+               }
+            });
+         }
+      }
+
+      public void setIgnoreEvents(boolean ignoreEvents)
+      {
+         this.ignoreEvents = ignoreEvents;
       }
    }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package com.pietschy.gwt.pectin.client.command;
 
-import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import com.pietschy.gwt.pectin.client.value.BooleanValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
 /**
@@ -12,7 +12,7 @@ import com.pietschy.gwt.pectin.client.value.ValueModel;
  */
 public abstract class AbstractTemporalUiCommand extends UiCommandSupport implements TemporalUiCommand
 {
-   private ValueHolder<Boolean> active = new ValueHolder<Boolean>(false);
+   private BooleanValueModel active = new BooleanValueModel(false);
 
    public ValueModel<Boolean> active()
    {
@@ -26,12 +26,12 @@ public abstract class AbstractTemporalUiCommand extends UiCommandSupport impleme
     */
    void setActive(boolean active)
    {
-      this.active.setValue(active);
+      this.active.setBooleanValue(active);
    }
 
    public void execute()
    {
-      if (active().getValue())
+      if (active.booleanValue())
       {
          // the default implementation throws an {@link ReEntrantExecutionException}.
          onReEntrantExecution();
@@ -28,9 +28,12 @@ import com.pietschy.gwt.pectin.client.form.validation.ValidationResult;
 import com.pietschy.gwt.pectin.client.form.validation.component.ValidationDisplay;
 import com.pietschy.gwt.pectin.client.form.validation.component.ValidationStyles;
 import com.pietschy.gwt.pectin.client.list.ArrayListModel;
+import com.pietschy.gwt.pectin.client.list.LazyListModel;
+import com.pietschy.gwt.pectin.client.list.ListChange;
 import com.pietschy.gwt.pectin.client.list.ListModel;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedEvent;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedHandler;
+import com.pietschy.gwt.pectin.client.list.ListModels;
 
 import java.util.Arrays;
 import java.util.List;
@@ -60,6 +63,9 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
    private ListModel<T> valueList;
    private ListBoxMonitor listBoxMonitor = new ListBoxMonitor();
    private Renderer<? super T> renderer = DEFAULT_RENDERER;
+   private String loadingText = "...";
+   // true once the list box has been opened, from then on we request the elements around the selection.
+   private boolean opened = false;
 
    public ComboBox(T[] values)
    {
@@ -113,11 +119,25 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
       {
          public void onListDataChanged(ListModelChangedEvent<T> event)
          {
-            rebuildListBox();
+            if (event.isRefresh())
+            {
+               rebuildListBox();
+               // lazy lists discard their elements on a refresh so we need to ask again.
+               requestDisplayedRange();
+            }
+            else
+            {
+               applyChanges(event.getChanges());
+            }
          }
       });
 
+      OpenMonitor openMonitor = new OpenMonitor();
+      listBox.addFocusHandler(openMonitor);
+      listBox.addMouseDownHandler(openMonitor);
+
       initWidget(listBox);
+      requestDisplayedRange();
    }
 
    private void rebuildListBox()
@@ -128,8 +148,7 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
          listBox.clear();
          for (int i = 0; i < valueList.size(); i++)
          {
-            T value = valueList.get(i);
-            listBox.addItem(renderer.toDisplayString(value), Integer.toString(i));
+            listBox.addItem(displayStringFor(i, valueList.get(i)));
          }
       }
       finally
@@ -138,6 +157,120 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
       }
    }
 
+   /**
+    * Applies the changes to the existing items rather than rebuilding the whole list box.  Item
+    * indices are offset by one since the first item of the list box represents null.
+    */
+   private void applyChanges(List<ListChange<T>> changes)
+   {
+      listBoxMonitor.setIgnoreEvents(true);
+      try
+      {
+         for (ListChange<T> change : changes)
+         {
+            int itemIndex = change.getIndex() + 1;
+            switch (change.getType())
+            {
+               case INSERTED:
+                  for (int i = 0; i < change.getCount(); i++)
+                  {
+                     listBox.insertItem(renderer.toDisplayString(change.getNewElements().get(i)), itemIndex + i);
+                  }
+                  break;
+               case REMOVED:
+                  for (int i = 0; i < change.getCount(); i++)
+                  {
+                     listBox.removeItem(itemIndex);
+                  }
+                  break;
+               case UPDATED:
+                  for (int i = 0; i < change.getCount(); i++)
+                  {
+                     listBox.setItemText(itemIndex + i, displayStringFor(change.getIndex() + i, change.getNewElements().get(i)));
+                  }
+                  break;
+               case MOVED:
+                  boolean selected = listBox.isItemSelected(itemIndex);
+                  listBox.removeItem(itemIndex);
+                  listBox.insertItem(renderer.toDisplayString(change.getNewElements().get(0)), change.getToIndex() + 1);
+                  if (selected)
+                  {
+                     listBox.selectItem(change.getToIndex() + 1);
+                  }
+                  break;
+            }
+         }
+      }
+      finally
+      {
+         listBoxMonitor.setIgnoreEvents(false);
+      }
+   }
+
+   private String displayStringFor(int index, T value)
+   {
+      // lazy lists can contain elements that haven't been loaded yet.
+      LazyListModel<T> lazyList = ListModels.lazyModelOf(valueList);
+      if (lazyList != null && !lazyList.isLoaded(index))
+      {
+         return loadingText;
+      }
+      return renderer.toDisplayString(value);
+   }
+
+   /**
+    * Requests the elements the list box displays, that's the visible items until the list box has
+    * been opened and a page of elements around the selected item after that.  We can't tell which
+    * items of an open list box have been scrolled into view so we never request the whole list.
+    */
+   private void requestDisplayedRange()
+   {
+      LazyListModel<T> lazyList = ListModels.lazyModelOf(valueList);
+      if (lazyList == null)
+      {
+         return;
+      }
+
+      if (opened)
+      {
+         int pageSize = lazyList.getPageSize();
+         // the first item of the list box represents null.
+         int selected = Math.max(listBox.getSelectedIndex() - 1, 0);
+         requestRange(Math.max(selected - pageSize / 2, 0), pageSize);
+      }
+      else
+      {
+         requestRange(0, listBox.getVisibleItemCount());
+      }
+   }
+
+   /**
+    * Requests the elements in the specified range be loaded if the values are a {@link LazyListModel}.
+    * Items that haven't been loaded display the {@link #setLoadingText(String) loading text}.  Lazy
+    * lists initially request enough elements to fill the visible items, a page around the selection
+    * is requested when the list box gains focus or is clicked (i.e. when the user opens it) and the
+    * displayed range is requested again whenever the list is refreshed.  Other ranges, e.g. as the
+    * user scrolls, need to be requested explicitly.
+    *
+    * @param start the index of the first element.
+    * @param count the number of elements.
+    */
+   public void requestRange(int start, int count)
+   {
+      ListModels.requestRange(valueList, start, count);
+   }
+
+   public void setLoadingText(String loadingText)
+   {
+      if (loadingText == null)
+      {
+         throw new NullPointerException("loadingText is null");
+      }
+
+      this.loadingText = loadingText;
+      rebuildListBox();
+   }
+
    public void setRenderer(Renderer<? super T> renderer)
    {
       if (renderer == null)
@@ -162,14 +295,9 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
    public T
    getValue()
    {
-      String indexAsString = listBox.getSelectedValue();
-      
-      if (indexAsString == null)
-      {
-         return null;
-      }
-      
-      return valueList.get(Integer.parseInt(indexAsString));
+      // the first item represents null
+      int itemIndex = listBox.getSelectedIndex();
+      return itemIndex > 0 ? valueList.get(itemIndex - 1) : null;
    }
 
    public void
@@ -183,14 +311,8 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
       listBoxMonitor.setIgnoreEvents(true);
       try
       {
-         if (value == null)
-         {
-            listBox.setSelectedValue(null);
-         }
-         else
-         {
-            listBox.setSelectedValue(Integer.toString(valueList.indexOf(value)));
-         }
+         // values that aren't in the list select the null item.
+         listBox.selectItem(value != null ? valueList.indexOf(value) + 1 : 0);
          
          if (fireEvents)
          {
@@ -272,4 +394,26 @@ implements HasValue<T>, HasEnabled, Focusable, HasFocusHandlers, HasBlurHandlers
          this.ignoreEvents = ignoreEvents;
       }
    }
+
+   private class OpenMonitor implements FocusHandler, MouseDownHandler
+   {
+      public void onFocus(FocusEvent event)
+      {
+         onOpen();
+      }
+
+      public void onMouseDown(MouseDownEvent event)
+      {
+         onOpen();
+      }
+
+      private void onOpen()
+      {
+         if (!opened)
+         {
+            opened = true;
+            requestDisplayedRange();
+         }
+      }
+   }
 }
\ No newline at end of file
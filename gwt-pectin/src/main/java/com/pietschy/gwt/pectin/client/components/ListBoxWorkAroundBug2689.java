@@ -62,6 +62,20 @@ extends ListBox
       super.addItem(text, value);
    }
 
+   @Override
+   public void insertItem(String item, int index)
+   {
+      verifyTextIsntEmpty(item);
+      super.insertItem(item, index);
+   }
+
+   @Override
+   public void insertItem(String item, String value, int index)
+   {
+      verifyTextIsntEmpty(item);
+      super.insertItem(item, value, index);
+   }
+
    @Override
    public void clear()
    {
@@ -101,6 +115,18 @@ extends ListBox
    }
 
 
+   /**
+    * Selects the item at the specified index.  Unlike {@link #setSelectedIndex(int)} negative indices
+    * select the null item instead of clearing the selection.
+    *
+    * @param index the index of the item to select.
+    */
+   public void
+   selectItem(int index)
+   {
+      super.setSelectedIndex(index > 0 ? index : 0);
+   }
+
    @Override
    public void setSelectedIndex(int index)
    {
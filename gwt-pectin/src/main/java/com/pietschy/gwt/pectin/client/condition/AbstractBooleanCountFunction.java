@@ -0,0 +1,91 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.condition;
+
+import com.pietschy.gwt.pectin.client.function.IncrementalReduce;
+
+import java.util.List;
+
+/**
+ * Base class for reductions of boolean values that only depend on how many of the values are
+ * <code>true</code>, <code>false</code> and <code>null</code>.  Such reductions can be computed
+ * incrementally by keeping a running count of each.
+ */
+public abstract class AbstractBooleanCountFunction<T>
+implements IncrementalReduce<T, Boolean>
+{
+   public T compute(List<? extends Boolean> source)
+   {
+      Counter counter = new Counter();
+      for (Boolean value : source)
+      {
+         counter.add(value);
+      }
+      return counter.getResult();
+   }
+
+   public Accumulator<T, Boolean> createAccumulator()
+   {
+      return new Counter();
+   }
+
+   /**
+    * Computes the result from the counts.
+    *
+    * @param size the total number of values.
+    * @param trueCount the number of values that are <code>true</code>.
+    * @param nullCount the number of values that are <code>null</code>.
+    * @return the result.
+    */
+   protected abstract T compute(int size, int trueCount, int nullCount);
+
+   private class Counter implements Accumulator<T, Boolean>
+   {
+      private int size = 0;
+      private int trueCount = 0;
+      private int nullCount = 0;
+
+      public void add(Boolean value)
+      {
+         size++;
+         adjust(value, 1);
+      }
+
+      public void remove(Boolean value)
+      {
+         size--;
+         adjust(value, -1);
+      }
+
+      private void adjust(Boolean value, int delta)
+      {
+         if (value == null)
+         {
+            nullCount += delta;
+         }
+         else if (value)
+         {
+            trueCount += delta;
+         }
+      }
+
+      public T getResult()
+      {
+         return compute(size, trueCount, nullCount);
+      }
+   }
+}
@@ -16,10 +16,6 @@
 
 package com.pietschy.gwt.pectin.client.condition;
 
-import com.pietschy.gwt.pectin.client.function.Reduce;
-
-import java.util.List;
-
 /**
  * Created by IntelliJ IDEA.
  * User: andrew
@@ -28,18 +24,10 @@ import java.util.List;
  * To change this template use File | Settings | File Templates.
  */
 public class AndFunction
-implements Reduce<Boolean, Boolean>
+extends AbstractBooleanCountFunction<Boolean>
 {
-   public Boolean compute(List<? extends Boolean> source)
+   protected Boolean compute(int size, int trueCount, int nullCount)
    {
-      for (Boolean value : source)
-      {
-         if (value == null || !value)
-         {
-            return false;
-         }
-      }
-      
-      return true;
+      return trueCount == size;
    }
 }
@@ -16,6 +16,8 @@
 
 package com.pietschy.gwt.pectin.client.condition;
 
+import com.pietschy.gwt.pectin.client.value.DebouncedValueModel;
+import com.pietschy.gwt.pectin.client.value.ThrottledValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
 /**
@@ -32,6 +34,18 @@ public class TextConditionBuilder extends ValueConditionBuilder<String>
       super(model);
    }
 
+   @Override
+   public TextConditionBuilder debounced(int quietPeriodMillis)
+   {
+      return new TextConditionBuilder(new DebouncedValueModel<String>(getModel(), quietPeriodMillis));
+   }
+
+   @Override
+   public TextConditionBuilder throttled(int intervalMillis)
+   {
+      return new TextConditionBuilder(new ThrottledValueModel<String>(getModel(), intervalMillis));
+   }
+
    public Condition matches(String regex)
    {
       return new TextMatchesCondition(getModel(), regex);
@@ -17,6 +17,8 @@
 package com.pietschy.gwt.pectin.client.condition;
 
 import com.pietschy.gwt.pectin.client.list.ListModel;
+import com.pietschy.gwt.pectin.client.value.DebouncedValueModel;
+import com.pietschy.gwt.pectin.client.value.ThrottledValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
 /**
@@ -95,6 +97,31 @@ public class ValueConditionBuilder<T>
       return isIn(list).not();
    }
 
+   /**
+    * Creates a builder whose conditions only see the value once it has stopped changing
+    * for the specified period.
+    *
+    * @param quietPeriodMillis the quiet period in milliseconds.
+    * @return a new builder.
+    * @see DebouncedValueModel
+    */
+   public ValueConditionBuilder<T> debounced(int quietPeriodMillis)
+   {
+      return new ValueConditionBuilder<T>(new DebouncedValueModel<T>(getModel(), quietPeriodMillis));
+   }
+
+   /**
+    * Creates a builder whose conditions see the value at most once per interval.
+    *
+    * @param intervalMillis the interval in milliseconds.
+    * @return a new builder.
+    * @see ThrottledValueModel
+    */
+   public ValueConditionBuilder<T> throttled(int intervalMillis)
+   {
+      return new ValueConditionBuilder<T>(new ThrottledValueModel<T>(getModel(), intervalMillis));
+   }
+
    protected ValueModel<T> getModel()
    {
       return model;
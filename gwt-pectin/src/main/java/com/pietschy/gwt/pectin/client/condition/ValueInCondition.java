@@ -16,6 +16,7 @@
 
 package com.pietschy.gwt.pectin.client.condition;
 
+import com.google.gwt.event.shared.HandlerRegistration;
 import com.pietschy.gwt.pectin.client.list.ListModel;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedEvent;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedHandler;
@@ -34,6 +35,8 @@ import static com.pietschy.gwt.pectin.client.util.Utils.areEqual;
 public class ValueInCondition<T> extends AbstractComputedCondition<T>
 {
    private Iterable<T> values;
+   private ListModel<T> listModel;
+   private HandlerRegistration listRegistration;
 
    public ValueInCondition(ValueModel<T> source, T first, T... others)
    {
@@ -55,18 +58,46 @@ public class ValueInCondition<T> extends AbstractComputedCondition<T>
    public ValueInCondition(ValueModel<T> source, ListModel<T> listModel)
    {
       this(source, (Iterable<T>) listModel);
+      this.listModel = listModel;
+   }
+
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      super.onFirstHandlerAdded();
 
-      listModel.addListModelChangedHandler(new ListModelChangedHandler<T>()
+      if (listModel != null)
       {
-         public void onListDataChanged(ListModelChangedEvent<T> tListModelChangedEvent)
+         listRegistration = listModel.addListModelChangedHandler(new ListModelChangedHandler<T>()
          {
-            recompute();
-         }
-      });
+            public void onListDataChanged(ListModelChangedEvent<T> tListModelChangedEvent)
+            {
+               recompute();
+            }
+         });
+      }
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      if (listRegistration != null)
+      {
+         listRegistration.removeHandler();
+         listRegistration = null;
+      }
+
+      super.onLastHandlerRemoved();
    }
 
    protected Boolean computeValue(T sourceValue)
    {
+      if (listModel != null)
+      {
+         // lets indexed list models answer without a scan.
+         return listModel.contains(sourceValue);
+      }
+
       for (T value : values)
       {
          if (areEqual(value, sourceValue))
@@ -19,7 +19,10 @@ package com.pietschy.gwt.pectin.client.form;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.value.HasPropagationHeight;
 import com.pietschy.gwt.pectin.client.value.MutableValueModel;
+import com.pietschy.gwt.pectin.client.value.Propagation;
+import com.pietschy.gwt.pectin.client.value.ValueChangeMonitor;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
 /**
@@ -31,7 +34,7 @@ import com.pietschy.gwt.pectin.client.value.ValueModel;
  */
 public class AbstractFieldModelBase<T>
 extends AbstractField<T>
-implements FieldModelBase<T>
+implements FieldModelBase<T>, HasPropagationHeight
 {
    private SourceModelListener sourceListener = new SourceModelListener();
    private ValueModel<T> source;
@@ -103,13 +106,21 @@ implements FieldModelBase<T>
    protected void
    fireValueChangeEvent(T newValue)
    {
-      ValueChangeEvent.fire(this, newValue);
+      Propagation.fire(this, newValue);
    }
 
    protected void
    fireValueChangeEvent(T oldValue, T newValue)
    {
-      ValueChangeEvent.fireIfNotEqual(this, oldValue, newValue);
+      Propagation.fireIfNotEqual(this, oldValue, newValue);
+   }
+
+   /**
+    * We pass on our source's changes so models derived from us must be ranked above it.
+    */
+   public int getPropagationHeight()
+   {
+      return Propagation.heightOf(source) + 1;
    }
 
    public HandlerRegistration addValueChangeHandler(ValueChangeHandler<T> handler)
@@ -120,15 +131,15 @@ implements FieldModelBase<T>
    /**
     * Probably nice to move this to a buffer strategy.
     */
-   private class SourceModelListener implements ValueChangeHandler<T>
+   private class SourceModelListener extends ValueChangeMonitor<T>
    {
       private boolean ignoreEvents = false;
 
-      public void onValueChange(ValueChangeEvent<T> event)
+      public void onValueChanged(T value)
       {
          if (!ignoreEvents)
          {
-            onSourceModelChange(event.getValue());
+            onSourceModelChange(value);
          }
       }
 
@@ -30,7 +30,8 @@ import com.google.gwt.event.shared.HandlerRegistration;
  */
 public class AbstractHasHandlers
 {
-   private HandlerManager handlers = new HandlerManager(this);
+   // created on demand as many models are never observed.
+   private HandlerManager handlers;
 
    protected boolean areEqual(Object a, Object b)
    {
@@ -40,12 +41,19 @@ public class AbstractHasHandlers
    public void 
    fireEvent(GwtEvent<?> event)
    {
-      handlers.fireEvent(event);
+      if (handlers != null)
+      {
+         handlers.fireEvent(event);
+      }
    }
 
    protected <H extends EventHandler> HandlerRegistration 
    addHandler(H handler, GwtEvent.Type<H> type)
    {
+      if (handlers == null)
+      {
+         handlers = new HandlerManager(this);
+      }
       return handlers.addHandler(type, handler);
    }
 }
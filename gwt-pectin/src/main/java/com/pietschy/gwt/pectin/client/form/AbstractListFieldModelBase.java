@@ -17,6 +17,7 @@
 package com.pietschy.gwt.pectin.client.form;
 
 import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.list.HasListSource;
 import com.pietschy.gwt.pectin.client.list.ListModel;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedEvent;
 import com.pietschy.gwt.pectin.client.list.ListModelChangedHandler;
@@ -35,7 +36,7 @@ import java.util.List;
  */
 public class AbstractListFieldModelBase<T>
 extends AbstractField<T>
-implements ListFieldModelBase<T>
+implements ListFieldModelBase<T>, HasListSource<T>
 {
    private ListModel<T> source;
    private SourceListener<T> sourceListener = new SourceListener<T>();
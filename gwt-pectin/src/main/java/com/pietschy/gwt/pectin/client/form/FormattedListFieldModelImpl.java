@@ -52,7 +52,14 @@ public class FormattedListFieldModelImpl<T>
    {
       public void onGuardedListDataChanged(ListModelChangedEvent<T> event)
       {
-         writeValuesToText();
+         if (canApplyToText(event))
+         {
+            applyValueChangesToText(event.getChanges());
+         }
+         else
+         {
+            writeValuesToText();
+         }
       }
    };
 
@@ -192,6 +199,91 @@ public class FormattedListFieldModelImpl<T>
       updateTextModel(newValues);
    }
 
+   /**
+    * Checks if the event describes changes that will bring the text model back in line with our
+    * values.  If not (or if the event is a refresh) we have to rewrite all the text.
+    */
+   private boolean canApplyToText(ListModelChangedEvent<T> event)
+   {
+      if (event.isRefresh())
+      {
+         return false;
+      }
+
+      int expectedSize = textModel.size();
+      for (ListChange<T> change : event.getChanges())
+      {
+         if (change.getType() == ListChange.Type.INSERTED)
+         {
+            expectedSize += change.getCount();
+         }
+         else if (change.getType() == ListChange.Type.REMOVED)
+         {
+            expectedSize -= change.getCount();
+         }
+      }
+      return expectedSize == size();
+   }
+
+   private void applyValueChangesToText(final List<ListChange<T>> changes)
+   {
+      try
+      {
+         textMonitor.setIgnoreEvents(true);
+         // we apply all the changes in one go so the text model only fires once.
+         textModel.mutate(new ListMutation<String>()
+         {
+            public void execute(ArrayListModel<String> list)
+            {
+               for (ListChange<T> change : changes)
+               {
+                  applyValueChangeToText(change);
+               }
+            }
+         });
+      }
+      finally
+      {
+         textMonitor.setIgnoreEvents(false);
+      }
+   }
+
+   private void applyValueChangeToText(ListChange<T> change)
+   {
+      int index = change.getIndex();
+      switch (change.getType())
+      {
+         case INSERTED:
+            textModel.insert(index, formatAll(change.getNewElements()));
+            break;
+         case REMOVED:
+            for (int i = 0; i < change.getCount(); i++)
+            {
+               textModel.removeAt(index);
+            }
+            break;
+         case UPDATED:
+            for (int i = 0; i < change.getCount(); i++)
+            {
+               textModel.set(index + i, getFormat().format(change.getNewElements().get(i)));
+            }
+            break;
+         case MOVED:
+            textModel.move(index, change.getToIndex());
+            break;
+      }
+   }
+
+   private List<String> formatAll(List<T> values)
+   {
+      ArrayList<String> text = new ArrayList<String>(values.size());
+      for (T value : values)
+      {
+         text.add(getFormat().format(value));
+      }
+      return text;
+   }
+
    private void updateModelValues(ArrayList<T> newValues)
    {
       try
@@ -16,6 +16,7 @@
 
 package com.pietschy.gwt.pectin.client.form.metadata;
 
+import com.pietschy.gwt.pectin.client.value.BooleanValueModel;
 import com.pietschy.gwt.pectin.client.value.DelegatingValueModel;
 import com.pietschy.gwt.pectin.client.value.MutableValueModel;
 import com.pietschy.gwt.pectin.client.value.ValueHolder;
@@ -30,8 +31,8 @@ import com.pietschy.gwt.pectin.client.value.ValueModel;
  */
 public class Metadata
 {
-   private MutableValueModel<Boolean> enabledModel = new ValueHolder<Boolean>(true);
-   private MutableValueModel<Boolean> visibleModel = new ValueHolder<Boolean>(true);
+   private BooleanValueModel enabledModel = new BooleanValueModel(true);
+   private BooleanValueModel visibleModel = new BooleanValueModel(true);
    private DelegatingValueModel<String> watermarkModel = new DelegatingValueModel<String>(new ValueHolder<String>());
 
    public Metadata()
@@ -40,12 +41,12 @@ public class Metadata
 
    public boolean isEnabled()
    {
-      return enabledModel.getValue();
+      return enabledModel.booleanValue();
    }
 
    public void setEnabled(boolean enabled)
    {
-      enabledModel.setValue(enabled);
+      enabledModel.setBooleanValue(enabled);
    }
 
    public MutableValueModel<Boolean> getEnabledModel()
@@ -55,12 +56,12 @@ public class Metadata
 
    public boolean isVisible()
    {
-      return visibleModel.getValue();
+      return visibleModel.booleanValue();
    }
 
    public void setVisible(boolean visible)
    {
-      visibleModel.setValue(visible);
+      visibleModel.setBooleanValue(visible);
    }
 
    public MutableValueModel<Boolean> getVisibleModel()
@@ -56,6 +56,9 @@ implements ValueChangeHandler<Boolean>
 
    public void onValueChange(ValueChangeEvent<Boolean> event)
    {
-      updateWidget(event.getValue());
+      if (!deferTargetUpdate())
+      {
+         updateWidget(event.getValue());
+      }
    }
 }
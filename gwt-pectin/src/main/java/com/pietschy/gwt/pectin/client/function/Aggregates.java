@@ -0,0 +1,499 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.function;
+
+import com.pietschy.gwt.pectin.client.util.Utils;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Incremental aggregate functions for use with lists, e.g.
+ * <pre>
+ * ValueModel&lt;Double&gt; total = computedFrom(lineTotals).using(Aggregates.sumOfDoubles());
+ * </pre>
+ * All the functions are {@link IncrementalReduce}s so a model reducing a list only does work
+ * for the elements that change.  Unless noted otherwise <code>null</code> values are ignored.
+ */
+public class Aggregates
+{
+   private Aggregates()
+   {
+   }
+
+   /**
+    * Counts the values, including <code>null</code>s.
+    */
+   public static IncrementalReduce<Integer, Object> count()
+   {
+      return new AbstractAggregate<Integer, Object>()
+      {
+         public Accumulator<Integer, Object> createAccumulator()
+         {
+            return new Accumulator<Integer, Object>()
+            {
+               private int count = 0;
+
+               public void add(Object value)
+               {
+                  count++;
+               }
+
+               public void remove(Object value)
+               {
+                  count--;
+               }
+
+               public Integer getResult()
+               {
+                  return count;
+               }
+            };
+         }
+      };
+   }
+
+   public static IncrementalReduce<Integer, Number> sumOfIntegers()
+   {
+      return new AbstractAggregate<Integer, Number>()
+      {
+         public Accumulator<Integer, Number> createAccumulator()
+         {
+            return new Accumulator<Integer, Number>()
+            {
+               private int sum = 0;
+
+               public void add(Number value)
+               {
+                  sum += value != null ? value.intValue() : 0;
+               }
+
+               public void remove(Number value)
+               {
+                  sum -= value != null ? value.intValue() : 0;
+               }
+
+               public Integer getResult()
+               {
+                  return sum;
+               }
+            };
+         }
+      };
+   }
+
+   public static IncrementalReduce<Long, Number> sumOfLongs()
+   {
+      return new AbstractAggregate<Long, Number>()
+      {
+         public Accumulator<Long, Number> createAccumulator()
+         {
+            return new Accumulator<Long, Number>()
+            {
+               private long sum = 0;
+
+               public void add(Number value)
+               {
+                  sum += value != null ? value.longValue() : 0;
+               }
+
+               public void remove(Number value)
+               {
+                  sum -= value != null ? value.longValue() : 0;
+               }
+
+               public Long getResult()
+               {
+                  return sum;
+               }
+            };
+         }
+      };
+   }
+
+   /**
+    * Sums the values as doubles.  Removing a value subtracts it from the running total so, as with
+    * any floating point arithmetic, the result may differ from a fresh sum in the last few digits.
+    * <code>NaN</code> and infinite values are counted rather than added, so the sum recovers once
+    * they're removed.
+    */
+   public static IncrementalReduce<Double, Number> sumOfDoubles()
+   {
+      return new AbstractAggregate<Double, Number>()
+      {
+         public Accumulator<Double, Number> createAccumulator()
+         {
+            return new DoubleSum();
+         }
+      };
+   }
+
+   /**
+    * Averages the values as doubles, the result is <code>null</code> if there are no values.
+    */
+   public static IncrementalReduce<Double, Number> average()
+   {
+      return new AbstractAggregate<Double, Number>()
+      {
+         public Accumulator<Double, Number> createAccumulator()
+         {
+            return new DoubleSum()
+            {
+               @Override
+               public Double getResult()
+               {
+                  return count > 0 ? total() / count : null;
+               }
+            };
+         }
+      };
+   }
+
+   /**
+    * Finds the smallest value in natural order, the result is <code>null</code> if there are no
+    * values.
+    */
+   public static <S extends Comparable<? super S>> IncrementalReduce<S, S> min()
+   {
+      return min(new NaturalOrder<S>());
+   }
+
+   public static <S> IncrementalReduce<S, S> min(final Comparator<? super S> comparator)
+   {
+      return new AbstractAggregate<S, S>()
+      {
+         public Accumulator<S, S> createAccumulator()
+         {
+            return new SortedValues<S>(comparator, true);
+         }
+      };
+   }
+
+   /**
+    * Finds the largest value in natural order, the result is <code>null</code> if there are no
+    * values.
+    */
+   public static <S extends Comparable<? super S>> IncrementalReduce<S, S> max()
+   {
+      return max(new NaturalOrder<S>());
+   }
+
+   public static <S> IncrementalReduce<S, S> max(final Comparator<? super S> comparator)
+   {
+      return new AbstractAggregate<S, S>()
+      {
+         public Accumulator<S, S> createAccumulator()
+         {
+            return new SortedValues<S>(comparator, false);
+         }
+      };
+   }
+
+   /**
+    * Counts the values by the key computed by the specified function.  Keys with no values
+    * aren't included in the result.
+    *
+    * @param key the function that computes the key of a value.
+    */
+   public static <K, S> IncrementalReduce<Map<K, Integer>, S> countBy(Function<K, ? super S> key)
+   {
+      return groupBy(key, count());
+   }
+
+   /**
+    * Groups the values by the key computed by the specified function and reduces each group with
+    * the specified function.  Each change only updates the group it belongs to.  Groups with no
+    * values aren't included in the result.
+    * <p>
+    * When computed incrementally the result is a live, unmodifiable map that's updated in place
+    * (models still fire a value change when it changes), copy it if you need a snapshot.
+    * <pre>
+    * ValueModel&lt;Map&lt;Region, Double&gt;&gt; salesByRegion =
+    *    computedFrom(sales).using(Aggregates.groupBy(regionOf, Aggregates.sumOfDoubles()));
+    * </pre>
+    *
+    * @param key the function that computes the key of a value.
+    * @param reduce the function that reduces each group.
+    */
+   public static <K, T, S> IncrementalReduce<Map<K, T>, S> groupBy(final Function<K, ? super S> key,
+                                                                    final IncrementalReduce<T, ? super S> reduce)
+   {
+      if (key == null)
+      {
+         throw new NullPointerException("key is null");
+      }
+
+      if (reduce == null)
+      {
+         throw new NullPointerException("reduce is null");
+      }
+
+      return new AbstractAggregate<Map<K, T>, S>()
+      {
+         public Accumulator<Map<K, T>, S> createAccumulator()
+         {
+            return new Groups<K, T, S>(key, reduce);
+         }
+      };
+   }
+
+   /**
+    * Computes the reduction from scratch using a new accumulator.
+    */
+   private abstract static class AbstractAggregate<T, S>
+   implements IncrementalReduce<T, S>
+   {
+      public T compute(List<? extends S> source)
+      {
+         Accumulator<T, S> accumulator = createAccumulator();
+         for (S value : source)
+         {
+            accumulator.add(value);
+         }
+         return accumulator.getResult();
+      }
+   }
+
+   /**
+    * Keeps a running total of the finite values.  Adding a NaN or infinity to the total would
+    * stick, subtracting it again gives NaN, so those are counted instead and only applied when
+    * the result is read.
+    */
+   private static class DoubleSum implements IncrementalReduce.Accumulator<Double, Number>
+   {
+      protected int count = 0;
+      private double sum = 0;
+      private int nanCount = 0;
+      private int positiveInfinityCount = 0;
+      private int negativeInfinityCount = 0;
+
+      public void add(Number value)
+      {
+         if (value != null)
+         {
+            accumulate(value.doubleValue(), 1);
+            count++;
+         }
+      }
+
+      public void remove(Number value)
+      {
+         if (value != null)
+         {
+            accumulate(value.doubleValue(), -1);
+            count--;
+         }
+      }
+
+      private void accumulate(double value, int sign)
+      {
+         if (Double.isNaN(value))
+         {
+            nanCount += sign;
+         }
+         else if (value == Double.POSITIVE_INFINITY)
+         {
+            positiveInfinityCount += sign;
+         }
+         else if (value == Double.NEGATIVE_INFINITY)
+         {
+            negativeInfinityCount += sign;
+         }
+         else
+         {
+            sum += sign * value;
+         }
+      }
+
+      protected double total()
+      {
+         if (nanCount > 0 || (positiveInfinityCount > 0 && negativeInfinityCount > 0))
+         {
+            return Double.NaN;
+         }
+         if (positiveInfinityCount > 0)
+         {
+            return Double.POSITIVE_INFINITY;
+         }
+         if (negativeInfinityCount > 0)
+         {
+            return Double.NEGATIVE_INFINITY;
+         }
+         return sum;
+      }
+
+      public Double getResult()
+      {
+         return total();
+      }
+   }
+
+   /**
+    * Keeps the values sorted with a count of each so the smallest or largest can be found and
+    * any value removed in logarithmic time.
+    */
+   private static class SortedValues<S> implements IncrementalReduce.Accumulator<S, S>
+   {
+      private TreeMap<S, int[]> counts;
+      private boolean smallest;
+
+      private SortedValues(Comparator<? super S> comparator, boolean smallest)
+      {
+         this.counts = new TreeMap<S, int[]>(comparator);
+         this.smallest = smallest;
+      }
+
+      public void add(S value)
+      {
+         if (value != null)
+         {
+            int[] count = counts.get(value);
+            if (count == null)
+            {
+               counts.put(value, new int[]{1});
+            }
+            else
+            {
+               count[0]++;
+            }
+         }
+      }
+
+      public void remove(S value)
+      {
+         if (value != null)
+         {
+            int[] count = counts.get(value);
+            if (count != null && --count[0] == 0)
+            {
+               counts.remove(value);
+            }
+         }
+      }
+
+      public S getResult()
+      {
+         if (counts.isEmpty())
+         {
+            return null;
+         }
+
+         return smallest ? counts.firstKey() : counts.lastKey();
+      }
+   }
+
+   /**
+    * Keeps an accumulator per key along with a live map of their results.  Each change only
+    * updates the entry for its key.
+    */
+   private static class Groups<K, T, S> implements IncrementalReduce.LiveResultAccumulator<Map<K, T>, S>
+   {
+      private Function<K, ? super S> key;
+      private IncrementalReduce<T, ? super S> reduce;
+      private HashMap<K, Group> groups = new HashMap<K, Group>();
+      private HashMap<K, T> results = new HashMap<K, T>();
+      private Map<K, T> unmodifiableResults = Collections.unmodifiableMap(results);
+      private boolean resultChanged = false;
+
+      private Groups(Function<K, ? super S> key, IncrementalReduce<T, ? super S> reduce)
+      {
+         this.key = key;
+         this.reduce = reduce;
+      }
+
+      public void add(S value)
+      {
+         K k = key.compute(value);
+         Group group = groups.get(k);
+         if (group == null)
+         {
+            group = new Group(reduce.createAccumulator());
+            groups.put(k, group);
+         }
+         group.size++;
+         group.accumulator.add(value);
+         updateResult(k, group);
+      }
+
+      public void remove(S value)
+      {
+         K k = key.compute(value);
+         Group group = groups.get(k);
+         if (group != null)
+         {
+            group.accumulator.remove(value);
+            if (--group.size == 0)
+            {
+               groups.remove(k);
+               results.remove(k);
+               resultChanged = true;
+            }
+            else
+            {
+               updateResult(k, group);
+            }
+         }
+      }
+
+      private void updateResult(K k, Group group)
+      {
+         T result = group.accumulator.getResult();
+         boolean nestedChanged = group.accumulator instanceof IncrementalReduce.LiveResultAccumulator
+                                 && ((IncrementalReduce.LiveResultAccumulator<?, ?>) group.accumulator).clearResultChanged();
+         if (nestedChanged || !results.containsKey(k) || !Utils.areEqual(results.get(k), result))
+         {
+            results.put(k, result);
+            resultChanged = true;
+         }
+      }
+
+      public Map<K, T> getResult()
+      {
+         return unmodifiableResults;
+      }
+
+      public boolean clearResultChanged()
+      {
+         boolean changed = resultChanged;
+         resultChanged = false;
+         return changed;
+      }
+
+      private class Group
+      {
+         private IncrementalReduce.Accumulator<T, ? super S> accumulator;
+         private int size = 0;
+
+         private Group(IncrementalReduce.Accumulator<T, ? super S> accumulator)
+         {
+            this.accumulator = accumulator;
+         }
+      }
+   }
+
+   private static class NaturalOrder<S extends Comparable<? super S>> implements Comparator<S>
+   {
+      public int compare(S a, S b)
+      {
+         return a.compareTo(b);
+      }
+   }
+}
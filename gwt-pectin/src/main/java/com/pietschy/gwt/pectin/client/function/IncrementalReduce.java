@@ -0,0 +1,65 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.function;
+
+/**
+ * A {@link Reduce} that can also be computed incrementally.  Models that support incremental
+ * reduction (such as {@link com.pietschy.gwt.pectin.client.value.ReducingValueModel}) create an
+ * {@link Accumulator} when they start listening to their sources and from then on only tell it
+ * about the values that change, so the cost of a change doesn't depend on the number of sources.
+ * <p>
+ * Accumulators hold the state, so a single function instance can be shared by any number of
+ * models.
+ */
+public interface IncrementalReduce<T, S> extends Reduce<T, S>
+{
+   /**
+    * Creates a new, empty accumulator.
+    *
+    * @return a new accumulator.
+    */
+   Accumulator<T, S> createAccumulator();
+
+   /**
+    * Maintains the running state of an incremental reduction.  A change in a source is reported
+    * as the removal of its old value followed by the addition of its new value.
+    */
+   public interface Accumulator<T, S>
+   {
+      void add(S value);
+
+      void remove(S value);
+
+      T getResult();
+   }
+
+   /**
+    * An accumulator whose result is a live object that it updates in place, such as the map
+    * created by {@link Aggregates#groupBy}.  Since the result is always the same instance models
+    * can't tell it has changed by comparing it with their previous value, so they ask the
+    * accumulator instead.
+    */
+   public interface LiveResultAccumulator<T, S> extends Accumulator<T, S>
+   {
+      /**
+       * Clears the accumulator's changed flag.
+       *
+       * @return <code>true</code> if the result changed since the flag was last cleared.
+       */
+      boolean clearResultChanged();
+   }
+}
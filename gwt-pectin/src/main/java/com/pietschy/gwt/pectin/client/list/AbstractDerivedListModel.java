@@ -0,0 +1,159 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.HandlerRegistration;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Base class for views that derive their contents from a single source list.  The contents
+ * are held in a delegate list that subclasses update from the changes described by the
+ * source's {@link ListModelChangedEvent}s.  All the updates made in response to a single
+ * source event are reported in a single event.
+ */
+public abstract class AbstractDerivedListModel<T, S>
+extends ListView<T>
+{
+   private ArrayListModel<T> delegate = new ArrayListModel<T>();
+   private ListModel<S> source;
+
+   protected AbstractDerivedListModel(ListModel<S> source)
+   {
+      if (source == null)
+      {
+         throw new NullPointerException("source is null");
+      }
+
+      this.source = source;
+   }
+
+   /**
+    * Starts listening to the source and computes the initial contents.  Subclasses must call
+    * this at the end of their constructor.
+    */
+   protected void startListening()
+   {
+      addSourceRegistration(source.addListModelChangedHandler(new SourceListener()));
+      recompute();
+   }
+
+   protected ListModel<S> getSource()
+   {
+      return source;
+   }
+
+   protected ArrayListModel<T> getDelegate()
+   {
+      return delegate;
+   }
+
+   /**
+    * Recomputes the entire contents of the delegate from the source.
+    */
+   protected abstract void recompute();
+
+   /**
+    * Applies the changes made to the source to the delegate.  This is always called within a
+    * {@link ArrayListModel#mutate(ListMutation) mutation} of the delegate.
+    *
+    * @param changes the changes made to the source.
+    */
+   protected abstract void applyChanges(List<ListChange<S>> changes);
+
+   /**
+    * Runs the specified updates to the delegate so they're reported as a single change.
+    */
+   protected void updateDelegate(final Runnable updates)
+   {
+      delegate.mutate(new ListMutation<T>()
+      {
+         public void execute(ArrayListModel<T> list)
+         {
+            updates.run();
+         }
+      });
+   }
+
+   public int size()
+   {
+      return delegate.size();
+   }
+
+   public boolean isEmpty()
+   {
+      return delegate.isEmpty();
+   }
+
+   public T get(int index)
+   {
+      return delegate.get(index);
+   }
+
+   public boolean contains(T element)
+   {
+      return delegate.contains(element);
+   }
+
+   public List<T> asUnmodifiableList()
+   {
+      return delegate.asUnmodifiableList();
+   }
+
+   public int indexOf(T value)
+   {
+      return delegate.indexOf(value);
+   }
+
+   public Iterator<T> iterator()
+   {
+      return delegate.iterator();
+   }
+
+   public HandlerRegistration addListModelChangedHandler(ListModelChangedHandler<T> handler)
+   {
+      return delegate.addListModelChangedHandler(handler);
+   }
+
+   public void fireEvent(GwtEvent<?> event)
+   {
+      delegate.fireEvent(event);
+   }
+
+   private class SourceListener implements ListModelChangedHandler<S>
+   {
+      public void onListDataChanged(final ListModelChangedEvent<S> event)
+      {
+         if (event.isRefresh())
+         {
+            recompute();
+         }
+         else
+         {
+            updateDelegate(new Runnable()
+            {
+               public void run()
+               {
+                  applyChanges(event.getChanges());
+               }
+            });
+         }
+      }
+   }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.HandlerRegistration;
+
+import java.util.*;
+
+/**
+ * Base class for list models that combine two source lists using set operations.  The result
+ * is made up of one or more segments, each of which shows the elements of a source list that
+ * are accepted by a membership test on the other list.  Membership is tracked with hashed
+ * reference counts so changes to either source are applied incrementally from the ranges
+ * described by their {@link ListModelChangedEvent}s.
+ * <p>
+ * Elements are compared using <code>equals</code> and <code>hashCode</code>.
+ */
+public abstract class AbstractSetOperationListModel<T>
+extends ListView<T>
+{
+   private ArrayListModel<T> delegate = new ArrayListModel<T>();
+   private ListModel<T> modelA;
+   private ListModel<T> modelB;
+   private ElementCounts<T> countsA = new ElementCounts<T>();
+   private ElementCounts<T> countsB = new ElementCounts<T>();
+   private List<Segment> segments = new ArrayList<Segment>();
+
+   protected AbstractSetOperationListModel(ListModel<T> a, ListModel<T> b)
+   {
+      if (a == null)
+      {
+         throw new NullPointerException("a is null");
+      }
+
+      if (b == null)
+      {
+         throw new NullPointerException("b is null");
+      }
+
+      modelA = a;
+      modelB = b;
+   }
+
+   /**
+    * Adds a segment to the result.  Must be called by subclasses during construction before
+    * calling {@link #startListening()}.
+    *
+    * @param source the list whose elements the segment shows.
+    * @param membership the list the membership test is performed against, or <code>null</code>
+    * to include every element of the source.
+    * @param includeMembers <code>true</code> to include the elements that are in the membership
+    * list, <code>false</code> to include those that aren't.
+    */
+   protected void addSegment(ListModel<T> source, ListModel<T> membership, boolean includeMembers)
+   {
+      segments.add(new Segment(source, membership == null ? null : countsFor(membership), includeMembers));
+   }
+
+   protected void startListening()
+   {
+      addSourceRegistration(modelA.addListModelChangedHandler(new SourceListener(modelA, countsA)));
+      addSourceRegistration(modelB.addListModelChangedHandler(new SourceListener(modelB, countsB)));
+      recompute();
+   }
+
+   protected ListModel<T> getModelA()
+   {
+      return modelA;
+   }
+
+   protected ListModel<T> getModelB()
+   {
+      return modelB;
+   }
+
+   private ElementCounts<T> countsFor(ListModel<T> model)
+   {
+      return model == modelA ? countsA : countsB;
+   }
+
+   private void recompute()
+   {
+      countsA.setElements(modelA.asUnmodifiableList());
+      countsB.setElements(modelB.asUnmodifiableList());
+
+      ArrayList<T> result = new ArrayList<T>();
+      for (Segment segment : segments)
+      {
+         segment.rebuild(segment.source.asUnmodifiableList(), result);
+      }
+      delegate.setElements(result);
+   }
+
+   private void onSourceChanged(ListModel<T> source, ElementCounts<T> counts, final List<ListChange<T>> changes)
+   {
+      // we remember whether each element we touch was a member before the changes
+      // so we only rescan for the elements whose membership actually changed.
+      final Map<T, Boolean> touched = new HashMap<T, Boolean>();
+      for (ListChange<T> change : changes)
+      {
+         for (T element : change.getOldElements())
+         {
+            remember(touched, counts, element);
+         }
+         for (T element : change.getNewElements())
+         {
+            remember(touched, counts, element);
+         }
+         if (change.getType() != ListChange.Type.MOVED)
+         {
+            for (T element : change.getOldElements())
+            {
+               counts.remove(element);
+            }
+            for (T element : change.getNewElements())
+            {
+               counts.add(element);
+            }
+         }
+      }
+
+      final Set<T> flipped = new HashSet<T>();
+      for (Map.Entry<T, Boolean> entry : touched.entrySet())
+      {
+         if (counts.contains(entry.getKey()) != entry.getValue())
+         {
+            flipped.add(entry.getKey());
+         }
+      }
+
+      final ListModel<T> changedSource = source;
+      final ElementCounts<T> changedCounts = counts;
+      delegate.mutate(new ListMutation<T>()
+      {
+         public void execute(ArrayListModel<T> list)
+         {
+            for (Segment segment : segments)
+            {
+               if (segment.source == changedSource)
+               {
+                  for (ListChange<T> change : changes)
+                  {
+                     segment.apply(change);
+                  }
+               }
+               if (segment.membership == changedCounts && !flipped.isEmpty())
+               {
+                  segment.rescan(segment.source.asUnmodifiableList(), flipped);
+               }
+            }
+         }
+      });
+   }
+
+   private void remember(Map<T, Boolean> touched, ElementCounts<T> counts, T element)
+   {
+      if (!touched.containsKey(element))
+      {
+         touched.put(element, counts.contains(element));
+      }
+   }
+
+   public int size()
+   {
+      return delegate.size();
+   }
+
+   public boolean isEmpty()
+   {
+      return delegate.isEmpty();
+   }
+
+   public T get(int index)
+   {
+      return delegate.get(index);
+   }
+
+   public boolean contains(T element)
+   {
+      return delegate.contains(element);
+   }
+
+   public List<T> asUnmodifiableList()
+   {
+      return delegate.asUnmodifiableList();
+   }
+
+   public int indexOf(T value)
+   {
+      return delegate.indexOf(value);
+   }
+
+   public Iterator<T> iterator()
+   {
+      return delegate.iterator();
+   }
+
+   public HandlerRegistration addListModelChangedHandler(ListModelChangedHandler<T> handler)
+   {
+      return delegate.addListModelChangedHandler(handler);
+   }
+
+   public void fireEvent(GwtEvent<?> event)
+   {
+      delegate.fireEvent(event);
+   }
+
+   /**
+    * The elements of a source list that pass the membership test.
+    */
+   private class Segment extends FilteredSegment<T>
+   {
+      private ListModel<T> source;
+      private ElementCounts<T> membership;
+      private boolean includeMembers;
+
+      private Segment(ListModel<T> source, ElementCounts<T> membership, boolean includeMembers)
+      {
+         super(delegate);
+         this.source = source;
+         this.membership = membership;
+         this.includeMembers = includeMembers;
+      }
+
+      @Override
+      protected boolean accepts(T element)
+      {
+         return membership == null || membership.contains(element) == includeMembers;
+      }
+
+      @Override
+      protected int offset()
+      {
+         int offset = 0;
+         for (Segment segment : segments)
+         {
+            if (segment == this)
+            {
+               return offset;
+            }
+            offset += segment.getIncludedCount();
+         }
+         throw new IllegalStateException("segment not registered");
+      }
+   }
+
+   private class SourceListener implements ListModelChangedHandler<T>
+   {
+      private ListModel<T> source;
+      private ElementCounts<T> counts;
+
+      private SourceListener(ListModel<T> source, ElementCounts<T> counts)
+      {
+         this.source = source;
+         this.counts = counts;
+      }
+
+      public void onListDataChanged(ListModelChangedEvent<T> event)
+      {
+         if (event.isRefresh())
+         {
+            recompute();
+         }
+         else
+         {
+            onSourceChanged(source, counts, event.getChanges());
+         }
+      }
+   }
+}
@@ -34,6 +34,18 @@ extends AbstractHasHandlers
 implements MutableListModel<T>
 {
    private ArrayList<T> internalList = new ArrayList<T>();
+   // true if internalList has been handed out by snapshot() and must be copied before it's changed.
+   private boolean shared = false;
+   private int modificationCount = 0;
+   private List<T> unmodifiableView = new UnmodifiableView();
+
+   // the changes made while a mutation is in progress, null otherwise.
+   private List<ListChange<T>> pendingChanges;
+   private boolean pendingRefresh = false;
+   private int mutationDepth = 0;
+
+   // used by setElements to compute fine grained changes, null to fire a refresh.
+   private ListDiff<T> elementDiff;
 
    public ArrayListModel()
    {
@@ -51,21 +63,160 @@ implements MutableListModel<T>
 
    public void add(T element)
    {
-      internalList.add(element);
-      fireListChanged();
+      add(internalList.size(), element);
+   }
+
+   public void add(int index, T element)
+   {
+      writableList().add(index, element);
+      fireListChanged(ListChange.inserted(index, Collections.singletonList(element)));
+   }
+
+   /**
+    * Appends all the elements to the end of the list firing a single change event.
+    */
+   public void addAll(Collection<? extends T> elements)
+   {
+      insert(internalList.size(), elements);
+   }
+
+   /**
+    * Inserts all the elements at the specified index firing a single change event.
+    */
+   public void insert(int index, Collection<? extends T> elements)
+   {
+      if (!elements.isEmpty())
+      {
+         List<T> inserted = new ArrayList<T>(elements);
+         writableList().addAll(index, inserted);
+         fireListChanged(ListChange.inserted(index, inserted));
+      }
    }
 
    public void remove(T element)
    {
-      internalList.remove(element);
-      fireListChanged();
+      int index = indexOf(element);
+      if (index >= 0)
+      {
+         removeAt(index);
+      }
+   }
+
+   public T removeAt(int index)
+   {
+      T removed = writableList().remove(index);
+      fireListChanged(ListChange.removed(index, Collections.singletonList(removed)));
+      return removed;
+   }
+
+   /**
+    * Removes every occurrence of the specified elements firing a single change event.
+    */
+   public void removeAll(Collection<?> elements)
+   {
+      removeWhere(elements, true);
+   }
+
+   /**
+    * Removes every element that isn't in the specified collection firing a single change event.
+    */
+   public void retainAll(Collection<?> elements)
+   {
+      removeWhere(elements, false);
+   }
+
+   /**
+    * Removes the elements whose membership of the collection matches <code>contained</code> in a
+    * single pass, describing each contiguous run of removed elements as a single change.
+    */
+   private void removeWhere(Collection<?> elements, boolean contained)
+   {
+      // hash the argument so we don't scan it for every element.
+      Set<?> lookup = elements instanceof Set ? (Set<?>) elements : new HashSet<Object>(elements);
+      ArrayList<T> retained = new ArrayList<T>(internalList.size());
+      List<ListChange<T>> changes = new ArrayList<ListChange<T>>();
+      List<T> removedRun = null;
+
+      for (T element : internalList)
+      {
+         if (lookup.contains(element) == contained)
+         {
+            if (removedRun == null)
+            {
+               removedRun = new ArrayList<T>();
+            }
+            removedRun.add(element);
+         }
+         else
+         {
+            if (removedRun != null)
+            {
+               changes.add(ListChange.removed(retained.size(), removedRun));
+               removedRun = null;
+            }
+            retained.add(element);
+         }
+      }
+
+      if (removedRun != null)
+      {
+         changes.add(ListChange.removed(retained.size(), removedRun));
+      }
+
+      if (!changes.isEmpty())
+      {
+         internalList = retained;
+         shared = false;
+         fireListChanged(changes);
+      }
+   }
+
+   /**
+    * Replaces the element at the specified index.
+    *
+    * @return the element previously at the index.
+    */
+   public T set(int index, T element)
+   {
+      T oldElement = writableList().set(index, element);
+      fireListChanged(ListChange.updated(index, Collections.singletonList(oldElement), Collections.singletonList(element)));
+      return oldElement;
+   }
+
+   /**
+    * Moves the element at <code>fromIndex</code> so it lives at <code>toIndex</code>, shifting the
+    * elements in between.
+    */
+   public void move(int fromIndex, int toIndex)
+   {
+      if (fromIndex != toIndex)
+      {
+         ArrayList<T> list = writableList();
+         T element = list.remove(fromIndex);
+         list.add(toIndex, element);
+         fireListChanged(ListChange.moved(fromIndex, toIndex, element));
+      }
    }
 
    public void setElements(Collection<? extends T> elements)
    {
-      internalList.clear();
-      internalList.addAll(elements);
-      fireListChanged();
+      List<ListChange<T>> changes = null;
+      if (elementDiff != null)
+      {
+         changes = elementDiff.diff(asUnmodifiableList(), new ArrayList<T>(elements));
+      }
+
+      internalList = new ArrayList<T>(elements);
+      shared = false;
+
+      if (changes == null)
+      {
+         fireListChanged();
+      }
+      else if (!changes.isEmpty())
+      {
+         fireListChanged(changes);
+      }
    }
 
    public void setElements(T[] elements)
@@ -73,10 +224,36 @@ implements MutableListModel<T>
       setElements(Arrays.asList(elements));
    }
 
+   /**
+    * Configures {@link #setElements(Collection)} (and hence {@link #asDestination()}) to
+    * report only the elements that changed using the specified diff.  By default the
+    * list fires a refresh whenever its elements are replaced.
+    * <pre>
+    * people.setElementDiff(ListDiffs.byKey(idOf));
+    * </pre>
+    *
+    * @param elementDiff the diff to use, or <code>null</code> to fire a refresh.
+    * @see ListDiffs
+    */
+   public void setElementDiff(ListDiff<T> elementDiff)
+   {
+      this.elementDiff = elementDiff;
+   }
+
+   public ListDiff<T> getElementDiff()
+   {
+      return elementDiff;
+   }
+
    public void clear()
    {
-      internalList.clear();;
-      fireListChanged();
+      if (!internalList.isEmpty())
+      {
+         List<T> removed = internalList;
+         internalList = new ArrayList<T>();
+         shared = false;
+         fireListChanged(ListChange.removed(0, removed));
+      }
    }
    
    /**
@@ -98,9 +275,108 @@ implements MutableListModel<T>
       };
    }
 
+   /**
+    * Runs the mutation and reports all the changes it makes in a single change event.
+    */
+   public void mutate(ListMutation<T> mutation)
+   {
+      if (mutationDepth++ == 0)
+      {
+         pendingChanges = new ArrayList<ListChange<T>>();
+         pendingRefresh = false;
+      }
+
+      try
+      {
+         mutation.execute(this);
+      }
+      finally
+      {
+         if (--mutationDepth == 0)
+         {
+            List<ListChange<T>> changes = pendingChanges;
+            pendingChanges = null;
+            // any wholesale change makes the ranges meaningless.
+            if (pendingRefresh)
+            {
+               ListModelChangedEvent.fire(this);
+            }
+            else if (!changes.isEmpty())
+            {
+               ListModelChangedEvent.fire(this, changes);
+            }
+         }
+      }
+   }
+
+   protected boolean isMutating()
+   {
+      return mutationDepth > 0;
+   }
+
+   /**
+    * Returns the current elements as a list that isn't affected by subsequent changes to this
+    * model.  This takes constant time, the elements are shared until the next change at which
+    * point this model copies them.
+    *
+    * @return an unmodifiable snapshot of the current elements.
+    */
+   protected List<T> snapshot()
+   {
+      shared = true;
+      return Collections.unmodifiableList(internalList);
+   }
+
+   /**
+    * Returns a count that is incremented every time this list fires a change.  Two equal counts
+    * mean the list hasn't changed in between.
+    *
+    * @return the modification count.
+    */
+   protected int getModificationCount()
+   {
+      return modificationCount;
+   }
+
+   private ArrayList<T> writableList()
+   {
+      if (shared)
+      {
+         internalList = new ArrayList<T>(internalList);
+         shared = false;
+      }
+      return internalList;
+   }
+
    protected void fireListChanged()
    {
-      ListModelChangedEvent.fire(this);
+      modificationCount++;
+      if (isMutating())
+      {
+         pendingRefresh = true;
+      }
+      else
+      {
+         ListModelChangedEvent.fire(this);
+      }
+   }
+
+   protected void fireListChanged(ListChange<T> change)
+   {
+      fireListChanged(Collections.singletonList(change));
+   }
+
+   protected void fireListChanged(List<ListChange<T>> changes)
+   {
+      modificationCount++;
+      if (isMutating())
+      {
+         pendingChanges.addAll(changes);
+      }
+      else
+      {
+         ListModelChangedEvent.fire(this, changes);
+      }
    }
 
    public int size()
@@ -130,7 +406,7 @@ implements MutableListModel<T>
 
    public List<T> asUnmodifiableList()
    {
-      return Collections.unmodifiableList(internalList);
+      return unmodifiableView;
    }
 
    public int indexOf(T value)
@@ -140,7 +416,7 @@ implements MutableListModel<T>
 
    public Iterator<T> iterator()
    {
-      return internalList.iterator();  
+      return unmodifiableView.iterator();
    }
 
    public HandlerRegistration addListModelChangedHandler(ListModelChangedHandler<T> handler)
@@ -152,4 +428,23 @@ implements MutableListModel<T>
    {
       return true;
    }
-}
\ No newline at end of file
+
+   /**
+    * A read only view that always reflects the current elements, even after they've been
+    * copied or replaced.
+    */
+   private class UnmodifiableView extends AbstractList<T>
+   {
+      @Override
+      public T get(int index)
+      {
+         return internalList.get(index);
+      }
+
+      @Override
+      public int size()
+      {
+         return internalList.size();
+      }
+   }
+}
@@ -16,100 +16,18 @@
 
 package com.pietschy.gwt.pectin.client.list;
 
-import com.google.gwt.event.shared.HandlerRegistration;
-import com.google.gwt.event.shared.GwtEvent;
-
-import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
-
 /**
- * Created by IntelliJ IDEA.
- * User: andrew
- * Date: Jul 10, 2009
- * Time: 5:45:13 PM
- * To change this template use File | Settings | File Templates.
+ * A list model containing the elements of list <code>a</code> that aren't in list
+ * <code>b</code>, in the order they appear in <code>a</code>.  The list updates incrementally
+ * as either source changes.
  */
 public class DifferenceListModel<T>
-implements ListModel<T>
+extends AbstractSetOperationListModel<T>
 {
-   private ArrayListModel<T> delegate = new ArrayListModel<T>();
-   private ListModel<T> modelA;
-   private ListModel<T> modelB;
-   
-   private SourceListener<T> sourceListener = new SourceListener<T>();
-
    public DifferenceListModel(ListModel<T> a, ListModel<T> b)
    {
-      modelA = a;
-      modelB = b;
-      
-      modelA.addListModelChangedHandler(sourceListener);
-      modelB.addListModelChangedHandler(sourceListener);
-      
-      recompute();
-   }
-
-   private void recompute()
-   {
-      ArrayList<T> list = new ArrayList<T>(modelA.asUnmodifiableList());
-      list.removeAll(modelB.asUnmodifiableList());
-      delegate.setElements(list);
-   }
-
-   public int size()
-   {
-      return delegate.size();
-   }
-
-   public boolean isEmpty()
-   {
-      return delegate.isEmpty();
-   }
-
-   public T get(int index)
-   {
-      return delegate.get(index);
-   }
-
-   public boolean contains(T element)
-   {
-      return delegate.contains(element);
-   }
-
-   public List<T> asUnmodifiableList()
-   {
-      return delegate.asUnmodifiableList();
-   }
-
-   public int indexOf(T value)
-   {
-      return delegate.indexOf(value);
-   }
-
-   public Iterator<T> iterator()
-   {
-      return delegate.iterator();
-   }
-
-   public HandlerRegistration addListModelChangedHandler(ListModelChangedHandler<T> handler)
-   {
-      return delegate.addListModelChangedHandler(handler);
-   }
-
-   public void fireEvent(GwtEvent<?> event)
-   {
-      delegate.fireEvent(event);
-   }
-   
-   
-
-
-   private class SourceListener<T> implements ListModelChangedHandler<T>
-   {
-      public void onListDataChanged(ListModelChangedEvent<T> event)
-      {
-         recompute();
-      }
+      super(a, b);
+      addSegment(a, b, false);
+      startListening();
    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A view containing the first occurrence of each element of its source, in source order.
+ * Source changes only re-examine the elements involved in the change.
+ */
+public class DistinctListModel<T>
+extends AbstractDerivedListModel<T, T>
+{
+   private FilteredSegment<T> segment;
+   // the elements seen so far while scanning, null when we're not scanning.
+   private Set<T> seen;
+
+   public DistinctListModel(ListModel<T> source)
+   {
+      super(source);
+      segment = new FilteredSegment<T>(getDelegate())
+      {
+         @Override
+         protected boolean accepts(T element)
+         {
+            // elements are only ever included by a scan since whether an element
+            // is the first occurrence depends on the elements before it.
+            return seen != null && seen.add(element);
+         }
+      };
+      startListening();
+   }
+
+   @Override
+   protected void recompute()
+   {
+      List<T> result = new ArrayList<T>();
+      seen = new HashSet<T>();
+      try
+      {
+         segment.rebuild(getSource().asUnmodifiableList(), result);
+      }
+      finally
+      {
+         seen = null;
+      }
+      getDelegate().setElements(result);
+   }
+
+   @Override
+   protected void applyChanges(List<ListChange<T>> changes)
+   {
+      Set<T> touched = new HashSet<T>();
+      for (ListChange<T> change : changes)
+      {
+         segment.apply(change);
+         touched.addAll(change.getOldElements());
+         touched.addAll(change.getNewElements());
+      }
+
+      seen = new HashSet<T>();
+      try
+      {
+         segment.rescan(getSource().asUnmodifiableList(), touched);
+      }
+      finally
+      {
+         seen = null;
+      }
+   }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Counts the occurrences of each element in a list so membership can be checked in constant
+ * time.  The add and remove methods report when an element enters or leaves the set so callers
+ * can update incrementally.
+ */
+class ElementCounts<T>
+{
+   private HashMap<T, int[]> counts = new HashMap<T, int[]>();
+
+   /**
+    * @return <code>true</code> if this was the first occurrence of the element.
+    */
+   public boolean add(T element)
+   {
+      int[] count = counts.get(element);
+      if (count == null)
+      {
+         counts.put(element, new int[]{1});
+         return true;
+      }
+      count[0]++;
+      return false;
+   }
+
+   /**
+    * @return <code>true</code> if this was the last occurrence of the element.
+    */
+   public boolean remove(T element)
+   {
+      int[] count = counts.get(element);
+      if (count == null)
+      {
+         return false;
+      }
+      if (--count[0] == 0)
+      {
+         counts.remove(element);
+         return true;
+      }
+      return false;
+   }
+
+   public boolean contains(T element)
+   {
+      return counts.containsKey(element);
+   }
+
+   public void setElements(Collection<? extends T> elements)
+   {
+      counts.clear();
+      for (T element : elements)
+      {
+         add(element);
+      }
+   }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.function.Function;
+import com.pietschy.gwt.pectin.client.value.ValueChangeMonitor;
+import com.pietschy.gwt.pectin.client.value.ValueModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view containing the elements of its source for which a predicate returns <code>true</code>.
+ * Source changes only evaluate the predicate for the elements involved.  When one of the
+ * predicate's dependencies changes the predicate is re-evaluated for every element but only
+ * the elements whose inclusion changed are reported.
+ */
+public class FilteredListModel<T>
+extends AbstractDerivedListModel<T, T>
+{
+   private Function<Boolean, ? super T> predicate;
+   private FilteredSegment<T> segment;
+
+   public FilteredListModel(ListModel<T> source, Function<Boolean, ? super T> predicate, ValueModel<?>... dependencies)
+   {
+      super(source);
+
+      if (predicate == null)
+      {
+         throw new NullPointerException("predicate is null");
+      }
+
+      this.predicate = predicate;
+      segment = new FilteredSegment<T>(getDelegate())
+      {
+         @Override
+         protected boolean accepts(T element)
+         {
+            return Boolean.TRUE.equals(FilteredListModel.this.predicate.compute(element));
+         }
+      };
+
+      for (ValueModel<?> dependency : dependencies)
+      {
+         listenTo(dependency);
+      }
+
+      startListening();
+   }
+
+   private <V> void listenTo(ValueModel<V> dependency)
+   {
+      addSourceRegistration(dependency.addValueChangeHandler(new ValueChangeMonitor<V>()
+      {
+         public void onValueChanged(V value)
+         {
+            reevaluate();
+         }
+      }));
+   }
+
+   /**
+    * Re-evaluates the predicate for every element.  This is called automatically when any of
+    * the dependencies change but can be called explicitly if the predicate depends on other state.
+    */
+   public void reevaluate()
+   {
+      updateDelegate(new Runnable()
+      {
+         public void run()
+         {
+            segment.rescan(getSource().asUnmodifiableList(), null);
+         }
+      });
+   }
+
+   @Override
+   protected void recompute()
+   {
+      List<T> result = new ArrayList<T>();
+      segment.rebuild(getSource().asUnmodifiableList(), result);
+      getDelegate().setElements(result);
+   }
+
+   @Override
+   protected void applyChanges(List<ListChange<T>> changes)
+   {
+      for (ListChange<T> change : changes)
+      {
+         segment.apply(change);
+      }
+   }
+}
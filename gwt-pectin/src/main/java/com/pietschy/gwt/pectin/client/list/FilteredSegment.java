@@ -0,0 +1,302 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tracks which elements of a source list are included in a target list and keeps the
+ * target up to date as the source changes.  The included elements occupy a contiguous
+ * range of the target starting at {@link #offset()}, in the same order as the source.
+ * <p>
+ * The inclusion flags are summed by a Fenwick tree so finding where a source element lives
+ * in the target, or flipping its inclusion, takes O(log n).  Inserting or removing flags
+ * anywhere but the end of the source marks the tree stale and it's rebuilt in O(n) the next
+ * time it's needed.
+ */
+abstract class FilteredSegment<T>
+{
+   private ArrayListModel<T> target;
+   private boolean[] included = new boolean[16];
+   // tree[k] holds the number of included flags in (k - lowestBit(k), k], one based.
+   private int[] tree = new int[included.length + 1];
+   private boolean treeStale = false;
+   private int size = 0;
+   private int includedCount = 0;
+
+   protected FilteredSegment(ArrayListModel<T> target)
+   {
+      this.target = target;
+   }
+
+   /**
+    * Checks if the element should be included in the target.
+    */
+   protected abstract boolean accepts(T element);
+
+   /**
+    * The index in the target of the segment's first element.
+    */
+   protected int offset()
+   {
+      return 0;
+   }
+
+   public int getIncludedCount()
+   {
+      return includedCount;
+   }
+
+   /**
+    * Re-evaluates every element of the source, adding the included elements to the result.
+    * The target isn't updated, it's up to the caller to set the result.
+    */
+   public void rebuild(List<T> source, List<T> result)
+   {
+      size = 0;
+      includedCount = 0;
+      ensureCapacity(source.size());
+      for (T element : source)
+      {
+         boolean accepted = accepts(element);
+         included[size++] = accepted;
+         if (accepted)
+         {
+            result.add(element);
+            includedCount++;
+         }
+      }
+      treeStale = true;
+   }
+
+   /**
+    * Applies a change made to the source to the target.
+    */
+   public void apply(ListChange<T> change)
+   {
+      switch (change.getType())
+      {
+         case INSERTED:
+            insert(change.getIndex(), change.getNewElements());
+            break;
+         case REMOVED:
+            remove(change.getIndex(), change.getCount());
+            break;
+         case UPDATED:
+            update(change.getIndex(), change.getNewElements());
+            break;
+         case MOVED:
+            remove(change.getIndex(), 1);
+            insert(change.getToIndex(), change.getNewElements());
+            break;
+      }
+   }
+
+   private void insert(int sourceIndex, List<T> elements)
+   {
+      int count = elements.size();
+      int index = offset() + rankOf(sourceIndex);
+      boolean append = sourceIndex == size;
+
+      ensureCapacity(size + count);
+      System.arraycopy(included, sourceIndex, included, sourceIndex + count, size - sourceIndex);
+
+      ArrayList<T> accepted = new ArrayList<T>(count);
+      for (int i = 0; i < count; i++)
+      {
+         T element = elements.get(i);
+         boolean accept = accepts(element);
+         included[sourceIndex + i] = accept;
+         if (accept)
+         {
+            accepted.add(element);
+         }
+      }
+      size += count;
+
+      if (append && !treeStale)
+      {
+         for (int i = sourceIndex; i < size; i++)
+         {
+            appendToTree(i);
+         }
+      }
+      else
+      {
+         treeStale = true;
+      }
+
+      includedCount += accepted.size();
+      target.insert(index, accepted);
+   }
+
+   private void remove(int sourceIndex, int count)
+   {
+      int index = offset() + rankOf(sourceIndex);
+      for (int i = sourceIndex; i < sourceIndex + count; i++)
+      {
+         if (included[i])
+         {
+            target.removeAt(index);
+            includedCount--;
+         }
+      }
+
+      int end = sourceIndex + count;
+      System.arraycopy(included, end, included, sourceIndex, size - end);
+      // the tree entries up to the new size don't depend on the flags after it, so removing
+      // from the end leaves it intact.
+      treeStale |= end != size;
+      size -= count;
+   }
+
+   private void update(int sourceIndex, List<T> elements)
+   {
+      int index = offset() + rankOf(sourceIndex);
+      for (int i = 0; i < elements.size(); i++)
+      {
+         T element = elements.get(i);
+         boolean wasIncluded = included[sourceIndex + i];
+         boolean accept = accepts(element);
+
+         if (accept && wasIncluded)
+         {
+            target.set(index, element);
+         }
+         else if (accept != wasIncluded)
+         {
+            flip(sourceIndex + i, accept, index, element);
+         }
+
+         if (accept)
+         {
+            index++;
+         }
+      }
+   }
+
+   /**
+    * Re-evaluates the elements of the source that are in the candidates, or every element
+    * if candidates is <code>null</code>, and updates the target for those whose inclusion
+    * has changed.  The source must be in sync with the segment.
+    */
+   public void rescan(List<T> source, Collection<?> candidates)
+   {
+      int index = offset();
+      for (int i = 0; i < size; i++)
+      {
+         T element = source.get(i);
+         boolean wasIncluded = included[i];
+         boolean accept = candidates == null || candidates.contains(element) ? accepts(element) : wasIncluded;
+
+         if (accept != wasIncluded)
+         {
+            flip(i, accept, index, element);
+         }
+
+         if (accept)
+         {
+            index++;
+         }
+      }
+   }
+
+   private void flip(int sourceIndex, boolean accept, int targetIndex, T element)
+   {
+      if (accept)
+      {
+         target.add(targetIndex, element);
+         includedCount++;
+      }
+      else
+      {
+         target.removeAt(targetIndex);
+         includedCount--;
+      }
+
+      included[sourceIndex] = accept;
+      if (!treeStale)
+      {
+         for (int k = sourceIndex + 1; k <= size; k += k & -k)
+         {
+            tree[k] += accept ? 1 : -1;
+         }
+      }
+   }
+
+   /**
+    * Counts the included elements before the specified source index.
+    */
+   private int rankOf(int sourceIndex)
+   {
+      if (treeStale)
+      {
+         rebuildTree();
+      }
+
+      int rank = 0;
+      for (int k = sourceIndex; k > 0; k -= k & -k)
+      {
+         rank += tree[k];
+      }
+      return rank;
+   }
+
+   private void appendToTree(int sourceIndex)
+   {
+      int k = sourceIndex + 1;
+      int sum = included[sourceIndex] ? 1 : 0;
+      for (int j = k - 1; j > k - (k & -k); j -= j & -j)
+      {
+         sum += tree[j];
+      }
+      tree[k] = sum;
+   }
+
+   private void rebuildTree()
+   {
+      for (int k = 1; k <= size; k++)
+      {
+         tree[k] = included[k - 1] ? 1 : 0;
+      }
+      for (int k = 1; k <= size; k++)
+      {
+         int parent = k + (k & -k);
+         if (parent <= size)
+         {
+            tree[parent] += tree[k];
+         }
+      }
+      treeStale = false;
+   }
+
+   private void ensureCapacity(int capacity)
+   {
+      if (capacity > included.length)
+      {
+         int length = Math.max(capacity, included.length * 2);
+         boolean[] newIncluded = new boolean[length];
+         System.arraycopy(included, 0, newIncluded, 0, size);
+         int[] newTree = new int[length + 1];
+         System.arraycopy(tree, 0, newTree, 0, size + 1);
+         included = newIncluded;
+         tree = newTree;
+      }
+   }
+}
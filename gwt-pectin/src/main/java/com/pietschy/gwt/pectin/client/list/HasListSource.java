@@ -0,0 +1,29 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+/**
+ * Implemented by list models that present the elements of another list in the same order,
+ * such as list fields, so requests for a range of elements can be passed on to a
+ * {@link LazyListModel} beneath them.
+ *
+ * @see ListModels#lazyModelOf(ListModel)
+ */
+public interface HasListSource<T>
+{
+   ListModel<T> getSource();
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An {@link ArrayListModel} that maintains a hash index of its elements so {@link #contains},
+ * {@link #containsAll} and {@link #indexOf} don't have to scan the list.  The index is updated
+ * from the changes the list reports.  Element counts are always maintained incrementally.
+ * <p>
+ * The position of each element's first occurrence is also remembered, but a change only
+ * invalidates the positions at or after its index.  A lookup for an element whose position
+ * lies before every change since the last lookup is a hash lookup, otherwise the invalidated
+ * tail of the list is re-indexed.  Changes near the end of the list (the common case when
+ * building up a list) are cheap, a change near the start costs a scan of the list on the next
+ * lookup.
+ * <p>
+ * Elements must have <code>hashCode</code> implementations consistent with <code>equals</code>.
+ */
+public class IndexedListModel<T>
+extends ArrayListModel<T>
+{
+   // these are deliberately not initialised in their declarations since our
+   // super constructor populates the list (and hence the index) before field
+   // initialisers are run.
+   private ElementCounts<T> counts;
+   private HashMap<T, Integer> firstPositions;
+   // positions below this index are known to be correct.
+   private int stalePositionsFrom;
+
+   public IndexedListModel()
+   {
+      rebuildIndex();
+   }
+
+   @SuppressWarnings("unchecked")
+   public IndexedListModel(T... initialValues)
+   {
+      super(initialValues);
+      rebuildIndex();
+   }
+
+   public IndexedListModel(Collection<T> initialValues)
+   {
+      super(initialValues);
+      rebuildIndex();
+   }
+
+   @Override
+   public boolean contains(T element)
+   {
+      return counts.contains(element);
+   }
+
+   @Override
+   public boolean containsAll(Collection<?> elements)
+   {
+      for (Object element : elements)
+      {
+         if (!containsObject(element))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   @SuppressWarnings("unchecked")
+   private boolean containsObject(Object element)
+   {
+      // the hash lookup is safe for any type, it just won't find elements of the wrong type.
+      return counts.contains((T) element);
+   }
+
+   @Override
+   public int indexOf(T value)
+   {
+      if (!counts.contains(value))
+      {
+         return -1;
+      }
+
+      Integer position = firstPositions.get(value);
+      if (position == null || position >= stalePositionsFrom)
+      {
+         reindexStalePositions();
+         position = firstPositions.get(value);
+      }
+
+      return position;
+   }
+
+   @Override
+   protected void fireListChanged()
+   {
+      rebuildIndex();
+      super.fireListChanged();
+   }
+
+   @Override
+   protected void fireListChanged(List<ListChange<T>> changes)
+   {
+      for (ListChange<T> change : changes)
+      {
+         updateIndex(change);
+      }
+      super.fireListChanged(changes);
+   }
+
+   private void rebuildIndex()
+   {
+      if (counts == null)
+      {
+         counts = new ElementCounts<T>();
+         firstPositions = new HashMap<T, Integer>();
+      }
+      counts.setElements(asUnmodifiableList());
+      firstPositions.clear();
+      stalePositionsFrom = 0;
+   }
+
+   /**
+    * Re-indexes the elements from the first stale position to the end of the list.  The
+    * positions before it are still correct so an element's existing entry only needs replacing
+    * if it too is stale.
+    */
+   private void reindexStalePositions()
+   {
+      // we walk backwards so the first occurrence in the tail is the one that sticks.
+      for (int i = size() - 1; i >= stalePositionsFrom; i--)
+      {
+         T element = get(i);
+         Integer position = firstPositions.get(element);
+         if (position == null || position >= stalePositionsFrom)
+         {
+            firstPositions.put(element, i);
+         }
+      }
+      stalePositionsFrom = size();
+   }
+
+   private void updateIndex(ListChange<T> change)
+   {
+      // a change only moves the elements at or after its index.
+      int index = change.getType() == ListChange.Type.MOVED
+                  ? Math.min(change.getIndex(), change.getToIndex())
+                  : change.getIndex();
+      stalePositionsFrom = Math.min(stalePositionsFrom, index);
+
+      if (change.getType() != ListChange.Type.MOVED)
+      {
+         for (T element : change.getOldElements())
+         {
+            if (counts.remove(element))
+            {
+               // the last occurrence has gone.
+               firstPositions.remove(element);
+            }
+         }
+         for (T element : change.getNewElements())
+         {
+            counts.add(element);
+         }
+      }
+   }
+}
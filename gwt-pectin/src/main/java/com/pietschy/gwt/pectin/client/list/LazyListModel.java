@@ -0,0 +1,52 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+/**
+ * A {@link ListModel} whose elements are loaded on demand.  The size of the list is always
+ * known but elements that haven't been loaded are returned as <code>null</code>.  Bindings
+ * request the range of elements they display and are notified with
+ * {@link ListChange.Type#UPDATED updated} ranges as the elements arrive.
+ */
+public interface LazyListModel<E>
+extends ListModel<E>
+{
+   /**
+    * Requests the specified range of elements be loaded.  Elements that are already loaded
+    * aren't reloaded.
+    *
+    * @param start the index of the first element.
+    * @param count the number of elements.
+    */
+   void requestRange(int start, int count);
+
+   /**
+    * Checks if the element at the specified index has been loaded.
+    *
+    * @param index the index.
+    * @return <code>true</code> if the element has been loaded, <code>false</code> otherwise.
+    */
+   boolean isLoaded(int index);
+
+   /**
+    * The number of elements the model loads at a time.  Views that can't tell how many elements
+    * they display request this many.
+    *
+    * @return the page size.
+    */
+   int getPageSize();
+}
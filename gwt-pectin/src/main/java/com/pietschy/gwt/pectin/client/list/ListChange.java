@@ -0,0 +1,142 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a single contiguous change to a {@link ListModel}.  A {@link ListModelChangedEvent}
+ * carries its changes in the order they were made, so the indices of each change refer to the
+ * list as it was after all the previous changes had been applied.  Each change also carries
+ * the elements involved so handlers can apply it without reading the list's current state.
+ */
+public class ListChange<E>
+{
+   public enum Type
+   {
+      INSERTED, REMOVED, UPDATED, MOVED
+   }
+
+   private Type type;
+   private int index;
+   private int count;
+   private int toIndex;
+   private List<E> oldElements;
+   private List<E> newElements;
+
+   private ListChange(Type type, int index, int count, int toIndex, List<E> oldElements, List<E> newElements)
+   {
+      this.type = type;
+      this.index = index;
+      this.count = count;
+      this.toIndex = toIndex;
+      this.oldElements = oldElements;
+      this.newElements = newElements;
+   }
+
+   /**
+    * Creates a change describing the specified elements being inserted at <code>index</code>.
+    */
+   public static <E> ListChange<E> inserted(int index, List<E> insertedElements)
+   {
+      return new ListChange<E>(Type.INSERTED, index, insertedElements.size(), index, Collections.<E>emptyList(), insertedElements);
+   }
+
+   /**
+    * Creates a change describing the removal of the specified elements starting at <code>index</code>.
+    */
+   public static <E> ListChange<E> removed(int index, List<E> removedElements)
+   {
+      return new ListChange<E>(Type.REMOVED, index, removedElements.size(), index, removedElements, Collections.<E>emptyList());
+   }
+
+   /**
+    * Creates a change describing the elements starting at <code>index</code> being replaced.  Both
+    * lists must be the same size.
+    */
+   public static <E> ListChange<E> updated(int index, List<E> oldElements, List<E> newElements)
+   {
+      if (oldElements.size() != newElements.size())
+      {
+         throw new IllegalArgumentException("oldElements and newElements must be the same size");
+      }
+      return new ListChange<E>(Type.UPDATED, index, newElements.size(), index, oldElements, newElements);
+   }
+
+   /**
+    * Creates a change describing the element at <code>fromIndex</code> being moved so that it now
+    * lives at <code>toIndex</code>.
+    */
+   public static <E> ListChange<E> moved(int fromIndex, int toIndex, E element)
+   {
+      List<E> elements = Collections.singletonList(element);
+      return new ListChange<E>(Type.MOVED, fromIndex, 1, toIndex, elements, elements);
+   }
+
+   public Type getType()
+   {
+      return type;
+   }
+
+   /**
+    * The first index affected by this change.  For moves this is the index the element
+    * was moved from.
+    */
+   public int getIndex()
+   {
+      return index;
+   }
+
+   /**
+    * The number of elements affected by this change.
+    */
+   public int getCount()
+   {
+      return count;
+   }
+
+   /**
+    * The index the element was moved to, only meaningful for {@link Type#MOVED} changes.
+    */
+   public int getToIndex()
+   {
+      return toIndex;
+   }
+
+   /**
+    * The elements that were removed or replaced, empty for insertions.
+    */
+   public List<E> getOldElements()
+   {
+      return oldElements;
+   }
+
+   /**
+    * The elements that were inserted or that replaced the old elements, empty for removals.
+    */
+   public List<E> getNewElements()
+   {
+      return newElements;
+   }
+
+   @Override
+   public String toString()
+   {
+      return type + "[index=" + index + ", count=" + count + (type == Type.MOVED ? ", toIndex=" + toIndex : "") + "]";
+   }
+}
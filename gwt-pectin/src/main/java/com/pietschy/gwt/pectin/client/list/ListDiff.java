@@ -0,0 +1,40 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.List;
+
+/**
+ * Computes the changes that transform one list into another.  Used by
+ * {@link ArrayListModel#setElementDiff(ListDiff)} so replacing the contents of a list only
+ * reports what actually changed.
+ *
+ * @see ListDiffs
+ */
+public interface ListDiff<T>
+{
+   /**
+    * Computes the changes required to turn the old list into the new list.  The changes are in
+    * the order they should be applied.
+    *
+    * @param oldElements the current elements.
+    * @param newElements the new elements.
+    * @return the changes, or <code>null</code> if the lists are so different the change should
+    * be reported as a refresh.
+    */
+   List<ListChange<T>> diff(List<T> oldElements, List<T> newElements);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.function.Function;
+
+/**
+ * Factory methods for the standard {@link ListDiff}s.
+ */
+public class ListDiffs
+{
+   /**
+    * The default maximum number of insertions and deletions a diff will compute before giving
+    * up and reporting a refresh.
+    */
+   public static final int DEFAULT_MAX_EDITS = 1000;
+
+   private ListDiffs()
+   {
+   }
+
+   /**
+    * Creates a diff that matches elements using <code>equals</code>.
+    */
+   public static <T> ListDiff<T> byEquality()
+   {
+      return new SequenceListDiff<T, T>(null, DEFAULT_MAX_EDITS);
+   }
+
+   /**
+    * Creates a diff that matches elements using the key computed by the specified function.
+    * Matched elements that aren't equal are reported as {@link ListChange.Type#UPDATED updated}.
+    * This is typically used with entities that are identified by their id.
+    *
+    * @param key the function that computes the key of an element.
+    */
+   public static <T, K> ListDiff<T> byKey(Function<K, ? super T> key)
+   {
+      if (key == null)
+      {
+         throw new NullPointerException("key is null");
+      }
+      return new SequenceListDiff<T, K>(key, DEFAULT_MAX_EDITS);
+   }
+
+   /**
+    * Creates a diff that matches elements using the key computed by the specified function and
+    * that gives up after the specified number of insertions and deletions.
+    *
+    * @param key the function that computes the key of an element, or <code>null</code> to match
+    * using <code>equals</code>.
+    * @param maxEdits the maximum number of edits to compute before reporting a refresh.
+    */
+   public static <T, K> ListDiff<T> byKey(Function<K, ? super T> key, int maxEdits)
+   {
+      return new SequenceListDiff<T, K>(key, maxEdits);
+   }
+}
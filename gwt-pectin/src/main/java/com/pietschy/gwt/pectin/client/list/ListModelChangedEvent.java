@@ -18,6 +18,9 @@ package com.pietschy.gwt.pectin.client.list;
 
 import com.google.gwt.event.shared.GwtEvent;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Created by IntelliJ IDEA.
  * User: andrew
@@ -29,10 +32,24 @@ public class ListModelChangedEvent<E> extends GwtEvent<ListModelChangedHandler<E
 {
    private static final Type<ListModelChangedHandler<?>> TYPE = new Type<ListModelChangedHandler<?>>();
    private ListModel<E> sourceModel;
+   private List<ListChange<E>> changes;
 
+   /**
+    * Creates an event indicating the entire contents of the list may have changed.
+    */
    public ListModelChangedEvent(ListModel<E> sourceModel)
+   {
+      this(sourceModel, Collections.<ListChange<E>>emptyList());
+   }
+
+   /**
+    * Creates an event describing the specified changes.  An empty list of changes indicates
+    * the entire contents of the list may have changed.
+    */
+   public ListModelChangedEvent(ListModel<E> sourceModel, List<ListChange<E>> changes)
    {
       this.sourceModel = sourceModel;
+      this.changes = Collections.unmodifiableList(changes);
    }
 
    public static Type<ListModelChangedHandler<?>> getType()
@@ -45,6 +62,16 @@ public class ListModelChangedEvent<E> extends GwtEvent<ListModelChangedHandler<E
       source.fireEvent(new ListModelChangedEvent<E>(source));
    }
 
+   public static <E> void fire(ListModel<E> source, ListChange<E> change)
+   {
+      source.fireEvent(new ListModelChangedEvent<E>(source, Collections.singletonList(change)));
+   }
+
+   public static <E> void fire(ListModel<E> source, List<ListChange<E>> changes)
+   {
+      source.fireEvent(new ListModelChangedEvent<E>(source, changes));
+   }
+
    @SuppressWarnings("unchecked")
    public Type<ListModelChangedHandler<E>> getAssociatedType()
    {
@@ -60,4 +87,27 @@ public class ListModelChangedEvent<E> extends GwtEvent<ListModelChangedHandler<E
    {
       return sourceModel;
    }
+
+   /**
+    * Gets the changes that were made to the list in the order they were made.  The list will
+    * be empty if the event is a {@link #isRefresh() refresh}.
+    *
+    * @return the changes made to the list.
+    */
+   public List<ListChange<E>> getChanges()
+   {
+      return changes;
+   }
+
+   /**
+    * Checks if this event describes a wholesale change to the list.  In this case handlers
+    * should re-read the entire list as there are no index ranges available.
+    *
+    * @return <code>true</code> if the entire list should be re-read, <code>false</code> if the
+    * changes are described by {@link #getChanges()}.
+    */
+   public boolean isRefresh()
+   {
+      return changes.isEmpty();
+   }
 }
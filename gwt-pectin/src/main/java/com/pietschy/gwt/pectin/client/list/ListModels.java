@@ -0,0 +1,80 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+/**
+ * Static factory methods for {@link ListModel}s.
+ */
+public class ListModels
+{
+   private ListModels()
+   {
+   }
+
+   /**
+    * Creates a {@link ListView} over the specified list that can be used to build a pipeline
+    * of derived views, e.g. <code>ListModels.from(source).filter(predicate).sortedBy(comparator)</code>.
+    *
+    * @param source the source list.
+    * @return a view of the source list.
+    */
+   public static <T> ListView<T> from(ListModel<T> source)
+   {
+      if (source == null)
+      {
+         throw new NullPointerException("source is null");
+      }
+
+      return source instanceof ListView ? (ListView<T>) source : new SourceListView<T>(source);
+   }
+
+   /**
+    * Requests the specified range be loaded if the list is (or presents) a {@link LazyListModel},
+    * otherwise does nothing.  Bindings that only display part of a list can use this to avoid
+    * loading the rest.
+    *
+    * @param list the list.
+    * @param start the index of the first element.
+    * @param count the number of elements.
+    */
+   public static void requestRange(ListModel<?> list, int start, int count)
+   {
+      LazyListModel<?> lazyModel = lazyModelOf(list);
+      if (lazyModel != null)
+      {
+         lazyModel.requestRange(start, count);
+      }
+   }
+
+   /**
+    * Finds the {@link LazyListModel} behind the specified list, looking through list fields and
+    * any other {@link HasListSource} that presents its source's elements.
+    *
+    * @param list the list.
+    * @return the lazy list or <code>null</code> if the list isn't lazy.
+    */
+   @SuppressWarnings("unchecked")
+   public static <T> LazyListModel<T> lazyModelOf(ListModel<T> list)
+   {
+      ListModel<T> candidate = list;
+      while (candidate instanceof HasListSource)
+      {
+         candidate = ((HasListSource<T>) candidate).getSource();
+      }
+      return candidate instanceof LazyListModel ? (LazyListModel<T>) candidate : null;
+   }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+/**
+ * A block of changes to apply to an {@link ArrayListModel} via
+ * {@link ArrayListModel#mutate(ListMutation)}.  All the changes made to the list during
+ * {@link #execute(ArrayListModel)} are reported in a single {@link ListModelChangedEvent}.
+ */
+public interface ListMutation<E>
+{
+   void execute(ArrayListModel<E> list);
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.binding.Disposable;
+import com.pietschy.gwt.pectin.client.function.Function;
+import com.pietschy.gwt.pectin.client.value.ValueModel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * A {@link ListModel} that can be used as the start of a pipeline of derived views.  Each
+ * stage of the pipeline is itself a list model that updates incrementally as the stage before
+ * it changes.
+ * <pre>
+ * ListModel&lt;String&gt; names = ListModels.from(people)
+ *    .filter(isActive, showInactive)
+ *    .map(toName)
+ *    .sortedBy(alphabetical);
+ * </pre>
+ * Views listen to their sources for as long as they exist, so a view that's no longer needed
+ * should be {@link #dispose() disposed} if its source lives on.
+ *
+ * @see ListModels#from(ListModel)
+ */
+public abstract class ListView<T>
+implements ListModel<T>, Disposable
+{
+   private ArrayList<HandlerRegistration> sourceRegistrations = new ArrayList<HandlerRegistration>();
+
+   /**
+    * Remembers a handler the view has added to one of its sources or dependencies so
+    * {@link #dispose()} can remove it.
+    *
+    * @param registration the handler's registration.
+    */
+   protected void addSourceRegistration(HandlerRegistration registration)
+   {
+      sourceRegistrations.add(registration);
+   }
+
+   /**
+    * Stops the view listening to its sources and dependencies.  The view keeps its current
+    * contents but no longer tracks changes, and it no longer keeps its sources' handlers (or
+    * anything downstream of them) reachable.
+    */
+   public void dispose()
+   {
+      for (HandlerRegistration registration : sourceRegistrations)
+      {
+         registration.removeHandler();
+      }
+      sourceRegistrations.clear();
+   }
+
+   /**
+    * Creates a view containing the elements of this list for which the predicate returns
+    * <code>true</code>.
+    *
+    * @param predicate the predicate.
+    * @param dependencies the value models the predicate uses, the predicate is re-evaluated
+    * whenever one of them changes.
+    * @return the filtered view.
+    */
+   public FilteredListModel<T> filter(Function<Boolean, ? super T> predicate, ValueModel<?>... dependencies)
+   {
+      return new FilteredListModel<T>(this, predicate, dependencies);
+   }
+
+   /**
+    * Creates a view containing the result of applying the function to each element of this list.
+    *
+    * @param function the function to apply.
+    * @return the mapped view.
+    */
+   public <R> MappedListModel<R, T> map(Function<R, ? super T> function)
+   {
+      return new MappedListModel<R, T>(this, function);
+   }
+
+   /**
+    * Creates a view containing the elements of this list sorted by the comparator.
+    *
+    * @param comparator the comparator.
+    * @return the sorted view.
+    */
+   public SortedListModel<T> sortedBy(Comparator<? super T> comparator)
+   {
+      return new SortedListModel<T>(this, comparator);
+   }
+
+   /**
+    * Creates a view containing the elements of this list sorted by the current value of the
+    * comparator model.  The view is resorted whenever the comparator changes and shows the
+    * elements in their original order while the comparator is <code>null</code>.
+    *
+    * @param comparator the comparator model.
+    * @return the sorted view.
+    */
+   public SortedListModel<T> sortedBy(ValueModel<? extends Comparator<? super T>> comparator)
+   {
+      return new SortedListModel<T>(this, comparator);
+   }
+
+   /**
+    * Creates a view containing the first occurrence of each element of this list.
+    *
+    * @return the distinct view.
+    */
+   public DistinctListModel<T> distinct()
+   {
+      return new DistinctListModel<T>(this);
+   }
+}
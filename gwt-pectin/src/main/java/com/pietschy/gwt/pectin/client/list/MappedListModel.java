@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.function.Function;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view containing the result of applying a function to each element of its source.  The
+ * function is only applied to the elements involved in each source change.
+ */
+public class MappedListModel<T, S>
+extends AbstractDerivedListModel<T, S>
+{
+   private Function<T, ? super S> function;
+
+   public MappedListModel(ListModel<S> source, Function<T, ? super S> function)
+   {
+      super(source);
+
+      if (function == null)
+      {
+         throw new NullPointerException("function is null");
+      }
+
+      this.function = function;
+      startListening();
+   }
+
+   @Override
+   protected void recompute()
+   {
+      getDelegate().setElements(mapAll(getSource().asUnmodifiableList()));
+   }
+
+   @Override
+   protected void applyChanges(List<ListChange<S>> changes)
+   {
+      ArrayListModel<T> delegate = getDelegate();
+      for (ListChange<S> change : changes)
+      {
+         int index = change.getIndex();
+         switch (change.getType())
+         {
+            case INSERTED:
+               delegate.insert(index, mapAll(change.getNewElements()));
+               break;
+            case REMOVED:
+               for (int i = 0; i < change.getCount(); i++)
+               {
+                  delegate.removeAt(index);
+               }
+               break;
+            case UPDATED:
+               for (int i = 0; i < change.getCount(); i++)
+               {
+                  delegate.set(index + i, function.compute(change.getNewElements().get(i)));
+               }
+               break;
+            case MOVED:
+               delegate.move(index, change.getToIndex());
+               break;
+         }
+      }
+   }
+
+   private List<T> mapAll(List<S> values)
+   {
+      ArrayList<T> result = new ArrayList<T>(values.size());
+      for (S value : values)
+      {
+         result.add(function.compute(value));
+      }
+      return result;
+   }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.command.AsyncCommandCallback;
+
+import java.util.List;
+
+/**
+ * Loads the pages of a {@link PagedListModel}.  Implementations perform the load asynchronously
+ * (typically via RPC) and publish the result to the callback in the same way as
+ * {@link com.pietschy.gwt.pectin.client.command.AbstractAsyncUiCommand#performAsyncOperation}.
+ */
+public interface PageLoader<T, E>
+{
+   /**
+    * Loads the elements in the specified range.
+    *
+    * @param offset the index of the first element to load.
+    * @param count the number of elements to load.
+    * @param callback the callback to publish the elements or error to.
+    */
+   void loadPage(int offset, int count, AsyncCommandCallback<List<T>, E> callback);
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.channel.Channel;
+import com.pietschy.gwt.pectin.client.channel.DefaultChannel;
+import com.pietschy.gwt.pectin.client.command.AsyncCommandCallback;
+import com.pietschy.gwt.pectin.client.form.AbstractHasHandlers;
+import com.pietschy.gwt.pectin.client.value.BooleanValueModel;
+import com.pietschy.gwt.pectin.client.value.ValueModel;
+
+import java.util.*;
+
+/**
+ * A {@link LazyListModel} that loads its elements in fixed size pages using a {@link PageLoader}.
+ * Only the most recently used pages are kept, older pages are discarded (and their elements
+ * reported as updated to <code>null</code>) once the maximum number of resident pages is
+ * exceeded.  Pages in the most recently requested range are never discarded.
+ * <pre>
+ * PagedListModel&lt;Person, String&gt; people = new PagedListModel&lt;Person, String&gt;(loader, 50, 10);
+ * people.setTotalSize(count);
+ * people.requestRange(0, 20);
+ * </pre>
+ */
+public class PagedListModel<T, E>
+extends AbstractHasHandlers
+implements LazyListModel<T>
+{
+   private PageLoader<T, E> loader;
+   private int pageSize;
+   private int maxResidentPages;
+   private int totalSize = 0;
+
+   // ordered by when they were last requested so the first entry is the least recently used.
+   private LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<Integer, List<T>>();
+   private HashSet<Integer> pendingPages = new HashSet<Integer>();
+   private int requestedFirstPage = -1;
+   private int requestedLastPage = -1;
+   // incremented whenever the pages are discarded so late pages can be ignored.
+   private int generation = 0;
+
+   private BooleanValueModel loading = new BooleanValueModel(false);
+   private DefaultChannel<E> errors = new DefaultChannel<E>();
+
+   public PagedListModel(PageLoader<T, E> loader, int pageSize, int maxResidentPages)
+   {
+      if (loader == null)
+      {
+         throw new NullPointerException("loader is null");
+      }
+
+      if (pageSize < 1)
+      {
+         throw new IllegalArgumentException("pageSize must be greater than zero");
+      }
+
+      if (maxResidentPages < 1)
+      {
+         throw new IllegalArgumentException("maxResidentPages must be greater than zero");
+      }
+
+      this.loader = loader;
+      this.pageSize = pageSize;
+      this.maxResidentPages = maxResidentPages;
+   }
+
+   /**
+    * Sets the total number of elements in the list.  This discards all loaded pages.
+    *
+    * @param totalSize the number of elements.
+    */
+   public void setTotalSize(int totalSize)
+   {
+      if (totalSize < 0)
+      {
+         throw new IllegalArgumentException("totalSize must not be negative");
+      }
+
+      this.totalSize = totalSize;
+      invalidate();
+   }
+
+   /**
+    * Discards all loaded pages, any pages currently loading will be ignored when they arrive.
+    * Bindings will request the range they need again.
+    */
+   public void invalidate()
+   {
+      generation++;
+      pages.clear();
+      pendingPages.clear();
+      requestedFirstPage = -1;
+      requestedLastPage = -1;
+      updateLoadingState();
+      ListModelChangedEvent.fire(this);
+   }
+
+   public int getPageSize()
+   {
+      return pageSize;
+   }
+
+   public void requestRange(int start, int count)
+   {
+      if (count < 1 || start >= totalSize)
+      {
+         return;
+      }
+
+      int end = Math.min(start + count, totalSize) - 1;
+      requestedFirstPage = pageOf(Math.max(start, 0));
+      requestedLastPage = pageOf(end);
+
+      for (int page = requestedFirstPage; page <= requestedLastPage; page++)
+      {
+         List<T> elements = pages.remove(page);
+         if (elements != null)
+         {
+            // re-inserting marks the page as the most recently used.
+            pages.put(page, elements);
+         }
+         else if (!pendingPages.contains(page))
+         {
+            pendingPages.add(page);
+            updateLoadingState();
+            int offset = page * pageSize;
+            loader.loadPage(offset, Math.min(pageSize, totalSize - offset), new PageCallback(page, generation));
+         }
+      }
+   }
+
+   public boolean isLoaded(int index)
+   {
+      return pages.containsKey(pageOf(index));
+   }
+
+   /**
+    * A value model that is <code>true</code> while pages are being loaded.
+    *
+    * @return the loading state.
+    */
+   public ValueModel<Boolean> loading()
+   {
+      return loading;
+   }
+
+   /**
+    * The errors published by the loader.
+    *
+    * @return the error channel.
+    */
+   public Channel<E> getErrors()
+   {
+      return errors;
+   }
+
+   private int pageOf(int index)
+   {
+      return index / pageSize;
+   }
+
+   private void updateLoadingState()
+   {
+      loading.setBooleanValue(!pendingPages.isEmpty());
+   }
+
+   private void onPageLoaded(int page, List<T> elements)
+   {
+      int offset = page * pageSize;
+      int expectedSize = Math.min(pageSize, totalSize - offset);
+      ArrayList<T> pageElements = new ArrayList<T>(expectedSize);
+      for (int i = 0; i < expectedSize; i++)
+      {
+         // we tolerate short pages, the missing elements are left as null.
+         pageElements.add(i < elements.size() ? elements.get(i) : null);
+      }
+
+      List<ListChange<T>> changes = new ArrayList<ListChange<T>>();
+      pages.put(page, pageElements);
+      changes.add(ListChange.updated(offset, nulls(expectedSize), Collections.unmodifiableList(pageElements)));
+      evictPages(changes);
+      ListModelChangedEvent.fire(this, changes);
+   }
+
+   private void evictPages(List<ListChange<T>> changes)
+   {
+      Iterator<Map.Entry<Integer, List<T>>> iterator = pages.entrySet().iterator();
+      while (pages.size() > maxResidentPages && iterator.hasNext())
+      {
+         Map.Entry<Integer, List<T>> entry = iterator.next();
+         int page = entry.getKey();
+         if (page < requestedFirstPage || page > requestedLastPage)
+         {
+            List<T> evicted = entry.getValue();
+            iterator.remove();
+            changes.add(ListChange.updated(page * pageSize, evicted, nulls(evicted.size())));
+         }
+      }
+   }
+
+   private List<T> nulls(int count)
+   {
+      ArrayList<T> nulls = new ArrayList<T>(count);
+      for (int i = 0; i < count; i++)
+      {
+         nulls.add(null);
+      }
+      return nulls;
+   }
+
+   public int size()
+   {
+      return totalSize;
+   }
+
+   public boolean isEmpty()
+   {
+      return totalSize == 0;
+   }
+
+   /**
+    * Gets the element at the specified index, or <code>null</code> if it hasn't been loaded.
+    * This doesn't trigger a load, use {@link #requestRange(int, int)} instead.
+    */
+   public T get(int index)
+   {
+      if (index < 0 || index >= totalSize)
+      {
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + totalSize);
+      }
+
+      List<T> page = pages.get(pageOf(index));
+      return page != null ? page.get(index % pageSize) : null;
+   }
+
+   /**
+    * Only checks the elements that are currently loaded.
+    */
+   public boolean contains(T element)
+   {
+      return indexOf(element) >= 0;
+   }
+
+   /**
+    * Only checks the elements that are currently loaded.
+    */
+   public int indexOf(T value)
+   {
+      int result = -1;
+      for (Map.Entry<Integer, List<T>> entry : pages.entrySet())
+      {
+         int index = entry.getValue().indexOf(value);
+         if (index >= 0)
+         {
+            int candidate = entry.getKey() * pageSize + index;
+            result = result < 0 ? candidate : Math.min(result, candidate);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns a copy of the list with <code>null</code> in place of the elements that
+    * haven't been loaded.  This is proportional to the total size of the list so bindings
+    * should use {@link #get(int)} for the range they display instead.
+    */
+   public List<T> asUnmodifiableList()
+   {
+      ArrayList<T> list = new ArrayList<T>(totalSize);
+      for (int i = 0; i < totalSize; i++)
+      {
+         List<T> page = pages.get(pageOf(i));
+         list.add(page != null ? page.get(i % pageSize) : null);
+      }
+      return Collections.unmodifiableList(list);
+   }
+
+   public Iterator<T> iterator()
+   {
+      return asUnmodifiableList().iterator();
+   }
+
+   public HandlerRegistration addListModelChangedHandler(ListModelChangedHandler<T> handler)
+   {
+      return addHandler(handler, ListModelChangedEvent.getType());
+   }
+
+   private class PageCallback implements AsyncCommandCallback<List<T>, E>
+   {
+      private int page;
+      private int generation;
+
+      private PageCallback(int page, int generation)
+      {
+         this.page = page;
+         this.generation = generation;
+      }
+
+      private boolean isCurrent()
+      {
+         return generation == PagedListModel.this.generation;
+      }
+
+      private void finish()
+      {
+         pendingPages.remove(page);
+         updateLoadingState();
+      }
+
+      public void publishSuccess(List<T> result)
+      {
+         if (isCurrent())
+         {
+            finish();
+            onPageLoaded(page, result != null ? result : Collections.<T>emptyList());
+         }
+      }
+
+      public void publishError(E error)
+      {
+         if (isCurrent())
+         {
+            finish();
+            errors.publish(error);
+         }
+      }
+
+      public void abort()
+      {
+         if (isCurrent())
+         {
+            finish();
+         }
+      }
+   }
+}
@@ -17,6 +17,7 @@
 package com.pietschy.gwt.pectin.client.list;
 
 import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.function.IncrementalReduce;
 import com.pietschy.gwt.pectin.client.function.Reduce;
 import com.pietschy.gwt.pectin.client.value.AbstractReducingValueModel;
 
@@ -25,12 +26,21 @@ import java.util.List;
 /**
  * ValueModelFunction is a value model whose value is derived from collection of source
  * {@link com.pietschy.gwt.pectin.client.value.ValueModel}s and a {@link com.pietschy.gwt.pectin.client.function.Reduce}.  Changes in any of the source models result in
- * the function being re-evaluated and the value updating.
+ * the function being re-evaluated and the value updating.  The model only listens to its source
+ * while it has handlers of its own.
+ * <p>
+ * If the function is an {@link IncrementalReduce} then while the model is listening to its
+ * source it only passes on the elements that were inserted, removed or updated, so a change costs
+ * the same regardless of the size of the list.  See
+ * {@link com.pietschy.gwt.pectin.client.function.Aggregates} for the standard incremental
+ * functions.
  */
 public class ReducingValueModel<T, S> extends AbstractReducingValueModel<T,S>
 {
    private ListModel<S> source;
    private HandlerRegistration handlerRegistration;
+   // only used while we're observed and have an incremental function.
+   private IncrementalReduce.Accumulator<T, ? super S> accumulator;
 
    public ReducingValueModel(ListModel<S> source, Reduce<T, ? super S> function)
    {
@@ -45,16 +55,89 @@ public class ReducingValueModel<T, S> extends AbstractReducingValueModel<T,S>
          throw new NullPointerException("source is null");
       }
 
-      if (handlerRegistration != null)
+      this.source = source;
+   }
+
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      handlerRegistration = source.addListModelChangedHandler(new ListChangeMonitor());
+      startAccumulating();
+      super.onFirstHandlerAdded();
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      handlerRegistration.removeHandler();
+      handlerRegistration = null;
+      accumulator = null;
+      super.onLastHandlerRemoved();
+   }
+
+   @Override
+   public void setFunction(Reduce<T, ? super S> function)
+   {
+      // the old accumulator is no use to the new function.
+      accumulator = null;
+      super.setFunction(function);
+      startAccumulating();
+   }
+
+   /**
+    * Creates an accumulator containing the current elements if our function supports it and
+    * we're listening to our source.
+    */
+   @SuppressWarnings("unchecked")
+   private void startAccumulating()
+   {
+      if (isObserved() && getFunction() instanceof IncrementalReduce)
       {
-         handlerRegistration.removeHandler();
-         handlerRegistration = null;
+         accumulator = ((IncrementalReduce<T, ? super S>) getFunction()).createAccumulator();
+         for (S element : source.asUnmodifiableList())
+         {
+            accumulator.add(element);
+         }
       }
+   }
 
-      this.source = source;
-      handlerRegistration = source.addListModelChangedHandler(new ListChangeMonitor<S>());
+   private void accumulate(ListModelChangedEvent<S> event)
+   {
+      if (event.isRefresh())
+      {
+         startAccumulating();
+         return;
+      }
 
-      recompute();
+      for (ListChange<S> change : event.getChanges())
+      {
+         // moves don't change the set of elements.
+         if (change.getType() != ListChange.Type.MOVED)
+         {
+            for (S element : change.getOldElements())
+            {
+               accumulator.remove(element);
+            }
+            for (S element : change.getNewElements())
+            {
+               accumulator.add(element);
+            }
+         }
+      }
+   }
+
+   @Override
+   protected boolean resultChangedInPlace()
+   {
+      return accumulator instanceof IncrementalReduce.LiveResultAccumulator
+             && ((IncrementalReduce.LiveResultAccumulator<?, ?>) accumulator).clearResultChanged();
+   }
+
+   @Override
+   protected T computeValue()
+   {
+      // our accumulator is updated as soon as the list changes so it's never stale.
+      return accumulator != null ? accumulator.getResult() : super.computeValue();
    }
 
    @Override
@@ -63,11 +146,15 @@ public class ReducingValueModel<T, S> extends AbstractReducingValueModel<T,S>
       return source.asUnmodifiableList();
    }
 
-   private class ListChangeMonitor<S> implements ListModelChangedHandler<S>
+   private class ListChangeMonitor implements ListModelChangedHandler<S>
    {
-      public void onListDataChanged(ListModelChangedEvent<S> sListModelChangedEvent)
+      public void onListDataChanged(ListModelChangedEvent<S> event)
       {
-         tryRecompute();
+         if (accumulator != null)
+         {
+            accumulate(event);
+         }
+         scheduleRecompute();
       }
    }
 }
\ No newline at end of file
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.function.Function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.pietschy.gwt.pectin.client.util.Utils.areEqual;
+
+/**
+ * A {@link ListDiff} using Myers' O((N+M)D) algorithm to find the shortest edit script.  The
+ * common prefix and suffix are skipped before running the algorithm so the typical case of a
+ * handful of changes in a large list is close to linear.  Elements are matched by key (or by
+ * equality if there's no key function) and matched elements that aren't equal are reported as
+ * updates.  A run of deletions followed by insertions at the same index is also reported as
+ * updates.
+ */
+class SequenceListDiff<T, K>
+implements ListDiff<T>
+{
+   private static final int DIAGONAL = 0;
+   private static final int DELETE = 1;
+   private static final int INSERT = 2;
+
+   private Function<K, ? super T> key;
+   private int maxEdits;
+
+   SequenceListDiff(Function<K, ? super T> key, int maxEdits)
+   {
+      if (maxEdits < 0)
+      {
+         throw new IllegalArgumentException("maxEdits must not be negative");
+      }
+
+      this.key = key;
+      this.maxEdits = maxEdits;
+   }
+
+   private boolean matches(T a, T b)
+   {
+      return key == null ? areEqual(a, b) : areEqual(key.compute(a), key.compute(b));
+   }
+
+   public List<ListChange<T>> diff(List<T> a, List<T> b)
+   {
+      int n = a.size();
+      int m = b.size();
+
+      int prefix = 0;
+      while (prefix < n && prefix < m && matches(a.get(prefix), b.get(prefix)))
+      {
+         prefix++;
+      }
+
+      int suffix = 0;
+      while (suffix < n - prefix && suffix < m - prefix && matches(a.get(n - 1 - suffix), b.get(m - 1 - suffix)))
+      {
+         suffix++;
+      }
+
+      int[] edits = shortestEdit(a, b, prefix, n - suffix, prefix, m - suffix);
+      if (edits == null)
+      {
+         return null;
+      }
+
+      ChangeBuilder builder = new ChangeBuilder(a, b);
+      for (int i = 0; i < prefix; i++)
+      {
+         builder.diagonal(i, i);
+      }
+      builder.apply(edits, prefix, prefix);
+      for (int i = 0; i < suffix; i++)
+      {
+         builder.diagonal(n - suffix + i, m - suffix + i);
+      }
+      return builder.finish();
+   }
+
+   /**
+    * Computes the edit script for the specified ranges of the lists, returning the operations
+    * in order or <code>null</code> if it requires more than the maximum number of edits.
+    */
+   private int[] shortestEdit(List<T> a, List<T> b, int aStart, int aEnd, int bStart, int bEnd)
+   {
+      int n = aEnd - aStart;
+      int m = bEnd - bStart;
+      int max = Math.min(n + m, maxEdits);
+      int offset = max + 1;
+      int[] v = new int[2 * max + 3];
+      // the state of v at the start of each round, only the range -d-1..d+1 is kept.
+      List<int[]> trace = new ArrayList<int[]>();
+
+      int finalRound = -1;
+      for (int d = 0; d <= max && finalRound < 0; d++)
+      {
+         int[] snapshot = new int[2 * d + 3];
+         System.arraycopy(v, offset - d - 1, snapshot, 0, snapshot.length);
+         trace.add(snapshot);
+
+         for (int k = -d; k <= d; k += 2)
+         {
+            int x;
+            if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+            {
+               x = v[offset + k + 1];
+            }
+            else
+            {
+               x = v[offset + k - 1] + 1;
+            }
+
+            int y = x - k;
+            while (x < n && y < m && matches(a.get(aStart + x), b.get(bStart + y)))
+            {
+               x++;
+               y++;
+            }
+
+            v[offset + k] = x;
+
+            if (x >= n && y >= m)
+            {
+               finalRound = d;
+               break;
+            }
+         }
+      }
+
+      if (finalRound < 0)
+      {
+         return null;
+      }
+
+      return backtrack(trace, finalRound, n, m);
+   }
+
+   private int[] backtrack(List<int[]> trace, int finalRound, int n, int m)
+   {
+      ArrayList<Integer> operations = new ArrayList<Integer>(n + m);
+      int x = n;
+      int y = m;
+      for (int d = finalRound; d >= 0; d--)
+      {
+         int[] v = trace.get(d);
+         // the snapshot for round d starts at k = -d-1
+         int base = d + 1;
+         int k = x - y;
+
+         int previousK;
+         if (k == -d || (k != d && v[base + k - 1] < v[base + k + 1]))
+         {
+            previousK = k + 1;
+         }
+         else
+         {
+            previousK = k - 1;
+         }
+
+         int previousX = d == 0 ? 0 : v[base + previousK];
+         int previousY = previousX - previousK;
+
+         while (x > previousX && y > previousY)
+         {
+            operations.add(DIAGONAL);
+            x--;
+            y--;
+         }
+
+         if (d > 0)
+         {
+            operations.add(x == previousX ? INSERT : DELETE);
+         }
+
+         x = previousX;
+         y = previousY;
+      }
+
+      Collections.reverse(operations);
+      int[] result = new int[operations.size()];
+      for (int i = 0; i < result.length; i++)
+      {
+         result[i] = operations.get(i);
+      }
+      return result;
+   }
+
+   /**
+    * Converts the edit operations into list changes.  While processing, the list being
+    * transformed consists of the new elements up to y followed by the old elements from x.
+    */
+   private class ChangeBuilder
+   {
+      private List<T> a;
+      private List<T> b;
+      private List<ListChange<T>> changes = new ArrayList<ListChange<T>>();
+
+      private ListChange.Type runType;
+      private int runIndex;
+      private List<T> runOld = new ArrayList<T>();
+      private List<T> runNew = new ArrayList<T>();
+
+      private ChangeBuilder(List<T> a, List<T> b)
+      {
+         this.a = a;
+         this.b = b;
+      }
+
+      private void apply(int[] operations, int x, int y)
+      {
+         for (int operation : operations)
+         {
+            switch (operation)
+            {
+               case DIAGONAL:
+                  diagonal(x++, y++);
+                  break;
+               case DELETE:
+                  delete(x++, y);
+                  break;
+               case INSERT:
+                  insert(y++);
+                  break;
+            }
+         }
+      }
+
+      private void diagonal(int x, int y)
+      {
+         T oldElement = a.get(x);
+         T newElement = b.get(y);
+         if (areEqual(oldElement, newElement))
+         {
+            flush();
+         }
+         else
+         {
+            extend(ListChange.Type.UPDATED, y, oldElement, newElement);
+         }
+      }
+
+      private void delete(int x, int y)
+      {
+         extend(ListChange.Type.REMOVED, y, a.get(x), null);
+      }
+
+      private void insert(int y)
+      {
+         extend(ListChange.Type.INSERTED, y, null, b.get(y));
+      }
+
+      private void extend(ListChange.Type type, int index, T oldElement, T newElement)
+      {
+         // deletions stay at the same index while everything else moves forward.
+         int expectedIndex = runType == ListChange.Type.REMOVED ? runIndex : runIndex + runNew.size();
+         if (type != runType || index != expectedIndex)
+         {
+            flush();
+            runType = type;
+            runIndex = index;
+         }
+
+         if (type != ListChange.Type.INSERTED)
+         {
+            runOld.add(oldElement);
+         }
+         if (type != ListChange.Type.REMOVED)
+         {
+            runNew.add(newElement);
+         }
+      }
+
+      private void flush()
+      {
+         if (runType != null)
+         {
+            List<T> oldElements = new ArrayList<T>(runOld);
+            List<T> newElements = new ArrayList<T>(runNew);
+            switch (runType)
+            {
+               case INSERTED:
+                  add(ListChange.inserted(runIndex, newElements));
+                  break;
+               case REMOVED:
+                  add(ListChange.removed(runIndex, oldElements));
+                  break;
+               case UPDATED:
+                  add(ListChange.updated(runIndex, oldElements, newElements));
+                  break;
+            }
+            runType = null;
+            runOld.clear();
+            runNew.clear();
+         }
+      }
+
+      private void add(ListChange<T> change)
+      {
+         ListChange<T> previous = changes.isEmpty() ? null : changes.get(changes.size() - 1);
+         if (previous != null
+             && previous.getType() == ListChange.Type.REMOVED
+             && change.getType() == ListChange.Type.INSERTED
+             && previous.getIndex() == change.getIndex())
+         {
+            // a removal followed by an insertion at the same index is better reported as updates.
+            changes.remove(changes.size() - 1);
+            List<T> removed = previous.getOldElements();
+            List<T> inserted = change.getNewElements();
+            int common = Math.min(removed.size(), inserted.size());
+            int index = change.getIndex();
+
+            changes.add(ListChange.updated(index, removed.subList(0, common), inserted.subList(0, common)));
+            if (removed.size() > common)
+            {
+               changes.add(ListChange.removed(index + common, removed.subList(common, removed.size())));
+            }
+            else if (inserted.size() > common)
+            {
+               changes.add(ListChange.inserted(index + common, inserted.subList(common, inserted.size())));
+            }
+         }
+         else
+         {
+            changes.add(change);
+         }
+      }
+
+      private List<ListChange<T>> finish()
+      {
+         flush();
+         return changes;
+      }
+   }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.value.ValueChangeMonitor;
+import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import com.pietschy.gwt.pectin.client.value.ValueModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A view containing the elements of its source sorted by a comparator.  Source changes are
+ * applied using binary search so only the elements involved are compared.  Changing the
+ * comparator resorts the whole list.  While the comparator is <code>null</code> the elements
+ * are shown in source order.
+ * <p>
+ * Elements that compare as equal keep their source order when the list is sorted but
+ * elements added later are placed after any existing equal elements.
+ */
+public class SortedListModel<T>
+extends AbstractDerivedListModel<T, T>
+{
+   private ValueModel<? extends Comparator<? super T>> comparatorModel;
+
+   public SortedListModel(ListModel<T> source, Comparator<? super T> comparator)
+   {
+      this(source, new ValueHolder<Comparator<? super T>>(comparator));
+   }
+
+   public SortedListModel(ListModel<T> source, ValueModel<? extends Comparator<? super T>> comparator)
+   {
+      super(source);
+
+      if (comparator == null)
+      {
+         throw new NullPointerException("comparator is null");
+      }
+
+      comparatorModel = comparator;
+      listenTo(comparator);
+      startListening();
+   }
+
+   private <C extends Comparator<? super T>> void listenTo(ValueModel<C> comparator)
+   {
+      addSourceRegistration(comparator.addValueChangeHandler(new ValueChangeMonitor<C>()
+      {
+         public void onValueChanged(C value)
+         {
+            recompute();
+         }
+      }));
+   }
+
+   protected Comparator<? super T> getComparator()
+   {
+      return comparatorModel.getValue();
+   }
+
+   @Override
+   protected void recompute()
+   {
+      ArrayList<T> sorted = new ArrayList<T>(getSource().asUnmodifiableList());
+      Comparator<? super T> comparator = getComparator();
+      if (comparator != null)
+      {
+         Collections.sort(sorted, comparator);
+      }
+      getDelegate().setElements(sorted);
+   }
+
+   @Override
+   protected void applyChanges(List<ListChange<T>> changes)
+   {
+      Comparator<? super T> comparator = getComparator();
+      for (ListChange<T> change : changes)
+      {
+         if (comparator == null)
+         {
+            applyInSourceOrder(change);
+         }
+         else if (change.getType() != ListChange.Type.MOVED)
+         {
+            // moves don't affect the sort order.
+            for (T element : change.getOldElements())
+            {
+               removeSorted(element, comparator);
+            }
+            for (T element : change.getNewElements())
+            {
+               insertSorted(element, comparator);
+            }
+         }
+      }
+   }
+
+   private void applyInSourceOrder(ListChange<T> change)
+   {
+      ArrayListModel<T> delegate = getDelegate();
+      int index = change.getIndex();
+      switch (change.getType())
+      {
+         case INSERTED:
+            delegate.insert(index, change.getNewElements());
+            break;
+         case REMOVED:
+            for (int i = 0; i < change.getCount(); i++)
+            {
+               delegate.removeAt(index);
+            }
+            break;
+         case UPDATED:
+            for (int i = 0; i < change.getCount(); i++)
+            {
+               delegate.set(index + i, change.getNewElements().get(i));
+            }
+            break;
+         case MOVED:
+            delegate.move(index, change.getToIndex());
+            break;
+      }
+   }
+
+   private void insertSorted(T element, Comparator<? super T> comparator)
+   {
+      ArrayListModel<T> delegate = getDelegate();
+      // we insert after any equal elements.
+      int low = 0;
+      int high = delegate.size();
+      while (low < high)
+      {
+         int middle = (low + high) >>> 1;
+         if (comparator.compare(delegate.get(middle), element) <= 0)
+         {
+            low = middle + 1;
+         }
+         else
+         {
+            high = middle;
+         }
+      }
+      delegate.add(low, element);
+   }
+
+   private void removeSorted(T element, Comparator<? super T> comparator)
+   {
+      ArrayListModel<T> delegate = getDelegate();
+      int low = 0;
+      int high = delegate.size();
+      while (low < high)
+      {
+         int middle = (low + high) >>> 1;
+         if (comparator.compare(delegate.get(middle), element) < 0)
+         {
+            low = middle + 1;
+         }
+         else
+         {
+            high = middle;
+         }
+      }
+
+      // find the matching element amongst those that compare as equal.
+      for (int i = low; i < delegate.size() && comparator.compare(delegate.get(i), element) == 0; i++)
+      {
+         if (areEqual(delegate.get(i), element))
+         {
+            delegate.removeAt(i);
+            return;
+         }
+      }
+
+      // the comparator isn't consistent with the elements so we fall back to a linear search.
+      delegate.remove(element);
+   }
+
+   private boolean areEqual(T a, T b)
+   {
+      return a == null ? b == null : a.equals(b);
+   }
+}
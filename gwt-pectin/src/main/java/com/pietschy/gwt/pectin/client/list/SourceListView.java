@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.HandlerRegistration;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link ListView} that forwards directly to an existing list without copying it.
+ */
+class SourceListView<T>
+extends ListView<T>
+{
+   private ListModel<T> source;
+
+   SourceListView(ListModel<T> source)
+   {
+      this.source = source;
+   }
+
+   public int size()
+   {
+      return source.size();
+   }
+
+   public boolean isEmpty()
+   {
+      return source.isEmpty();
+   }
+
+   public T get(int index)
+   {
+      return source.get(index);
+   }
+
+   public boolean contains(T element)
+   {
+      return source.contains(element);
+   }
+
+   public List<T> asUnmodifiableList()
+   {
+      return source.asUnmodifiableList();
+   }
+
+   public int indexOf(T value)
+   {
+      return source.indexOf(value);
+   }
+
+   public Iterator<T> iterator()
+   {
+      return source.iterator();
+   }
+
+   public HandlerRegistration addListModelChangedHandler(ListModelChangedHandler<T> handler)
+   {
+      return source.addListModelChangedHandler(handler);
+   }
+
+   public void fireEvent(GwtEvent<?> event)
+   {
+      source.fireEvent(event);
+   }
+}
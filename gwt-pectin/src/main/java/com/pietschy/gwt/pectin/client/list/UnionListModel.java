@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+/**
+ * A list model containing all the elements of list <code>a</code> followed by the elements
+ * of list <code>b</code> that aren't in <code>a</code>.  The list updates incrementally
+ * as either source changes.
+ */
+public class UnionListModel<T>
+extends AbstractSetOperationListModel<T>
+{
+   public UnionListModel(ListModel<T> a, ListModel<T> b)
+   {
+      super(a, b);
+      addSegment(a, null, true);
+      addSegment(b, a, false);
+      startListening();
+   }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.util;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.user.client.Timer;
+
+/**
+ * A {@link TaskScheduler} that uses GWT {@link Timer}s for delayed tasks and the GWT
+ * {@link Scheduler} for deferred tasks.
+ */
+public class GwtTaskScheduler implements TaskScheduler
+{
+   public Task schedule(final Runnable task, int delayMillis)
+   {
+      final Timer timer = new Timer()
+      {
+         public void run()
+         {
+            task.run();
+         }
+      };
+      timer.schedule(Math.max(delayMillis, 1));
+
+      return new Task()
+      {
+         public void cancel()
+         {
+            timer.cancel();
+         }
+      };
+   }
+
+   public Task scheduleDeferred(final Runnable task)
+   {
+      // scheduled commands can't be cancelled so we use a flag instead.
+      final boolean[] cancelled = new boolean[1];
+      Scheduler.get().scheduleFinally(new Scheduler.ScheduledCommand()
+      {
+         public void execute()
+         {
+            if (!cancelled[0])
+            {
+               task.run();
+            }
+         }
+      });
+
+      return new Task()
+      {
+         public void cancel()
+         {
+            cancelled[0] = true;
+         }
+      };
+   }
+
+   public double currentTimeMillis()
+   {
+      return System.currentTimeMillis();
+   }
+}
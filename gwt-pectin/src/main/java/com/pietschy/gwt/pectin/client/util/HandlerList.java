@@ -0,0 +1,220 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.util;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+
+/**
+ * A light weight list of handlers for a single event type.  It's used in place of a
+ * {@link com.google.gwt.event.shared.HandlerManager} by models that only fire one kind of event.
+ * <p>
+ * Up to two handlers are stored inline, beyond that they're held in an array that's copied
+ * whenever a handler is added or removed.  Since the array is never modified in place it's
+ * safe to add and remove handlers while an event is being dispatched, the changes take effect
+ * from the next dispatch.
+ */
+public class HandlerList<H>
+{
+   private Object first;
+   private Object second;
+   // only used once we have more than two handlers.
+   private Object[] all;
+
+   /**
+    * Adds a handler to the list.
+    *
+    * @param handler the handler to add.
+    * @return a registration that will remove the handler.  Calling removeHandler() more than once
+    *         has no effect.
+    */
+   public HandlerRegistration add(final H handler)
+   {
+      if (handler == null)
+      {
+         throw new NullPointerException("handler is null");
+      }
+
+      if (all != null)
+      {
+         Object[] copy = new Object[all.length + 1];
+         System.arraycopy(all, 0, copy, 0, all.length);
+         copy[all.length] = handler;
+         all = copy;
+      }
+      else if (first == null)
+      {
+         first = handler;
+      }
+      else if (second == null)
+      {
+         second = handler;
+      }
+      else
+      {
+         all = new Object[]{first, second, handler};
+         first = null;
+         second = null;
+      }
+
+      if (size() == 1)
+      {
+         onFirstHandlerAdded();
+      }
+
+      return new HandlerRegistration()
+      {
+         private boolean removed = false;
+
+         public void removeHandler()
+         {
+            if (!removed)
+            {
+               removed = true;
+               remove(handler);
+            }
+         }
+      };
+   }
+
+   private void remove(H handler)
+   {
+      if (all != null)
+      {
+         int index = indexOf(handler);
+         if (index < 0)
+         {
+            return;
+         }
+
+         if (all.length == 3)
+         {
+            // back to our inline storage.
+            first = all[index == 0 ? 1 : 0];
+            second = all[index == 2 ? 1 : 2];
+            all = null;
+         }
+         else
+         {
+            Object[] copy = new Object[all.length - 1];
+            System.arraycopy(all, 0, copy, 0, index);
+            System.arraycopy(all, index + 1, copy, index, copy.length - index);
+            all = copy;
+         }
+      }
+      else if (first == handler)
+      {
+         first = second;
+         second = null;
+      }
+      else if (second == handler)
+      {
+         second = null;
+      }
+      else
+      {
+         return;
+      }
+
+      if (isEmpty())
+      {
+         onLastHandlerRemoved();
+      }
+   }
+
+   private int indexOf(H handler)
+   {
+      for (int i = 0; i < all.length; i++)
+      {
+         if (all[i] == handler)
+         {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   public int size()
+   {
+      if (all != null)
+      {
+         return all.length;
+      }
+      return first == null ? 0 : (second == null ? 1 : 2);
+   }
+
+   public boolean isEmpty()
+   {
+      return first == null && all == null;
+   }
+
+   /**
+    * Dispatches the event to each handler in the order they were added.  Handlers added or
+    * removed during the dispatch won't affect the current dispatch.
+    *
+    * @param dispatcher the dispatcher that knows how to invoke the handler.
+    * @param event the event to dispatch.
+    */
+   @SuppressWarnings("unchecked")
+   public <E> void dispatch(Dispatcher<? super H, E> dispatcher, E event)
+   {
+      // take local copies so changes made by the handlers don't affect us.
+      Object[] all = this.all;
+      if (all != null)
+      {
+         for (Object handler : all)
+         {
+            dispatcher.dispatch((H) handler, event);
+         }
+      }
+      else
+      {
+         Object first = this.first;
+         Object second = this.second;
+         if (first != null)
+         {
+            dispatcher.dispatch((H) first, event);
+         }
+         if (second != null)
+         {
+            dispatcher.dispatch((H) second, event);
+         }
+      }
+   }
+
+   /**
+    * Called when the list goes from empty to having one handler.
+    */
+   protected void onFirstHandlerAdded()
+   {
+   }
+
+   /**
+    * Called when the last handler is removed.
+    */
+   protected void onLastHandlerRemoved()
+   {
+   }
+
+   /**
+    * Dispatchers invoke the appropriate handler method for a given event.  They're typically
+    * stateless so a single instance can be shared.
+    */
+   public interface Dispatcher<H, E>
+   {
+      void dispatch(H handler, E event);
+   }
+}
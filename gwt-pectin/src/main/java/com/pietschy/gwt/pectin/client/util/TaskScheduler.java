@@ -0,0 +1,62 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.util;
+
+/**
+ * Runs tasks at some point in the future.  This abstracts the browser's timers so that models
+ * that need to delay work (such as {@link com.pietschy.gwt.pectin.client.value.DebouncedValueModel})
+ * can be tested outside the browser.  The default implementation is available from
+ * {@link TaskSchedulers#getDefault()}.
+ */
+public interface TaskScheduler
+{
+   /**
+    * Schedules the task to run after the specified delay.
+    *
+    * @param task the task to run.
+    * @param delayMillis the delay in milliseconds.
+    * @return a handle that can be used to cancel the task.
+    */
+   Task schedule(Runnable task, int delayMillis);
+
+   /**
+    * Schedules the task to run once the current event has been processed but before control
+    * returns to the browser.  Tasks scheduled this way run in the order they were scheduled.
+    *
+    * @param task the task to run.
+    * @return a handle that can be used to cancel the task.
+    */
+   Task scheduleDeferred(Runnable task);
+
+   /**
+    * Gets the current time in milliseconds as seen by this scheduler.
+    *
+    * @return the current time.
+    */
+   double currentTimeMillis();
+
+   /**
+    * A handle to a scheduled task.
+    */
+   public interface Task
+   {
+      /**
+       * Cancels the task.  Calling this after the task has run has no effect.
+       */
+      void cancel();
+   }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.util;
+
+/**
+ * Provides the {@link TaskScheduler} used by models that aren't given one explicitly.
+ */
+public class TaskSchedulers
+{
+   private static TaskScheduler defaultScheduler;
+
+   private TaskSchedulers()
+   {
+   }
+
+   /**
+    * Gets the default scheduler.  Unless configured otherwise this is a {@link GwtTaskScheduler}.
+    *
+    * @return the default scheduler.
+    */
+   public static TaskScheduler getDefault()
+   {
+      if (defaultScheduler == null)
+      {
+         defaultScheduler = new GwtTaskScheduler();
+      }
+      return defaultScheduler;
+   }
+
+   /**
+    * Configures the default scheduler.  This is mainly useful for tests that need to control
+    * time, passing <code>null</code> restores the standard scheduler.
+    *
+    * @param scheduler the new default scheduler.
+    */
+   public static void setDefault(TaskScheduler scheduler)
+   {
+      defaultScheduler = scheduler;
+   }
+}
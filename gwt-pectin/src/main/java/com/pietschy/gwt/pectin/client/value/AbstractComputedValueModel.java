@@ -16,25 +16,30 @@
 
 package com.pietschy.gwt.pectin.client.value;
 
-import com.google.gwt.event.logical.shared.ValueChangeEvent;
-import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
 import com.pietschy.gwt.pectin.client.util.Utils;
 
 /**
- *
+ * A value model whose value is computed from a single source model.  The model only listens
+ * to its source while it has value change handlers, when no one is listening the value is
+ * computed on demand each time {@link #getValue()} is called.
  */
 public abstract class AbstractComputedValueModel<T, S> extends AbstractValueModel<T>
 {
-   private ValueChangeHandler<S> changeMonitor = new ValueChangeHandler<S>()
+   private ValueChangeMonitor<S> changeMonitor = new ValueChangeMonitor<S>()
    {
-      public void onValueChange(ValueChangeEvent<S> event)
+      public void onValueChanged(S value)
       {
-         recompute();
+         Propagation.schedule(AbstractComputedValueModel.this);
       }
    };
 
    private ValueModel<S> source;
-   private ValueCache valueCache;
+   private HandlerRegistration sourceRegistration;
+   private T cachedValue;
+   private boolean cacheInitialised = false;
+   private int propagationHeight;
+   private int propagationHeightVersion = -1;
 
    public AbstractComputedValueModel(ValueModel<S> source)
    {
@@ -43,84 +48,93 @@ public abstract class AbstractComputedValueModel<T, S> extends AbstractValueMode
          throw new NullPointerException("source is null");
       }
       this.source = source;
-      this.source.addValueChangeHandler(changeMonitor);
    }
 
    /**
-    * Recomputes the value and fires a value change event as required.
+    * Recomputes the value and fires a value change event as required.  This is a no-op
+    * if no one is listening to this model.
     */
    protected void recompute()
    {
-      // If we've never been initialised (i.e. getValue() has never been called) then
-      // we need to force the firing (since the `oldValue` will equal the `newValue`
-      // and thus no event will fire).  That way any listeners that have been added
-      // prior to initialisation won't miss out on the first event.
-
-      // must check this before we call getCache()
-      boolean firstTime = !isCacheInitialised();
-
-      // if we've never been initialised then this will be the 'newValue'
-      T oldValue = getCache().getValue();
-
-      // now recompute and get the value.
-      getCache().recompute();
-      T newValue = getCache().getValue();
-
-      // and fire the event if the values are different or if this is the first time
-      // we've been asked to recompute.
-      if (firstTime || Utils.areDifferent(oldValue, newValue))
+      if (isSubscribed())
       {
-         fireValueChangeEvent(newValue);
+         // If we've never been initialised (i.e. getValue() hasn't been called since we started
+         // listening) then we need to force the firing (since we don't know the `oldValue`).  That
+         // way any listeners that have been added prior to initialisation won't miss out on the
+         // first event.
+         boolean firstTime = !cacheInitialised;
+
+         T oldValue = cachedValue;
+         updateCache();
+
+         if (firstTime || Utils.areDifferent(oldValue, cachedValue))
+         {
+            fireValueChangeEvent(cachedValue);
+         }
       }
    }
 
    public T getValue()
    {
-      return getCache().getValue();
-   }
+      // if no one's listening or if we're read part way through a propagation we compute
+      // a fresh value, we'll still fire our event when propagation reaches us.
+      if (!isSubscribed() || isStale())
+      {
+         return computeValue(source.getValue());
+      }
 
-   private ValueCache getCache()
-   {
-      if (valueCache == null)
+      // We compute lazily as calling computeValue() during construction would invoke it
+      // before any subclass fields have been initialised.
+      if (!cacheInitialised)
       {
-         valueCache = new ValueCache();
+         updateCache();
       }
-      return valueCache;
+
+      return cachedValue;
    }
 
-   private boolean isCacheInitialised()
+   private void updateCache()
    {
-      return valueCache != null;
+      cachedValue = computeValue(source.getValue());
+      cacheInitialised = true;
    }
 
-   protected abstract T computeValue(S value);
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      sourceRegistration = source.addValueChangeHandler(changeMonitor);
+   }
 
-   /**
-    * This class allows us to lazily compute the value on the first getValue() call or
-    * source model change event.
-    *
-    * Without the lazy computation we'd need to call recompute in our constructor... which would in
-    * turn case havoc for subclasses by invoking computeValue() during super()... thus before any 
-    * fields have been initialised... at which point we'd sit back and wait for the NullPointerExceptions.
-    */
-   private class ValueCache
+   @Override
+   protected void onLastHandlerRemoved()
    {
-      private T value;
+      sourceRegistration.removeHandler();
+      sourceRegistration = null;
+      // don't hold onto stuff we no longer need.
+      cachedValue = null;
+      cacheInitialised = false;
+   }
 
-      private ValueCache()
-      {
-         recompute();
-      }
+   private boolean isSubscribed()
+   {
+      return sourceRegistration != null;
+   }
 
-      public T getValue()
-      {
-         return value;
-      }
+   void propagate()
+   {
+      recompute();
+   }
 
-      public void recompute()
+   int getPropagationHeight()
+   {
+      // our source's height changes if it depends on a DelegatingValueModel that's been given a new delegate.
+      if (propagationHeightVersion != Propagation.getHeightVersion())
       {
-         value = computeValue(source.getValue());
+         propagationHeight = Propagation.heightOf(source) + 1;
+         propagationHeightVersion = Propagation.getHeightVersion();
       }
+      return propagationHeight;
    }
 
+   protected abstract T computeValue(S value);
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.util.TaskScheduler;
+
+/**
+ * Base class for models that pass on their source's value some time after it changes.  Subclasses
+ * decide when to publish by implementing {@link #onSourceChange()}.
+ * <p>
+ * While the model has handlers it holds the last published value, otherwise it simply returns
+ * its source's current value.  Since changes are published asynchronously these models are
+ * treated as sources by {@link Propagation}.
+ */
+public abstract class AbstractDelayedValueModel<T> extends AbstractValueModel<T>
+{
+   private ValueModel<T> source;
+   private TaskScheduler scheduler;
+   private HandlerRegistration sourceRegistration;
+   private TaskScheduler.Task pendingTask;
+   private T value;
+
+   private ValueChangeMonitor<T> sourceMonitor = new ValueChangeMonitor<T>()
+   {
+      public void onValueChanged(T value)
+      {
+         onSourceChange();
+      }
+   };
+
+   private Runnable publishTask = new Runnable()
+   {
+      public void run()
+      {
+         pendingTask = null;
+         publish();
+      }
+   };
+
+   protected AbstractDelayedValueModel(ValueModel<T> source, TaskScheduler scheduler)
+   {
+      if (source == null)
+      {
+         throw new NullPointerException("source is null");
+      }
+
+      if (scheduler == null)
+      {
+         throw new NullPointerException("scheduler is null");
+      }
+
+      this.source = source;
+      this.scheduler = scheduler;
+   }
+
+   /**
+    * Gets the last published value while the model has handlers.  When no one is listening
+    * nothing is delayed and this returns the source's current value, so a pending burst of
+    * changes is visible straight away.
+    *
+    * @return the last published value, or the source's value if the model isn't observed.
+    */
+   public T getValue()
+   {
+      return isObserved() ? value : source.getValue();
+   }
+
+   /**
+    * Publishes any pending change immediately.  This is useful when the latest value is needed
+    * straight away, e.g. before validating a form.
+    */
+   public void flush()
+   {
+      if (hasPendingChange())
+      {
+         publish();
+      }
+   }
+
+   /**
+    * Checks if a change in our source has yet to be published.
+    *
+    * @return <code>true</code> if a change is waiting to be published, <code>false</code> otherwise.
+    */
+   public boolean hasPendingChange()
+   {
+      return pendingTask != null;
+   }
+
+   /**
+    * Called when the source changes.  Implementations should either call {@link #publish()} or
+    * {@link #schedulePublish(int)}.
+    */
+   protected abstract void onSourceChange();
+
+   /**
+    * Schedules a publish after the specified delay, replacing any publish that's already scheduled.
+    *
+    * @param delayMillis the delay in milliseconds.
+    */
+   protected void schedulePublish(int delayMillis)
+   {
+      cancelPendingChange();
+      pendingTask = scheduler.schedule(publishTask, delayMillis);
+   }
+
+   /**
+    * Publishes our source's current value, firing a value change event if it differs from the
+    * last value we published.
+    */
+   protected void publish()
+   {
+      cancelPendingChange();
+      T oldValue = value;
+      value = source.getValue();
+      fireValueChangeEvent(oldValue, value);
+   }
+
+   private void cancelPendingChange()
+   {
+      if (pendingTask != null)
+      {
+         pendingTask.cancel();
+         pendingTask = null;
+      }
+   }
+
+   protected double currentTimeMillis()
+   {
+      return scheduler.currentTimeMillis();
+   }
+
+   protected ValueModel<T> getSource()
+   {
+      return source;
+   }
+
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      // we only listen to our source while someone is listening to us.
+      sourceRegistration = source.addValueChangeHandler(sourceMonitor);
+      value = source.getValue();
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      sourceRegistration.removeHandler();
+      sourceRegistration = null;
+      cancelPendingChange();
+      value = null;
+   }
+}
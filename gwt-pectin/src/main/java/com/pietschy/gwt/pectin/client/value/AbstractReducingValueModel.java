@@ -5,17 +5,17 @@ import com.pietschy.gwt.pectin.client.function.Reduce;
 import java.util.List;
 
 /**
- * Created by IntelliJ IDEA.
- * User: andrew
- * Date: May 9, 2010
- * Time: 10:10:37 AM
- * To change this template use File | Settings | File Templates.
+ * Base class for value models whose value is the reduction of a number of source values.  Subclasses
+ * only need to listen to their sources while {@link #isObserved()}, when no one is listening the value
+ * is computed on demand each time {@link #getValue()} is called.
  */
 public abstract class AbstractReducingValueModel<T, S> extends AbstractValueModel<T>
 {
    protected Reduce<T, ? super S> function;
    private T computedValue = null;
    private boolean ignoreChanges = false;
+   private int propagationHeight;
+   private int propagationHeightVersion = -1;
 
    public AbstractReducingValueModel(Reduce<T, ? super S> function)
    {
@@ -46,6 +46,42 @@ public abstract class AbstractReducingValueModel<T, S> extends AbstractValueMode
       tryRecompute();
    }
 
+   /**
+    * Schedules a recompute with {@link Propagation} so that we're only recomputed once all
+    * our sources have been updated.  Subclasses should call this when a source changes.
+    */
+   protected void scheduleRecompute()
+   {
+      Propagation.schedule(this);
+   }
+
+   void propagate()
+   {
+      tryRecompute();
+   }
+
+   int getPropagationHeight()
+   {
+      if (propagationHeightVersion != Propagation.getHeightVersion())
+      {
+         propagationHeight = computePropagationHeight();
+         propagationHeightVersion = Propagation.getHeightVersion();
+      }
+      return propagationHeight;
+   }
+
+   /**
+    * Computes our height from that of our sources.  By default we're one above sources that don't
+    * participate in propagation, subclasses whose sources are value models must be one higher than
+    * the highest of them.  This is only called when the heights in the graph may have changed.
+    *
+    * @return our height.
+    */
+   int computePropagationHeight()
+   {
+      return 1;
+   }
+
    protected void tryRecompute()
    {
       if (!ignoreChanges)
@@ -54,14 +90,42 @@ public abstract class AbstractReducingValueModel<T, S> extends AbstractValueMode
       }
    }
 
+   /**
+    * Recomputes the value and fires a value change event as required.  This is a no-op
+    * if no one is listening to this model.
+    */
    protected void recompute()
    {
-      T old = computedValue;
-      computedValue = computeValue();
-      fireValueChangeEvent(old, computedValue);
+      if (isObserved())
+      {
+         T old = computedValue;
+         computedValue = computeValue();
+         if (resultChangedInPlace() && old == computedValue)
+         {
+            // comparing a live result with itself tells us nothing so we always fire.
+            fireValueChangeEvent(computedValue);
+         }
+         else
+         {
+            fireValueChangeEvent(old, computedValue);
+         }
+      }
    }
 
-   T computeValue()
+   /**
+    * Checks if the value has changed in place since the last time this method was called, i.e. it's
+    * still the same instance but its contents are different.  Subclasses whose value can be a live
+    * result (see {@link com.pietschy.gwt.pectin.client.function.IncrementalReduce.LiveResultAccumulator}) should override this, the default
+    * returns <code>false</code>.
+    *
+    * @return <code>true</code> if the value has changed in place.
+    */
+   protected boolean resultChangedInPlace()
+   {
+      return false;
+   }
+
+   protected T computeValue()
    {
       return function.compute(prepareValues());
    }
@@ -70,7 +134,34 @@ public abstract class AbstractReducingValueModel<T, S> extends AbstractValueMode
 
    public T getValue()
    {
-      return computedValue;
+      if (!isObserved())
+      {
+         // no one's listening so we're not listening to our sources either.
+         return computeValue();
+      }
+
+      // if we're read part way through a propagation we compute a fresh value so no one
+      // sees a stale result, we'll still fire our event when propagation reaches us.
+      return isStale() && !ignoreChanges ? computeValue() : computedValue;
+   }
+
+   /**
+    * Computes our initial value.  Subclasses should start listening to their sources
+    * before calling this method.
+    */
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      computedValue = computeValue();
+      // our initial value already includes any changes made in place so far.
+      resultChangedInPlace();
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      // don't hold onto stuff we no longer need.
+      computedValue = null;
    }
 
    protected boolean isIgnoreChanges()
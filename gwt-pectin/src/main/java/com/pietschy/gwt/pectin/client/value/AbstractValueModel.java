@@ -23,6 +23,7 @@ import com.google.gwt.event.shared.EventHandler;
 import com.google.gwt.event.shared.GwtEvent;
 import com.google.gwt.event.shared.HandlerManager;
 import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.util.HandlerList;
 
 /**
  * Created by IntelliJ IDEA.
@@ -34,30 +35,159 @@ import com.google.gwt.event.shared.HandlerRegistration;
 public abstract class AbstractValueModel<T> 
 implements ValueModel<T>, HasValueChangeHandlers<T>
 {
-   private HandlerManager handlers = new HandlerManager(this);
+   // both of these are created on demand since most models only ever have a few
+   // value change handlers and nothing else.
+   private HandlerList<ValueChangeHandler<T>> valueChangeHandlers;
+   private ValueChangeDispatcher<T> valueChangeDispatcher;
+   private HandlerManager otherHandlers;
+
+   // true while this model is queued for recomputation by Propagation.
+   boolean propagationPending = false;
    
    public HandlerRegistration addValueChangeHandler(ValueChangeHandler<T> handler)
    {
-      return handlers.addHandler(ValueChangeEvent.getType(), handler);
+      if (valueChangeHandlers == null)
+      {
+         valueChangeHandlers = new HandlerList<ValueChangeHandler<T>>()
+         {
+            protected void onFirstHandlerAdded()
+            {
+               AbstractValueModel.this.onFirstHandlerAdded();
+            }
+
+            protected void onLastHandlerRemoved()
+            {
+               AbstractValueModel.this.onLastHandlerRemoved();
+            }
+         };
+      }
+
+      return valueChangeHandlers.add(handler);
+   }
+
+   /**
+    * Checks if this model has any value change handlers.  Derived models use this to only listen to
+    * their sources while someone is listening to them.
+    *
+    * @return <code>true</code> if at least one value change handler has been added, <code>false</code>
+    *         otherwise.
+    */
+   protected boolean isObserved()
+   {
+      return valueChangeHandlers != null && !valueChangeHandlers.isEmpty();
+   }
+
+   /**
+    * Called when the first value change handler is added to this model.  Subclasses that derive their
+    * value from other models can override this to start listening to their sources.
+    */
+   protected void onFirstHandlerAdded()
+   {
    }
 
+   /**
+    * Called when the last value change handler has been removed from this model.  Subclasses that
+    * derive their value from other models can override this to stop listening to their sources, in which
+    * case they should compute their value on demand in getValue().
+    */
+   protected void onLastHandlerRemoved()
+   {
+   }
+
+   /**
+    * Fires a value change event.  If a {@link Batch} is active the event is deferred until
+    * the batch completes.
+    *
+    * @param newValue the new value.
+    */
    protected void fireValueChangeEvent(T newValue)
    {
-      ValueChangeEvent.fire(this, newValue);
+      Propagation.fire(this, newValue);
    }
-   
+
+   /**
+    * Fires a value change event if the old and new values are different.  If a {@link Batch}
+    * is active the event is deferred until the batch completes and will only fire if the final
+    * value differs from the value before the batch started.
+    *
+    * @param oldValue the old value.
+    * @param newValue the new value.
+    */
    protected void fireValueChangeEvent(T oldValue, T newValue)
    {
-      ValueChangeEvent.fireIfNotEqual(this, oldValue, newValue);
+      Propagation.fireIfNotEqual(this, oldValue, newValue);
    }
 
+   /**
+    * Gets the height of this model in the model graph as used by {@link Propagation}.  Source models
+    * have a height of zero, models that pass on their source's events as they happen share their
+    * source's height and models that recompute their value are one higher than their highest source.
+    */
+   int getPropagationHeight()
+   {
+      return 0;
+   }
+
+   /**
+    * Called by {@link Propagation} to recompute a model that was previously scheduled.
+    */
+   void propagate()
+   {
+   }
+
+   /**
+    * Checks if this model's cached value may be out of date because a change is still being propagated
+    * to it.  Subclasses use this to compute a fresh value if they're read part way through a propagation.
+    */
+   boolean isStale()
+   {
+      return Propagation.isStale(this);
+   }
+
+   /**
+    * Notifies the value change handlers without going through {@link #fireEvent(GwtEvent)}.  This is
+    * the path used by {@link Propagation} and doesn't allocate an event unless there are handlers
+    * that aren't {@link ValueChangeMonitor}s.
+    */
+   void notifyValueChangeHandlers(T newValue)
+   {
+      if (valueChangeHandlers != null)
+      {
+         if (valueChangeDispatcher == null)
+         {
+            valueChangeDispatcher = new ValueChangeDispatcher<T>(this);
+         }
+         valueChangeDispatcher.dispatchTo(valueChangeHandlers, newValue);
+      }
+   }
+
+   @SuppressWarnings("unchecked")
    public void fireEvent(GwtEvent<?> event)
    {
-      handlers.fireEvent(event);
+      if (event instanceof ValueChangeEvent)
+      {
+         // events fired by others, e.g. ValueChangeEvent.fire(model, value), don't have their source
+         // set so we dispatch the value which gives ordinary handlers an event with us as the source.
+         notifyValueChangeHandlers(((ValueChangeEvent<T>) event).getValue());
+      }
+      else if (otherHandlers != null)
+      {
+         otherHandlers.fireEvent(event);
+      }
    }
 
+   @SuppressWarnings("unchecked")
    protected <H extends EventHandler> HandlerRegistration addHandler(H handler, GwtEvent.Type<H> type)
    {
-      return handlers.addHandler(type, handler);
+      if (type == ValueChangeEvent.getType())
+      {
+         return addValueChangeHandler((ValueChangeHandler<T>) handler);
+      }
+
+      if (otherHandlers == null)
+      {
+         otherHandlers = new HandlerManager(this);
+      }
+      return otherHandlers.addHandler(type, handler);
    }
 }
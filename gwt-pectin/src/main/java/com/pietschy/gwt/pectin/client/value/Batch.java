@@ -0,0 +1,232 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.HasValueChangeHandlers;
+import com.pietschy.gwt.pectin.client.util.Utils;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Batch defers and coalesces the value change events of the models in this package until a
+ * block of changes has completed.  Each model fires at most once when the batch closes, and
+ * always with its final value.  Models whose value ends up back where it started (and that
+ * only fire on change) don't fire at all.
+ * <pre>
+ * Batch.run(new Runnable()
+ * {
+ *    public void run()
+ *    {
+ *       firstName.setValue("Jo");
+ *       lastName.setValue("Bloggs");
+ *    }
+ * });
+ * </pre>
+ * Only the events are deferred, calling getValue() on a mutable model inside the batch will
+ * return the new value but any models that compute their value from it won't have been
+ * updated until the batch has closed.  Once the batch closes derived models are recomputed
+ * by {@link Propagation}, so a model derived from many changed sources recomputes only once.
+ * <p>
+ * If a handler throws while the batch is closing the remaining events are still fired and the
+ * first exception is rethrown once they have been.
+ * <p>
+ * The batch state is shared by all models, like the rest of this package it assumes the models
+ * are only used from a single thread (as is always the case in the browser).  Code that uses
+ * models on the server must confine each graph of models to one thread at a time.
+ * <p>
+ * This is the general form of {@link AbstractReducingValueModel#recomputeAfterRunning(Runnable)}.
+ */
+public class Batch
+{
+   private static int depth = 0;
+   private static boolean flushing = false;
+
+   private static ArrayList<PendingChange<?>> queue = new ArrayList<PendingChange<?>>();
+   private static IdentityHashMap<Object, PendingChange<?>> pendingBySource = new IdentityHashMap<Object, PendingChange<?>>();
+
+   private Batch()
+   {
+   }
+
+   /**
+    * Runs the specified runnable with all value change events deferred until it has completed.  This
+    * method is re-entrant, the events are only fired when the outermost batch completes.
+    *
+    * @param r the runnable to run.
+    */
+   public static void run(Runnable r)
+   {
+      depth++;
+      try
+      {
+         r.run();
+      }
+      finally
+      {
+         depth--;
+         // if we're nested or are already flushing then the outer call will do the work.
+         if (depth == 0 && !flushing)
+         {
+            flush();
+         }
+      }
+   }
+
+   /**
+    * Checks if value change events are currently being deferred.
+    *
+    * @return <code>true</code> if a batch is running, <code>false</code> otherwise.
+    */
+   public static boolean isActive()
+   {
+      return depth > 0 || flushing;
+   }
+
+   /**
+    * Defers an event that will always be fired.
+    *
+    * @return <code>true</code> if the event was deferred, <code>false</code> if no batch is active and the
+    *         caller should fire the event itself.
+    */
+   static <T> boolean defer(HasValueChangeHandlers<T> source, T newValue)
+   {
+      if (!isActive())
+      {
+         return false;
+      }
+
+      PendingChange<T> change = getOrCreatePendingChange(source, newValue);
+      change.alwaysFire = true;
+      change.newValue = newValue;
+      return true;
+   }
+
+   /**
+    * Defers an event that will only be fired if the final value differs from the value prior
+    * to the first deferred change.
+    *
+    * @return <code>true</code> if the event was deferred, <code>false</code> if no batch is active and the
+    *         caller should fire the event itself.
+    */
+   static <T> boolean defer(HasValueChangeHandlers<T> source, T oldValue, T newValue)
+   {
+      if (!isActive())
+      {
+         return false;
+      }
+
+      PendingChange<T> change = getPendingChange(source);
+
+      if (change == null)
+      {
+         if (Utils.areEqual(oldValue, newValue))
+         {
+            // nothing would have fired so there's nothing to remember.
+            return true;
+         }
+
+         change = getOrCreatePendingChange(source, oldValue);
+      }
+
+      change.newValue = newValue;
+      return true;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <T> PendingChange<T> getPendingChange(HasValueChangeHandlers<T> source)
+   {
+      return (PendingChange<T>) pendingBySource.get(source);
+   }
+
+   private static <T> PendingChange<T> getOrCreatePendingChange(HasValueChangeHandlers<T> source, T oldValue)
+   {
+      PendingChange<T> change = getPendingChange(source);
+      if (change == null)
+      {
+         change = new PendingChange<T>(source, oldValue);
+         pendingBySource.put(source, change);
+         queue.add(change);
+      }
+      return change;
+   }
+
+   private static void flush()
+   {
+      flushing = true;
+      // we hold off propagation until all the events have been fired so
+      // models derived from more than one of them only recompute once.
+      Propagation.enter();
+      RuntimeException failure = null;
+      try
+      {
+         // events fired here may cause other models to defer their own events, these
+         // are appended to the queue and coalesced in the same way.
+         for (int i = 0; i < queue.size(); i++)
+         {
+            PendingChange<?> change = queue.get(i);
+            pendingBySource.remove(change.source);
+            try
+            {
+               change.fire();
+            }
+            catch (RuntimeException e)
+            {
+               // the other models still need to fire so we hang onto it until we're done.
+               if (failure == null)
+               {
+                  failure = e;
+               }
+            }
+         }
+      }
+      finally
+      {
+         queue.clear();
+         pendingBySource.clear();
+         flushing = false;
+         Propagation.exit();
+      }
+
+      if (failure != null)
+      {
+         throw failure;
+      }
+   }
+
+   private static class PendingChange<T>
+   {
+      private HasValueChangeHandlers<T> source;
+      private T oldValue;
+      private T newValue;
+      private boolean alwaysFire = false;
+
+      private PendingChange(HasValueChangeHandlers<T> source, T oldValue)
+      {
+         this.source = source;
+         this.oldValue = oldValue;
+      }
+
+      private void fire()
+      {
+         if (alwaysFire || Utils.areDifferent(oldValue, newValue))
+         {
+            Propagation.notifyHandlers(source, newValue);
+         }
+      }
+   }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.pietschy.gwt.pectin.client.condition.Condition;
+import com.pietschy.gwt.pectin.client.condition.Conditions;
+
+/**
+ * A mutable boolean model that stores its value unboxed.  It can be used anywhere a
+ * <code>ValueModel&lt;Boolean&gt;</code> or {@link Condition} is expected, but code that knows it has
+ * a BooleanValueModel can use {@link #booleanValue()} and {@link #setBooleanValue(boolean)} to avoid
+ * boxing.
+ * <p>
+ * Unlike {@link ValueHolder} events are only fired when the value actually changes.  The model
+ * can't hold <code>null</code>, calling <code>setValue(null)</code> sets the value to <code>false</code>.
+ */
+public class BooleanValueModel
+extends AbstractMutableValueModel<Boolean>
+implements Condition
+{
+   private boolean value;
+
+   public BooleanValueModel()
+   {
+   }
+
+   public BooleanValueModel(boolean initialValue)
+   {
+      this.value = initialValue;
+   }
+
+   public boolean booleanValue()
+   {
+      return value;
+   }
+
+   public void setBooleanValue(boolean newValue)
+   {
+      boolean oldValue = value;
+      if (oldValue != newValue)
+      {
+         value = newValue;
+         // there's no point boxing the values if no one's listening, a batch always gets the
+         // change though since handlers may be added before it completes.
+         if (isObserved() || Batch.isActive())
+         {
+            fireValueChangeEvent(oldValue, newValue);
+         }
+      }
+   }
+
+   public Boolean getValue()
+   {
+      return value;
+   }
+
+   public void setValue(Boolean newValue)
+   {
+      // we're treating nulls as false.
+      setBooleanValue(newValue != null && newValue);
+   }
+
+   @SuppressWarnings("unchecked")
+   public Condition and(ValueModel<Boolean> condition, ValueModel<Boolean>... others)
+   {
+      return Conditions.and(this, condition, others);
+   }
+
+   @SuppressWarnings("unchecked")
+   public Condition or(ValueModel<Boolean> condition, ValueModel<Boolean>... others)
+   {
+      return Conditions.or(this, condition, others);
+   }
+
+   public Condition not()
+   {
+      return Conditions.isNot(this);
+   }
+}
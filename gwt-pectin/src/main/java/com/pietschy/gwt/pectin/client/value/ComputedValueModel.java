@@ -16,8 +16,7 @@
 
 package com.pietschy.gwt.pectin.client.value;
 
-import com.google.gwt.event.logical.shared.ValueChangeEvent;
-import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
 import com.pietschy.gwt.pectin.client.function.Function;
 
 /**
@@ -29,17 +28,20 @@ import com.pietschy.gwt.pectin.client.function.Function;
  */
 public class ComputedValueModel<T, S> extends AbstractValueModel<T>
 {
-   private ValueChangeHandler<S> changeMonitor = new ValueChangeHandler<S>()
+   private ValueChangeMonitor<S> changeMonitor = new ValueChangeMonitor<S>()
    {
-      public void onValueChange(ValueChangeEvent<S> event)
+      public void onValueChanged(S value)
       {
-         recompute();
+         Propagation.schedule(ComputedValueModel.this);
       }
    };
 
    private ValueModel<S> source;
    private Function<T, ? super S> function;
+   private HandlerRegistration sourceRegistration;
    private T cachedValue;
+   private int propagationHeight;
+   private int propagationHeightVersion = -1;
 
    public ComputedValueModel(ValueModel<S> source, Function<T, ? super S> function)
    {
@@ -55,21 +57,55 @@ public class ComputedValueModel<T, S> extends AbstractValueModel<T>
 
       this.source = source;
       this.function = function;
-      this.source.addValueChangeHandler(changeMonitor);
-
-      recompute();
    }
 
    protected void recompute()
    {
-      T oldValue = cachedValue;
-      cachedValue = function.compute(source.getValue());
-      fireValueChangeEvent(oldValue, cachedValue);
+      // we only cache our value while someone's listening.
+      if (sourceRegistration != null)
+      {
+         T oldValue = cachedValue;
+         cachedValue = function.compute(source.getValue());
+         fireValueChangeEvent(oldValue, cachedValue);
+      }
    }
 
    public T getValue()
    {
-      return cachedValue;
+      // if no one's listening or if we're read part way through a propagation we compute
+      // a fresh value, we'll still fire our event when propagation reaches us.
+      return sourceRegistration != null && !isStale() ? cachedValue : function.compute(source.getValue());
+   }
+
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      sourceRegistration = source.addValueChangeHandler(changeMonitor);
+      cachedValue = function.compute(source.getValue());
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      sourceRegistration.removeHandler();
+      sourceRegistration = null;
+      cachedValue = null;
+   }
+
+   void propagate()
+   {
+      recompute();
+   }
+
+   int getPropagationHeight()
+   {
+      // our source's height changes if it depends on a DelegatingValueModel that's been given a new delegate.
+      if (propagationHeightVersion != Propagation.getHeightVersion())
+      {
+         propagationHeight = Propagation.heightOf(source) + 1;
+         propagationHeightVersion = Propagation.getHeightVersion();
+      }
+      return propagationHeight;
    }
 
    public Function<T, ? super S> getFunction()
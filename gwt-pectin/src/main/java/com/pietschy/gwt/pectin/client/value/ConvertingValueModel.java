@@ -16,8 +16,7 @@
 
 package com.pietschy.gwt.pectin.client.value;
 
-import com.google.gwt.event.logical.shared.ValueChangeEvent;
-import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
 
 /**
  * Created by IntelliJ IDEA.
@@ -31,10 +30,11 @@ extends AbstractValueModel<T>
 {
    private Converter<T,S> converter;
    private ValueModel<S> source;
+   private HandlerRegistration sourceRegistration;
    
-   private ValueChangeHandler<S> changeMonitor = new ValueChangeHandler<S>()
+   private ValueChangeMonitor<S> changeMonitor = new ValueChangeMonitor<S>()
    {
-      public void onValueChange(ValueChangeEvent<S> event)
+      public void onValueChanged(S value)
       {
          fireValueChangeEvent(getValue());
       }
@@ -54,8 +54,20 @@ extends AbstractValueModel<T>
 
       this.source = source;
       this.converter = converter;
-      
-      this.source.addValueChangeHandler(changeMonitor);
+   }
+
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      // we only listen to our source while someone is listening to us.
+      sourceRegistration = source.addValueChangeHandler(changeMonitor);
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      sourceRegistration.removeHandler();
+      sourceRegistration = null;
    }
 
    protected ValueModel<S> getSource()
@@ -72,4 +84,10 @@ extends AbstractValueModel<T>
    {
       return converter.fromSource(source.getValue());
    }
+
+   int getPropagationHeight()
+   {
+      // we fire as soon as our source does so we share its height.
+      return Propagation.heightOf(source);
+   }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.pietschy.gwt.pectin.client.util.TaskScheduler;
+import com.pietschy.gwt.pectin.client.util.TaskSchedulers;
+
+/**
+ * A value model that only passes on its source's value once the source has stopped changing for
+ * a quiet period.  This is typically used with text input so that expensive conditions and
+ * computations run once per burst of typing rather than on every key stroke.
+ * <pre>
+ * Condition validName = Conditions.textOf(name).debounced(300).matches("[a-z]+");
+ * </pre>
+ * An optional maximum wait ensures the value is still published periodically during a long
+ * burst of changes.
+ */
+public class DebouncedValueModel<T> extends AbstractDelayedValueModel<T>
+{
+   private int quietPeriodMillis;
+   private int maxWaitMillis;
+   private double burstStartTime;
+
+   public DebouncedValueModel(ValueModel<T> source, int quietPeriodMillis)
+   {
+      this(source, quietPeriodMillis, 0, TaskSchedulers.getDefault());
+   }
+
+   public DebouncedValueModel(ValueModel<T> source, int quietPeriodMillis, int maxWaitMillis)
+   {
+      this(source, quietPeriodMillis, maxWaitMillis, TaskSchedulers.getDefault());
+   }
+
+   /**
+    * Creates a new instance.
+    *
+    * @param source the source model.
+    * @param quietPeriodMillis the time the source must be unchanged before its value is published.
+    * @param maxWaitMillis the maximum time a change will wait before being published, or zero to
+    *                      wait indefinitely.
+    * @param scheduler the scheduler used to delay publishing.
+    */
+   public DebouncedValueModel(ValueModel<T> source, int quietPeriodMillis, int maxWaitMillis, TaskScheduler scheduler)
+   {
+      super(source, scheduler);
+
+      if (quietPeriodMillis < 0)
+      {
+         throw new IllegalArgumentException("quietPeriodMillis is negative: " + quietPeriodMillis);
+      }
+
+      if (maxWaitMillis < 0)
+      {
+         throw new IllegalArgumentException("maxWaitMillis is negative: " + maxWaitMillis);
+      }
+
+      this.quietPeriodMillis = quietPeriodMillis;
+      this.maxWaitMillis = maxWaitMillis;
+   }
+
+   protected void onSourceChange()
+   {
+      double now = currentTimeMillis();
+      if (!hasPendingChange())
+      {
+         burstStartTime = now;
+      }
+
+      if (maxWaitMillis > 0)
+      {
+         double remaining = burstStartTime + maxWaitMillis - now;
+         if (remaining <= 0)
+         {
+            publish();
+         }
+         else
+         {
+            schedulePublish((int) Math.ceil(Math.min(quietPeriodMillis, remaining)));
+         }
+      }
+      else
+      {
+         schedulePublish(quietPeriodMillis);
+      }
+   }
+
+   public int getQuietPeriodMillis()
+   {
+      return quietPeriodMillis;
+   }
+
+   public int getMaxWaitMillis()
+   {
+      return maxWaitMillis;
+   }
+}
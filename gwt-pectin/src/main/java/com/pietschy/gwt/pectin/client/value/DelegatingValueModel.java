@@ -20,8 +20,8 @@ import com.google.gwt.event.logical.shared.HasValueChangeHandlers;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.event.shared.GwtEvent;
-import com.google.gwt.event.shared.HandlerManager;
 import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.util.HandlerList;
 
 /**
  *
@@ -62,7 +62,8 @@ public class DelegatingValueModel<T> implements MutableValueModel<T>, HasValueCh
    }
 
 
-   private HandlerManager handlerManager = new HandlerManager(this);
+   private HandlerList<ValueChangeHandler<T>> handlers = new HandlerList<ValueChangeHandler<T>>();
+   private ValueChangeDispatcher<T> dispatcher = new ValueChangeDispatcher<T>(this);
    private DelegateMonitor delegateChangeMonitor = new DelegateMonitor();
 
    private T defaultValue;
@@ -94,6 +95,8 @@ public class DelegatingValueModel<T> implements MutableValueModel<T>, HasValueCh
       }
 
       this.delegate = delegate;
+      // we share our delegate's height so any models that depend on us may need to move.
+      Propagation.heightsChanged();
 
       if (this.delegate != null)
       {
@@ -137,22 +140,43 @@ public class DelegatingValueModel<T> implements MutableValueModel<T>, HasValueCh
 
    private void fireValueChanged()
    {
-      ValueChangeEvent.fire(DelegatingValueModel.this, getValue());
+      Propagation.fire(this, getValue());
+   }
+
+   /**
+    * We pass on our delegates events as they happen so we share its height.
+    */
+   int getPropagationHeight()
+   {
+      return delegate != null ? Propagation.heightOf(delegate) : 0;
    }
 
    public HandlerRegistration addValueChangeHandler(ValueChangeHandler<T> handler)
    {
-      return handlerManager.addHandler(ValueChangeEvent.getType(), handler);
+      return handlers.add(handler);
+   }
+
+   /**
+    * Notifies our handlers without creating an event, see {@link AbstractValueModel#notifyValueChangeHandlers(Object)}.
+    */
+   void notifyValueChangeHandlers(T newValue)
+   {
+      dispatcher.dispatchTo(handlers, newValue);
    }
 
+   @SuppressWarnings("unchecked")
    public void fireEvent(GwtEvent<?> event)
    {
-      handlerManager.fireEvent(event);
+      // value change events are the only thing we fire, see AbstractValueModel.fireEvent(GwtEvent).
+      if (event instanceof ValueChangeEvent)
+      {
+         notifyValueChangeHandlers(((ValueChangeEvent<T>) event).getValue());
+      }
    }
 
-   private class DelegateMonitor implements ValueChangeHandler<T>
+   private class DelegateMonitor extends ValueChangeMonitor<T>
    {
-      public void onValueChange(ValueChangeEvent<T> event)
+      public void onValueChanged(T value)
       {
          fireValueChanged();
       }
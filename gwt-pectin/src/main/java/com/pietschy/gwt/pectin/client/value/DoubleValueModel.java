@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+/**
+ * A mutable double model that stores its value unboxed.  It can be used anywhere a
+ * <code>ValueModel&lt;Double&gt;</code> is expected, but code that knows it has a DoubleValueModel
+ * can use {@link #doubleValue()} and {@link #setDoubleValue(double)} to avoid boxing.
+ * <p>
+ * Unlike {@link ValueHolder} events are only fired when the value actually changes.  NaN is
+ * considered equal to itself so setting NaN twice only fires once.  The model can't hold
+ * <code>null</code>, calling <code>setValue(null)</code> sets the value to zero.
+ */
+public class DoubleValueModel
+extends AbstractMutableValueModel<Double>
+{
+   private double value;
+
+   public DoubleValueModel()
+   {
+   }
+
+   public DoubleValueModel(double initialValue)
+   {
+      this.value = initialValue;
+   }
+
+   public double doubleValue()
+   {
+      return value;
+   }
+
+   public void setDoubleValue(double newValue)
+   {
+      double oldValue = value;
+      if (!areEqual(oldValue, newValue))
+      {
+         value = newValue;
+         // there's no point boxing the values if no one's listening, a batch always gets the
+         // change though since handlers may be added before it completes.
+         if (isObserved() || Batch.isActive())
+         {
+            fireValueChangeEvent(oldValue, newValue);
+         }
+      }
+   }
+
+   public Double getValue()
+   {
+      return value;
+   }
+
+   public void setValue(Double newValue)
+   {
+      setDoubleValue(newValue != null ? newValue : 0);
+   }
+
+   private boolean areEqual(double a, double b)
+   {
+      // NaN != NaN so we check for it explicitly.
+      return a == b || (Double.isNaN(a) && Double.isNaN(b));
+   }
+}
@@ -1,7 +1,6 @@
 package com.pietschy.gwt.pectin.client.value;
 
-import com.google.gwt.event.logical.shared.ValueChangeEvent;
-import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
 
 /**
  * A value model that tracks the value of another model until a trigger activates, at which
@@ -14,21 +13,24 @@ public class GatedLatch<T> extends AbstractValueModel<T>
    // the source model we're latching on
    private ValueModel<T> source;
    private T latchedValue;
+   private HandlerRegistration sourceRegistration;
+   private ValueChangeMonitor<T> sourceMonitor = new ValueChangeMonitor<T>()
+   {
+      public void onValueChanged(T value)
+      {
+         onSourceChange();
+      }
+   };
 
    protected GatedLatch(ValueModel<T> source, ValueModel<Boolean> latchTrigger)
    {
       this.source = source;
       this.latchTrigger = latchTrigger;
-      this.source.addValueChangeHandler(new ValueChangeHandler<T>()
-      {
-         public void onValueChange(ValueChangeEvent<T> event)
-         {
-            onSourceChange();
-         }
-      });
-      this.latchTrigger.addValueChangeHandler(new ValueChangeHandler<Boolean>()
+      // we always need to monitor the trigger so we can capture the latched value, but we
+      // only need to monitor the source while someone is listening to us.
+      this.latchTrigger.addValueChangeHandler(new ValueChangeMonitor<Boolean>()
       {
-         public void onValueChange(ValueChangeEvent<Boolean> event)
+         public void onValueChanged(Boolean value)
          {
             onTriggerChange();
          }
@@ -37,6 +39,19 @@ public class GatedLatch<T> extends AbstractValueModel<T>
       onTriggerChange();
    }
 
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      sourceRegistration = source.addValueChangeHandler(sourceMonitor);
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      sourceRegistration.removeHandler();
+      sourceRegistration = null;
+   }
+
    public T getValue()
    {
       return isLatchActive() ? latchedValue : source.getValue();
@@ -62,6 +77,12 @@ public class GatedLatch<T> extends AbstractValueModel<T>
       }
    }
 
+   int getPropagationHeight()
+   {
+      // we fire as soon as our sources do so we share their height.
+      return Math.max(Propagation.heightOf(source), Propagation.heightOf(latchTrigger));
+   }
+
    private Boolean isLatchActive()
    {
       Boolean value = latchTrigger.getValue();
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+/**
+ * Implemented by models outside this package that pass on, or compute their value from, the
+ * values of other models.  {@link Propagation} uses the height to rank the models derived from
+ * them, so it must be greater than the height of any of the model's sources as given by
+ * {@link Propagation#heightOf(ValueModel)}.
+ */
+public interface HasPropagationHeight
+{
+   /**
+    * Gets the height of this model in the model graph.
+    *
+    * @return the height of this model.
+    */
+   int getPropagationHeight();
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+/**
+ * A mutable int model that stores its value unboxed.  It can be used anywhere a
+ * <code>ValueModel&lt;Integer&gt;</code> is expected, but code that knows it has an IntValueModel
+ * can use {@link #intValue()} and {@link #setIntValue(int)} to avoid boxing.
+ * <p>
+ * Unlike {@link ValueHolder} events are only fired when the value actually changes.  The model
+ * can't hold <code>null</code>, calling <code>setValue(null)</code> sets the value to zero.
+ */
+public class IntValueModel
+extends AbstractMutableValueModel<Integer>
+{
+   private int value;
+
+   public IntValueModel()
+   {
+   }
+
+   public IntValueModel(int initialValue)
+   {
+      this.value = initialValue;
+   }
+
+   public int intValue()
+   {
+      return value;
+   }
+
+   public void setIntValue(int newValue)
+   {
+      int oldValue = value;
+      if (oldValue != newValue)
+      {
+         value = newValue;
+         // there's no point boxing the values if no one's listening, a batch always gets the
+         // change though since handlers may be added before it completes.
+         if (isObserved() || Batch.isActive())
+         {
+            fireValueChangeEvent(oldValue, newValue);
+         }
+      }
+   }
+
+   public Integer getValue()
+   {
+      return value;
+   }
+
+   public void setValue(Integer newValue)
+   {
+      setIntValue(newValue != null ? newValue : 0);
+   }
+}
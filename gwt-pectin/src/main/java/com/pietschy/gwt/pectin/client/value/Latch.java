@@ -1,8 +1,5 @@
 package com.pietschy.gwt.pectin.client.value;
 
-import com.google.gwt.event.logical.shared.ValueChangeEvent;
-import com.google.gwt.event.logical.shared.ValueChangeHandler;
-
 /**
  * A simple ValueModel that will latch when it's source transitions from one state to another.  The latch
  * can be reset.
@@ -43,9 +40,9 @@ public class Latch extends AbstractValueModel<Boolean>
       this.source = source;
       this.latchValue = latchValue;
       this.value = !latchValue;
-      this.source.addValueChangeHandler(new ValueChangeHandler<Boolean>()
+      this.source.addValueChangeHandler(new ValueChangeMonitor<Boolean>()
       {
-         public void onValueChange(ValueChangeEvent<Boolean> booleanValueChangeEvent)
+         public void onValueChanged(Boolean value)
          {
             doLatch();
          }
@@ -74,6 +71,12 @@ public class Latch extends AbstractValueModel<Boolean>
    }
 
 
+   int getPropagationHeight()
+   {
+      // we fire as soon as our source does so we share its height.
+      return Propagation.heightOf(source);
+   }
+
    public void reset()
    {
       if (value == latchValue)
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.HasValueChangeHandlers;
+import com.pietschy.gwt.pectin.client.util.Utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Propagation schedules the recomputation of derived value models so that changes flow
+ * through a model graph in a glitch free manner.  Each derived model is ranked by its height
+ * in the graph (i.e. one more than the highest of its sources) and when a source changes the
+ * affected models are recomputed exactly once, lowest first, after the source has finished
+ * dispatching its event.
+ * <p>
+ * Without this a diamond, e.g. two conditions derived from the same field that feed an
+ * {@link com.pietschy.gwt.pectin.client.condition.AndFunction}, will recompute the and twice and
+ * briefly expose an inconsistent value to any listeners.
+ * <p>
+ * Models outside this package that fire their own value change events should use
+ * {@link #fire(HasValueChangeHandlers, Object)} and
+ * {@link #fireIfNotEqual(HasValueChangeHandlers, Object, Object)} so their changes participate
+ * in the same propagation and in any active {@link Batch}.  If they pass on the values of other
+ * models they should also implement {@link HasPropagationHeight}.
+ * <p>
+ * Like {@link Batch} the propagation state is shared by all models so they must only be used
+ * from a single thread, which is always the case in the browser.
+ */
+public class Propagation
+{
+   private static final Comparator<AbstractValueModel<?>> BY_HEIGHT = new Comparator<AbstractValueModel<?>>()
+   {
+      public int compare(AbstractValueModel<?> a, AbstractValueModel<?> b)
+      {
+         return heightOf(a) - heightOf(b);
+      }
+   };
+
+   private static PriorityQueue<AbstractValueModel<?>> queue = new PriorityQueue<AbstractValueModel<?>>(11, BY_HEIGHT);
+   private static int depth = 0;
+   private static boolean draining = false;
+   // incremented whenever the shape of the graph changes so models that cache their height know to
+   // recompute it.
+   private static int heightVersion = 0;
+
+   private Propagation()
+   {
+   }
+
+   /**
+    * Fires a value change event from the specified source.  If a {@link Batch} is active the event
+    * is deferred until the batch completes.
+    *
+    * @param source the source of the event.
+    * @param newValue the new value.
+    */
+   public static <T> void fire(HasValueChangeHandlers<T> source, T newValue)
+   {
+      if (!Batch.defer(source, newValue))
+      {
+         enter();
+         try
+         {
+            notifyHandlers(source, newValue);
+         }
+         finally
+         {
+            exit();
+         }
+      }
+   }
+
+   /**
+    * Fires a value change event from the specified source if the old and new values are different.  If
+    * a {@link Batch} is active the event is deferred until the batch completes.
+    *
+    * @param source the source of the event.
+    * @param oldValue the old value.
+    * @param newValue the new value.
+    */
+   public static <T> void fireIfNotEqual(HasValueChangeHandlers<T> source, T oldValue, T newValue)
+   {
+      if (!Batch.defer(source, oldValue, newValue))
+      {
+         if (Utils.areEqual(oldValue, newValue))
+         {
+            return;
+         }
+
+         enter();
+         try
+         {
+            notifyHandlers(source, newValue);
+         }
+         finally
+         {
+            exit();
+         }
+      }
+   }
+
+   /**
+    * Notifies the source's value change handlers.  The models in this package are notified directly
+    * so {@link ValueChangeMonitor}s receive the value without an event being created, anything else
+    * has the event fired as per normal.
+    */
+   @SuppressWarnings("unchecked")
+   static <T> void notifyHandlers(HasValueChangeHandlers<T> source, T newValue)
+   {
+      if (source instanceof AbstractValueModel)
+      {
+         ((AbstractValueModel<T>) source).notifyValueChangeHandlers(newValue);
+      }
+      else if (source instanceof DelegatingValueModel)
+      {
+         ((DelegatingValueModel<T>) source).notifyValueChangeHandlers(newValue);
+      }
+      else
+      {
+         source.fireEvent(new SourcedValueChangeEvent<T>(source, newValue));
+      }
+   }
+
+   /**
+    * Gets the height of the specified model in the graph.  Models that don't participate in
+    * propagation have a height of zero.
+    *
+    * @param model the model.
+    * @return the height of the model.
+    */
+   public static int heightOf(ValueModel<?> model)
+   {
+      if (model instanceof HasPropagationHeight)
+      {
+         return ((HasPropagationHeight) model).getPropagationHeight();
+      }
+      else if (model instanceof AbstractValueModel)
+      {
+         return ((AbstractValueModel<?>) model).getPropagationHeight();
+      }
+      else if (model instanceof DelegatingValueModel)
+      {
+         return ((DelegatingValueModel<?>) model).getPropagationHeight();
+      }
+      else
+      {
+         return 0;
+      }
+   }
+
+   /**
+    * Gets the current height version.  Models that cache their height must recompute it once this
+    * differs from the version they computed it with.
+    */
+   static int getHeightVersion()
+   {
+      return heightVersion;
+   }
+
+   /**
+    * Called when the heights in the graph may have changed, e.g. a {@link DelegatingValueModel} has
+    * a new delegate.  Cached heights are recomputed as they're needed and any models waiting to be
+    * recomputed are requeued so they're still recomputed lowest first.
+    */
+   static void heightsChanged()
+   {
+      heightVersion++;
+      if (!queue.isEmpty())
+      {
+         ArrayList<AbstractValueModel<?>> pending = new ArrayList<AbstractValueModel<?>>(queue);
+         queue.clear();
+         queue.addAll(pending);
+      }
+   }
+
+   /**
+    * A model is stale if it's waiting to be recomputed or if any model lower than it is, since that
+    * model may be one of its sources.  Since models are recomputed lowest first a model's sources are
+    * never stale when it's being recomputed.
+    */
+   static boolean isStale(AbstractValueModel<?> model)
+   {
+      if (model.propagationPending)
+      {
+         return true;
+      }
+
+      AbstractValueModel<?> lowest = queue.peek();
+      return lowest != null && heightOf(lowest) < heightOf(model);
+   }
+
+   static void enter()
+   {
+      depth++;
+   }
+
+   static void exit()
+   {
+      depth--;
+      if (depth == 0 && !draining)
+      {
+         drain();
+      }
+   }
+
+   /**
+    * Schedules the model to be recomputed.  If we're not currently propagating a change (i.e. the
+    * event came from a model that doesn't use this class) then the model is recomputed immediately.
+    */
+   static void schedule(AbstractValueModel<?> model)
+   {
+      if (!model.propagationPending)
+      {
+         model.propagationPending = true;
+         queue.add(model);
+      }
+
+      if (depth == 0 && !draining)
+      {
+         drain();
+      }
+   }
+
+   private static void drain()
+   {
+      draining = true;
+      try
+      {
+         // if a handler throws the remaining models stay pending and will be
+         // recomputed with the next change.
+         AbstractValueModel<?> model;
+         while ((model = queue.poll()) != null)
+         {
+            model.propagationPending = false;
+            model.propagate();
+         }
+      }
+      finally
+      {
+         draining = false;
+      }
+   }
+}
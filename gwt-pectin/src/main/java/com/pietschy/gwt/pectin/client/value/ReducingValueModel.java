@@ -16,8 +16,8 @@
 
 package com.pietschy.gwt.pectin.client.value;
 
-import com.google.gwt.event.logical.shared.ValueChangeEvent;
-import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.function.IncrementalReduce;
 import com.pietschy.gwt.pectin.client.function.Reduce;
 
 import java.util.ArrayList;
@@ -28,18 +28,19 @@ import java.util.List;
 /**
  * ValueModelFunction is a value model whose value is derived from collection of source
  * {@link ValueModel}s and a {@link Reduce}.  Changes in any of the source models result in
- * the function being re-evaluated and the value updating.
+ * the function being re-evaluated and the value updating.  The model only listens to its sources
+ * while it has handlers of its own.
+ * <p>
+ * If the function is an {@link IncrementalReduce} then while the model is listening to its sources
+ * it only passes on the values that change, so a change costs the same regardless of the number
+ * of sources.  {@link com.pietschy.gwt.pectin.client.condition.AndFunction} and
+ * {@link com.pietschy.gwt.pectin.client.condition.OrFunction} both support this.
  */
 public class ReducingValueModel<T, S> extends AbstractReducingValueModel<T,S>
 {
-   private ArrayList<ValueModel<S>> sourceModels = new ArrayList<ValueModel<S>>();
-   private ValueChangeHandler<S> changeMonitor = new ValueChangeHandler<S>()
-   {
-      public void onValueChange(ValueChangeEvent<S> event)
-      {
-         tryRecompute();
-      }
-   };
+   private ArrayList<SourceMonitor> sourceMonitors = new ArrayList<SourceMonitor>();
+   // only used while we're observed and have an incremental function.
+   private IncrementalReduce.Accumulator<T, ? super S> accumulator;
 
    private ReducingValueModel(Reduce<T, ? super S> function, boolean compute)
    {
@@ -100,8 +101,19 @@ public class ReducingValueModel<T, S> extends AbstractReducingValueModel<T,S>
          throw new NullPointerException("source model is null");
       }
 
-      model.addValueChangeHandler(changeMonitor);
-      sourceModels.add(model);
+      SourceMonitor monitor = new SourceMonitor(model);
+      sourceMonitors.add(monitor);
+      // our height, and that of anything that depends on us, may have changed.
+      Propagation.heightsChanged();
+
+      if (isObserved())
+      {
+         monitor.subscribe();
+         if (accumulator != null)
+         {
+            accumulator.add(monitor.lastValue);
+         }
+      }
 
       if (recompute)
       {
@@ -109,15 +121,135 @@ public class ReducingValueModel<T, S> extends AbstractReducingValueModel<T,S>
       }
    }
 
+   int computePropagationHeight()
+   {
+      int height = 1;
+      for (SourceMonitor monitor : sourceMonitors)
+      {
+         height = Math.max(height, Propagation.heightOf(monitor.model) + 1);
+      }
+      return height;
+   }
+
+   @Override
+   public void setFunction(Reduce<T, ? super S> function)
+   {
+      // the old accumulator is no use to the new function.
+      accumulator = null;
+      super.setFunction(function);
+      startAccumulating();
+   }
+
+   @Override
+   protected void onFirstHandlerAdded()
+   {
+      for (SourceMonitor monitor : sourceMonitors)
+      {
+         monitor.subscribe();
+      }
+
+      startAccumulating();
+
+      super.onFirstHandlerAdded();
+   }
+
+   @Override
+   protected void onLastHandlerRemoved()
+   {
+      for (SourceMonitor monitor : sourceMonitors)
+      {
+         monitor.unsubscribe();
+      }
+
+      accumulator = null;
+
+      super.onLastHandlerRemoved();
+   }
+
+   /**
+    * Creates an accumulator if our function supports it and we're listening to our sources.
+    */
+   @SuppressWarnings("unchecked")
+   private void startAccumulating()
+   {
+      if (isObserved() && getFunction() instanceof IncrementalReduce)
+      {
+         accumulator = ((IncrementalReduce<T, ? super S>) getFunction()).createAccumulator();
+         for (SourceMonitor monitor : sourceMonitors)
+         {
+            accumulator.add(monitor.lastValue);
+         }
+      }
+   }
+
+   @Override
+   protected boolean resultChangedInPlace()
+   {
+      return accumulator instanceof IncrementalReduce.LiveResultAccumulator
+             && ((IncrementalReduce.LiveResultAccumulator<?, ?>) accumulator).clearResultChanged();
+   }
+
+   @Override
+   protected T computeValue()
+   {
+      // if a source is still waiting to be recomputed our accumulator won't have seen its
+      // new value yet, so we compute from scratch using each source's fresh value.
+      if (accumulator != null && !isStale())
+      {
+         return accumulator.getResult();
+      }
+
+      return super.computeValue();
+   }
+
    @Override
    protected List<S> prepareValues()
    {
-      ArrayList<S> values = new ArrayList<S>();
-      for (ValueModel<S> model : sourceModels)
+      ArrayList<S> values = new ArrayList<S>(sourceMonitors.size());
+      for (SourceMonitor monitor : sourceMonitors)
       {
-         values.add(model.getValue());
+         values.add(monitor.model.getValue());
       }
       return values;
    }
 
+   /**
+    * Listens to a source and remembers its last value so we can tell our accumulator which value
+    * a change replaces.
+    */
+   private class SourceMonitor extends ValueChangeMonitor<S>
+   {
+      private ValueModel<S> model;
+      private HandlerRegistration registration;
+      private S lastValue;
+
+      private SourceMonitor(ValueModel<S> model)
+      {
+         this.model = model;
+      }
+
+      private void subscribe()
+      {
+         registration = model.addValueChangeHandler(this);
+         lastValue = model.getValue();
+      }
+
+      private void unsubscribe()
+      {
+         registration.removeHandler();
+         registration = null;
+         lastValue = null;
+      }
+
+      public void onValueChanged(S value)
+      {
+         if (accumulator != null)
+         {
+            accumulator.remove(lastValue);
+            accumulator.add(value);
+         }
+         lastValue = value;
+         scheduleRecompute();
+      }
+   }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.HasValueChangeHandlers;
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+
+/**
+ * A ValueChangeEvent that knows its source.  Models that dispatch events through a
+ * {@link com.pietschy.gwt.pectin.client.util.HandlerList} instead of a HandlerManager
+ * use this so {@link #getSource()} still works as expected.
+ */
+class SourcedValueChangeEvent<T> extends ValueChangeEvent<T>
+{
+   static
+   {
+      // ValueChangeEvent creates its type lazily and getAssociatedType() depends on it.
+      ValueChangeEvent.getType();
+   }
+
+   private HasValueChangeHandlers<T> source;
+
+   SourcedValueChangeEvent(HasValueChangeHandlers<T> source, T value)
+   {
+      super(value);
+      this.source = source;
+   }
+
+   @Override
+   public Object getSource()
+   {
+      return source;
+   }
+}
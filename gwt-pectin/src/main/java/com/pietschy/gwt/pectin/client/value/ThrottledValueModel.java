@@ -0,0 +1,79 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.pietschy.gwt.pectin.client.util.TaskScheduler;
+import com.pietschy.gwt.pectin.client.util.TaskSchedulers;
+
+/**
+ * A value model that passes on its source's value at most once per interval.  The first change
+ * after a quiet interval is published immediately, subsequent changes within the interval are
+ * published together at the end of it.
+ */
+public class ThrottledValueModel<T> extends AbstractDelayedValueModel<T>
+{
+   private int intervalMillis;
+   private double lastPublishTime = Double.NEGATIVE_INFINITY;
+
+   public ThrottledValueModel(ValueModel<T> source, int intervalMillis)
+   {
+      this(source, intervalMillis, TaskSchedulers.getDefault());
+   }
+
+   public ThrottledValueModel(ValueModel<T> source, int intervalMillis, TaskScheduler scheduler)
+   {
+      super(source, scheduler);
+
+      if (intervalMillis < 0)
+      {
+         throw new IllegalArgumentException("intervalMillis is negative: " + intervalMillis);
+      }
+
+      this.intervalMillis = intervalMillis;
+   }
+
+   protected void onSourceChange()
+   {
+      if (hasPendingChange())
+      {
+         // the pending publish will pick up the latest value.
+         return;
+      }
+
+      double wait = lastPublishTime + intervalMillis - currentTimeMillis();
+      if (wait <= 0)
+      {
+         publish();
+      }
+      else
+      {
+         schedulePublish((int) Math.ceil(wait));
+      }
+   }
+
+   @Override
+   protected void publish()
+   {
+      lastPublishTime = currentTimeMillis();
+      super.publish();
+   }
+
+   public int getIntervalMillis()
+   {
+      return intervalMillis;
+   }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.HasValueChangeHandlers;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.util.HandlerList;
+
+/**
+ * Dispatches a new value to a list of value change handlers.  {@link ValueChangeMonitor}s are
+ * given the value directly, an event is only created if there are ordinary handlers to notify
+ * and is shared by all of them.  The event is released once the dispatch completes so the
+ * dispatcher doesn't keep the value alive.
+ */
+class ValueChangeDispatcher<T> implements HandlerList.Dispatcher<ValueChangeHandler<T>, T>
+{
+   private HasValueChangeHandlers<T> source;
+   private SourcedValueChangeEvent<T> lastEvent;
+
+   ValueChangeDispatcher(HasValueChangeHandlers<T> source)
+   {
+      this.source = source;
+   }
+
+   /**
+    * Dispatches the value to each of the handlers.
+    *
+    * @param handlers the handlers to notify.
+    * @param value the new value.
+    */
+   void dispatchTo(HandlerList<ValueChangeHandler<T>> handlers, T value)
+   {
+      try
+      {
+         handlers.dispatch(this, value);
+      }
+      finally
+      {
+         lastEvent = null;
+      }
+   }
+
+   public void dispatch(ValueChangeHandler<T> handler, T value)
+   {
+      if (handler instanceof ValueChangeMonitor)
+      {
+         ((ValueChangeMonitor<T>) handler).onValueChanged(value);
+      }
+      else
+      {
+         handler.onValueChange(eventFor(value));
+      }
+   }
+
+   private SourcedValueChangeEvent<T> eventFor(T value)
+   {
+      // the value is compared by identity since that's what the event will hold.  A nested
+      // dispatch with a different value simply replaces the event.
+      if (lastEvent == null || lastEvent.getValue() != value)
+      {
+         lastEvent = new SourcedValueChangeEvent<T>(source, value);
+      }
+      return lastEvent;
+   }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+
+/**
+ * A value change handler that's only interested in the new value.  The models in this package
+ * call {@link #onValueChanged(Object)} directly without creating a {@link ValueChangeEvent}, so
+ * notifying a monitor doesn't allocate anything.  Monitors can still be added to any
+ * {@link com.google.gwt.event.logical.shared.HasValueChangeHandlers}, in which case they're
+ * notified via {@link #onValueChange(ValueChangeEvent)} as per normal.
+ * <pre>
+ * model.addValueChangeHandler(new ValueChangeMonitor&lt;String&gt;()
+ * {
+ *    public void onValueChanged(String value)
+ *    {
+ *       label.setText(value);
+ *    }
+ * });
+ * </pre>
+ */
+public abstract class ValueChangeMonitor<T> implements ValueChangeHandler<T>
+{
+   public void onValueChange(ValueChangeEvent<T> event)
+   {
+      onValueChanged(event.getValue());
+   }
+
+   /**
+    * Invoked when the value changes.
+    *
+    * @param value the new value.
+    */
+   public abstract void onValueChanged(T value);
+}
@@ -1,10 +1,5 @@
 package com.pietschy.gwt.pectin.rebind;
 
-import com.google.gwt.core.ext.UnableToCompleteException;
-import com.google.gwt.core.ext.typeinfo.JClassType;
-import com.google.gwt.core.ext.typeinfo.JMethod;
-
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -19,7 +14,7 @@ import java.util.Map;
 public class BeanInfo implements Iterable<PropertyInfo>
 {
    private Context context;
-   private JClassType beanType;
+   private TypeInfo beanType;
    private PropertyInfo property;
    private Map<String, PropertyInfo> properties;
 
@@ -30,7 +25,7 @@ public class BeanInfo implements Iterable<PropertyInfo>
     * @param context  the type oracle.
     * @param beanType the beans type.
     */
-   public BeanInfo(Context context, JClassType beanType) throws UnableToCompleteException
+   public BeanInfo(Context context, TypeInfo beanType)
    {
       this.context = context;
       this.beanType = beanType;
@@ -44,7 +39,7 @@ public class BeanInfo implements Iterable<PropertyInfo>
     * @param beanType   the beans type.
     * @param parentPath the path of this bean from the root bean.
     */
-   public BeanInfo(PropertyInfo property) throws UnableToCompleteException
+   BeanInfo(PropertyInfo property)
    {
       this.property = property;
       this.context = property.getParentBeanInfo().getContext();
@@ -68,7 +63,7 @@ public class BeanInfo implements Iterable<PropertyInfo>
       return property != null ? property.getFullPropertyPath() : null;
    }
 
-   protected void processProperties() throws UnableToCompleteException
+   protected void processProperties()
    {
       properties = new HashMap<String, PropertyInfo>();
 
@@ -79,36 +74,13 @@ public class BeanInfo implements Iterable<PropertyInfo>
 
    private void extractMethodProperties(Map<String, PropertyInfo> properties)
    {
-      ArrayList<MethodInfo> methods = getMethods(beanType);
-      for (MethodInfo method : methods)
-      {
-         if (method.isGetter())
-         {
-            PropertyInfo info = new PropertyInfo(this,
-                                                 getPath(),
-                                                 method.getPropertyName(),
-                                                 method.getReturnType(),
-                                                 method.getName(),
-                                                 method.isAnnotatedAsNestedBean());
-            properties.put(info.getName(), info);
-         }
-      }
-      for (MethodInfo method : methods)
+      for (PropertyDeclaration declaration : context.getIntrospector().getProperties(beanType))
       {
-         if (method.isSetter())
-         {
-            PropertyInfo info = properties.get(method.getPropertyName());
-            // a setter without a getter with the same type isn't a property so we ignore
-            // setters that haven't had the info created from an existing getter.
-            if (info != null && method.hasSingleParameterOfType(info.getType()))
-            {
-               info.setSetterMethodName(method.getName());
-            }
-         }
+         properties.put(declaration.getName(), new PropertyInfo(this, getPath(), declaration));
       }
    }
 
-   private void processNestedBeans(Iterable<PropertyInfo> properties) throws UnableToCompleteException
+   private void processNestedBeans(Iterable<PropertyInfo> properties)
    {
       // check the context
       for (PropertyInfo property : properties)
@@ -138,29 +110,6 @@ public class BeanInfo implements Iterable<PropertyInfo>
       }
    }
 
-   ArrayList<MethodInfo> getMethods(JClassType beanType)
-   {
-      ArrayList<MethodInfo> result = new ArrayList<MethodInfo>();
-      extractMethods(beanType, result);
-
-      beanType = beanType.getSuperclass();
-      while (beanType != null)
-      {
-         extractMethods(beanType, result);
-         beanType = beanType.getSuperclass();
-      }
-
-      return result;
-   }
-
-   private void extractMethods(JClassType beanType, ArrayList<MethodInfo> result)
-   {
-      for (JMethod method : beanType.getMethods())
-      {
-         result.add(new MethodInfo(method));
-      }
-   }
-
 //   ArrayList<JField> getPublicFields(JClassType beanType)
 //   {
 //      ArrayList<JField> result = new ArrayList<JField>();
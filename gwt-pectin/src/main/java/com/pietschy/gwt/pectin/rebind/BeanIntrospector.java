@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the properties of bean types and remembers the result so each distinct type is
+ * only introspected once, no matter how many paths or providers it appears in.  A single
+ * instance should be shared by all the providers generated in a compilation (and discarded
+ * afterwards since the types it has seen may change).
+ */
+public class BeanIntrospector
+{
+   private Map<String, List<PropertyDeclaration>> propertiesByType = new HashMap<String, List<PropertyDeclaration>>();
+
+   /**
+    * Gets the properties declared by the specified type and its superclasses.
+    *
+    * @param beanType the bean type.
+    * @return the properties of the type.
+    */
+   List<PropertyDeclaration> getProperties(TypeInfo beanType)
+   {
+      // the parameterized name since the type arguments can change the property types.
+      String key = beanType.getParameterizedQualifiedSourceName();
+      List<PropertyDeclaration> properties = propertiesByType.get(key);
+      if (properties == null)
+      {
+         properties = extractProperties(beanType);
+         propertiesByType.put(key, properties);
+      }
+      return properties;
+   }
+
+   /**
+    * Gets the number of distinct types that have been introspected.
+    *
+    * @return the number of distinct types that have been introspected.
+    */
+   public int getTypeCount()
+   {
+      return propertiesByType.size();
+   }
+
+   private List<PropertyDeclaration> extractProperties(TypeInfo beanType)
+   {
+      ArrayList<MethodInfo> methods = getMethods(beanType);
+
+      Map<String, PropertyDeclaration> properties = new LinkedHashMap<String, PropertyDeclaration>();
+      for (MethodInfo method : methods)
+      {
+         if (method.isGetter())
+         {
+            properties.put(method.getPropertyName(), new PropertyDeclaration(method.getPropertyName(),
+                                                                             method.getReturnType(),
+                                                                             method.getName(),
+                                                                             method.isAnnotatedAsNestedBean()));
+         }
+      }
+      for (MethodInfo method : methods)
+      {
+         if (method.isSetter())
+         {
+            PropertyDeclaration property = properties.get(method.getPropertyName());
+            // a setter without a getter with the same type isn't a property so we ignore
+            // setters that haven't had the declaration created from an existing getter.
+            if (property != null && method.hasSingleParameterOfType(property.getType()))
+            {
+               property.setSetterMethodName(method.getName());
+            }
+         }
+      }
+
+      return Collections.unmodifiableList(new ArrayList<PropertyDeclaration>(properties.values()));
+   }
+
+   private ArrayList<MethodInfo> getMethods(TypeInfo beanType)
+   {
+      ArrayList<MethodInfo> result = new ArrayList<MethodInfo>();
+      while (beanType != null)
+      {
+         result.addAll(beanType.getDeclaredMethods());
+         beanType = beanType.getSuperclass();
+      }
+      return result;
+   }
+}
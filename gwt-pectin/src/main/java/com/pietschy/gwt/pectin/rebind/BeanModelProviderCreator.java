@@ -23,11 +23,10 @@ import com.google.gwt.core.ext.typeinfo.JClassType;
 import com.google.gwt.core.ext.typeinfo.NotFoundException;
 import com.google.gwt.core.ext.typeinfo.TypeOracle;
 import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
+import com.google.gwt.user.rebind.SourceWriter;
 import com.pietschy.gwt.pectin.client.bean.*;
 
 import java.io.PrintWriter;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -40,14 +39,22 @@ public class BeanModelProviderCreator
    private GeneratorContext context;
    private TypeOracle typeOracle;
 
+   private BeanIntrospector introspector;
+
    private String typeName;
 
    public BeanModelProviderCreator(TreeLogger logger, GeneratorContext context, String typeName)
+   {
+      this(logger, context, typeName, new BeanIntrospector());
+   }
+
+   public BeanModelProviderCreator(TreeLogger logger, GeneratorContext context, String typeName, BeanIntrospector introspector)
    {
       this.logger = logger;
       this.context = context;
       this.typeOracle = context.getTypeOracle();
       this.typeName = typeName;
+      this.introspector = introspector;
    }
 
    public String createProvider() throws UnableToCompleteException
@@ -58,13 +65,7 @@ public class BeanModelProviderCreator
 
          String fullClassName = createClassNameWithPackage(classType);
 
-         Writer writer = getSourceWriterWithImports(classType,
-                                                    PropertyDescriptor.class,
-                                                    DefaultPropertyDescriptor.class,
-                                                    CollectionPropertyDescriptor.class,
-                                                    UnknownPropertyException.class,
-                                                    TargetBeanIsNullException.class,
-                                                    ReadOnlyPropertyException.class);
+         SourceWriter writer = getSourceWriterWithImports(classType, ProviderWriter.IMPORTS);
 
 
          // The source writer is null if the class already exists, so we don't need
@@ -76,27 +77,17 @@ public class BeanModelProviderCreator
          else
          {
 
-            Set<Class> nestedBeanTypes = getNestedTypeClasses(classType);
+            Set<String> nestedBeanTypes = getNestedTypeNames(classType);
             int maxNestingDepth = getRecursionDepth(classType);
 
             // bean type is in our declaration e.g.
             // class MyProvider extends AbstractBeanModelProvider<BeanType>
             JClassType beanType = classType.getSuperclass().isParameterized().getTypeArgs()[0];
 
-            Context context = new Context(typeName, logger, typeOracle, nestedBeanTypes, maxNestingDepth);
-            BeanInfo beanInfo = new BeanInfo(context, beanType);
-
-            writer.indent();
+            Context context = new Context(typeName, nestedBeanTypes, maxNestingDepth, introspector);
+            BeanInfo beanInfo = new BeanInfo(context, new JTypeInfo(beanType, typeOracle));
 
-            writer.println();
-
-            // e.g. private PropertyKey key_firstName = new DefaultPropertyKey(...);
-            generateDescriptorVars(writer, beanInfo);
-
-            writer.println();
-
-            // e.g. private BeanPropertyAccessor accessor_a_package_Class = new BeanPropertyAccessor(){...};
-            generateGetPropertyDescriptorMethod(writer, beanInfo);
+            new ProviderWriter(new Writer(writer)).writeBody(beanInfo);
 
             writer.commit(logger);
 
@@ -108,15 +99,26 @@ public class BeanModelProviderCreator
          e.printStackTrace();
          return null;
       }
+      catch (InvalidBeanException e)
+      {
+         logger.log(TreeLogger.Type.ERROR, e.getMessage());
+         throw new UnableToCompleteException();
+      }
    }
 
-   private Set<Class> getNestedTypeClasses(JClassType classType)
+   private Set<String> getNestedTypeNames(JClassType classType)
    {
       NestedTypes nestedTypeAnnotation = classType.findAnnotationInTypeHierarchy(NestedTypes.class);
 
-      return nestedTypeAnnotation == null
-             ? Collections.<Class>emptySet()
-             : new HashSet<Class>(Arrays.asList(nestedTypeAnnotation.value()));
+      HashSet<String> names = new HashSet<String>();
+      if (nestedTypeAnnotation != null)
+      {
+         for (Class<?> type : nestedTypeAnnotation.value())
+         {
+            names.add(type.getName());
+         }
+      }
+      return names;
    }
    private int getRecursionDepth(JClassType classType)
    {
@@ -125,107 +127,8 @@ public class BeanModelProviderCreator
       return maxNestedDepth == null ? -1 : maxNestedDepth.value();
    }
 
-   private String toDescriptorVarName(PropertyInfo property)
-   {
-      return "descriptor_" + property.getFullPropertyPath().replace('.', '_');
-   }
-
-   private String quote(String string)
-   {
-      return string != null ? "\"" + string + "\"" : null;
-   }
-
-   private void generateDescriptorVars(final Writer source, BeanInfo beanInfo)
-   {
-      beanInfo.visitAllProperties(new Visitor<PropertyInfo>()
-      {
-         public void visit(PropertyInfo property)
-         {
-            // generate an appropriate constructor call...
-            BeanInfo parentBean = property.getParentBeanInfo();
-            if (property.isCollectionProperty())
-            {
-               // CollectionPropertyDescriptor(String fullPath, String parentPath, String propertyName,
-               //                              Class beanType, Class collectionType, Class elementType, boolean mutable)
-               source.println("private final PropertyDescriptor %s = new CollectionPropertyDescriptor(%s, %s, %s, %s.class, %s.class, %s.class, %s) {",
-                              toDescriptorVarName(property),
-                              quote(property.getFullPropertyPath()),
-                              quote(property.getParentPath()),
-                              quote(property.getName()),
-                              parentBean.getTypeName(),
-                              property.getTypeName(),
-                              property.getCollectionElementTypeName(),
-                              property.isMutable());
-            }
-            else
-            {
-               // DefaultPropertyKey(Class type, String fullPath, String parentPath, String propertyName)
-               source.println("private final PropertyDescriptor %s = new DefaultPropertyDescriptor(%s, %s, %s, %s.class, %s.class, %s) {",
-                              toDescriptorVarName(property),
-                              quote(property.getFullPropertyPath()),
-                              quote(property.getParentPath()),
-                              quote(property.getName()),
-                              parentBean.getTypeName(),
-                              property.getTypeName(),
-                              property.isMutable());
-            }
-
-            // now implement the methods....
-            source.indent();
-            source.println("public Object readProperty(Object bean) {");
-            source.indent();
-            source.println("return bean == null ? null : ((" + parentBean.getTypeName() + ")bean)." + property.getGetterMethodName() + "();");
-            source.outdent();
-            source.println("}");
-
-            source.println("public void writeProperty(Object bean, Object value) {");
-            source.indent();
-            source.println("if (bean == null) {");
-            source.println("   throw new TargetBeanIsNullException(this, " + parentBean.getTypeName() + ".class);");
-            source.println("}");
-            if (property.isMutable())
-            {
-               source.println("((" + parentBean.getTypeName() + ")bean)." + property.getSetterMethodName() + "((" + property.getTypeName() + ") value);");
-            }
-            else
-            {
-               source.println("throw new ReadOnlyPropertyException(this);");
-            }
-            source.outdent();
-            source.println("}");
-            source.outdent();
-            source.println("};");
-         }
-      });
-   }
-
-   private void generateGetPropertyDescriptorMethod(final Writer source, final BeanInfo beanInfo)
-   {
-      source.println("public PropertyDescriptor createPropertyDescriptor(String path) {");
-      source.indent();
-      beanInfo.visitAllProperties(new Visitor<PropertyInfo>()
-      {
-         public void visit(PropertyInfo property)
-         {
-            source.println("if (\"%s\".equals(path)) {", property.getFullPropertyPath());
-            source.indent();
-            source.println("return %s;", toDescriptorVarName(property));
-            source.outdent();
-            source.print("} else ");
-         }
-      });
-      source.println("{");
-      source.indent();
-      source.println("throw new UnknownPropertyException(path);");
-      source.outdent();
-      source.println("}");
-      source.outdent();
-      source.println("}");
-   }
-
-
-   public Writer
-   getSourceWriterWithImports(JClassType classType, Class... imports)
+   public SourceWriter
+   getSourceWriterWithImports(JClassType classType, Class<?>... imports)
    {
       String packageName = createPackageName(classType);
       String simpleName = createClassName(classType);
@@ -242,11 +145,11 @@ public class BeanModelProviderCreator
       }
       else
       {
-         for (Class type : imports)
+         for (Class<?> type : imports)
          {
             composer.addImport(type.getName());
          }
-         return new Writer(composer.createSourceWriter(context, printWriter));
+         return composer.createSourceWriter(context, printWriter);
       }
    }
 
@@ -20,19 +20,39 @@ import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
 
 public class BeanModelProviderGenerator 
 extends Generator
 {
+   // GWT uses the same generator instance for the whole compilation so we can share the
+   // introspection of the bean types between providers.  It's only valid for the type
+   // oracle it was built from since hosted mode refreshes the oracle when sources change.
+   private TypeOracle introspectedTypeOracle;
+   private BeanIntrospector introspector;
+
    /**
-    * 
+    * Generates the provider implementation.  GWT 2.0 has no incremental generator contract (i.e.
+    * no <code>IncrementalGenerator</code> or <code>RebindResult</code>) so every provider is
+    * regenerated on each compile or hosted mode refresh, the introspector above is the only work
+    * that's shared between them.
     */
    public String 
    generate(TreeLogger logger, GeneratorContext context, String typeName)
    throws UnableToCompleteException
    {
-      BeanModelProviderCreator binder = new BeanModelProviderCreator(logger, context, typeName);
+      BeanModelProviderCreator binder = new BeanModelProviderCreator(logger, context, typeName, getIntrospector(context.getTypeOracle()));
       return binder.createProvider();
    }
 
+   private BeanIntrospector getIntrospector(TypeOracle typeOracle)
+   {
+      if (introspector == null || introspectedTypeOracle != typeOracle)
+      {
+         introspectedTypeOracle = typeOracle;
+         introspector = new BeanIntrospector();
+      }
+      return introspector;
+   }
+
 }
\ No newline at end of file
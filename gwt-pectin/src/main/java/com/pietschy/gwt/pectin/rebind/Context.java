@@ -1,10 +1,8 @@
 package com.pietschy.gwt.pectin.rebind;
 
-import com.google.gwt.core.ext.TreeLogger;
-import com.google.gwt.core.ext.UnableToCompleteException;
-import com.google.gwt.core.ext.typeinfo.TypeOracle;
 import com.pietschy.gwt.pectin.client.bean.LimitPropertyDepth;
 
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -16,24 +14,47 @@ import java.util.Set;
  */
 public class Context
 {
-   private TypeOracle typeOracle;
-   private Set<Class> nestedBeanTypes;
+   private Set<String> nestedBeanTypeNames;
    private int maxPropertyDepth;
-   private TreeLogger logger;
    private String providerTypeName;
+   private BeanIntrospector introspector;
 
-   public Context(String providerTypeName, TreeLogger logger, TypeOracle typeOracle, Set<Class> nestedBeanTypes, int maxPropertyDepth)
+   /**
+    * @param providerTypeName the name of the provider being generated.
+    * @param nestedBeanTypeNames the binary names (as per <code>Class.getName()</code>) of the
+    * types listed by the provider's {@link com.pietschy.gwt.pectin.client.bean.NestedTypes} annotation.
+    * @param maxPropertyDepth the value of the providers {@link LimitPropertyDepth} annotation or -1.
+    */
+   public Context(String providerTypeName, Set<String> nestedBeanTypeNames, int maxPropertyDepth)
+   {
+      this(providerTypeName, nestedBeanTypeNames, maxPropertyDepth, new BeanIntrospector());
+   }
+
+   /**
+    * @param providerTypeName the name of the provider being generated.
+    * @param nestedBeanTypeNames the binary names (as per <code>Class.getName()</code>) of the
+    * types listed by the provider's {@link com.pietschy.gwt.pectin.client.bean.NestedTypes} annotation.
+    * @param maxPropertyDepth the value of the providers {@link LimitPropertyDepth} annotation or -1.
+    * @param introspector the introspector to use, this is typically shared between all the
+    * providers generated in a compilation.
+    */
+   public Context(String providerTypeName, Set<String> nestedBeanTypeNames, int maxPropertyDepth, BeanIntrospector introspector)
    {
       this.providerTypeName = providerTypeName;
-      this.logger = logger;
-      this.typeOracle = typeOracle;
-      this.nestedBeanTypes = nestedBeanTypes;
       this.maxPropertyDepth = maxPropertyDepth;
+      this.introspector = introspector;
+
+      // we index by source name since that's what we get from the properties.
+      this.nestedBeanTypeNames = new HashSet<String>();
+      for (String name : nestedBeanTypeNames)
+      {
+         this.nestedBeanTypeNames.add(name.replace('$', '.'));
+      }
    }
 
-   public TypeOracle getTypeOracle()
+   public BeanIntrospector getIntrospector()
    {
-      return typeOracle;
+      return introspector;
    }
 
    public boolean hasRecursionLimit()
@@ -46,9 +67,9 @@ public class Context
     * bean.
     * @param property the property to check.
     * @return
-    * @throws com.google.gwt.core.ext.UnableToCompleteException
+    * @throws InvalidBeanException if the property is recursive and there's no depth limit.
     */
-   public boolean isNestedBeanCandidate(PropertyInfo property) throws UnableToCompleteException
+   public boolean isNestedBeanCandidate(PropertyInfo property) throws InvalidBeanException
    {
       // check if path is recursive
       if (hasRecursionLimit())
@@ -61,10 +82,8 @@ public class Context
          // check we're not recursive..
          if (property.isRecursive())
          {
-            logger.log(TreeLogger.Type.ERROR, "Found recursive path at `" + property.getFullPropertyPath() + "`.  Please add a @" + LimitPropertyDepth.class.getSimpleName() +
-                                              " annotation to `" + providerTypeName + "`.");
-
-            throw new UnableToCompleteException();
+            throw new InvalidBeanException("Found recursive path at `" + property.getFullPropertyPath() + "`.  Please add a @" + LimitPropertyDepth.class.getSimpleName() +
+                                           " annotation to `" + providerTypeName + "`.");
          }
 
          return isNestedTypeOrHasAnnotation(property);
@@ -80,14 +99,7 @@ public class Context
       }
       else
       {
-         for (Class nestedBeanType : nestedBeanTypes)
-         {
-            if (property.getTypeName().equals(nestedBeanType.getName()))
-            {
-               return true;
-            }
-         }
-         return false;
+         return nestedBeanTypeNames.contains(property.getTypeName());
       }
    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+/**
+ * Thrown when a bean can't be processed, e.g. it has a recursive path without a
+ * {@link com.pietschy.gwt.pectin.client.bean.LimitPropertyDepth} annotation.  The generator and
+ * annotation processor report the message using their own logging.
+ */
+public class InvalidBeanException extends RuntimeException
+{
+   private static final long serialVersionUID = 1L;
+
+   public InvalidBeanException(String message)
+   {
+      super(message);
+   }
+}
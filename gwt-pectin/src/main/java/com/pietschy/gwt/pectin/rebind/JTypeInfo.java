@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.JParameter;
+import com.google.gwt.core.ext.typeinfo.JParameterizedType;
+import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.pietschy.gwt.pectin.client.bean.NestedBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TypeInfo} backed by GWT's type oracle.
+ */
+class JTypeInfo implements TypeInfo
+{
+   private JType type;
+   private TypeOracle typeOracle;
+
+   JTypeInfo(JType type, TypeOracle typeOracle)
+   {
+      this.type = type;
+      this.typeOracle = typeOracle;
+   }
+
+   public String getQualifiedSourceName()
+   {
+      return type.getQualifiedSourceName();
+   }
+
+   public String getParameterizedQualifiedSourceName()
+   {
+      return type.getParameterizedQualifiedSourceName();
+   }
+
+   public boolean isPrimitive()
+   {
+      return type.isPrimitive() != null;
+   }
+
+   public String getBoxedSourceName()
+   {
+      return type.isPrimitive().getQualifiedBoxedSourceName();
+   }
+
+   public boolean isVoid()
+   {
+      return type == JPrimitiveType.VOID;
+   }
+
+   public boolean isClassOrInterface()
+   {
+      return type.isClassOrInterface() != null;
+   }
+
+   public boolean isAssignableToCollection()
+   {
+      JClassType classType = type.isClassOrInterface();
+      return classType != null && classType.isAssignableTo(typeOracle.findType("java.util.Collection"));
+   }
+
+   public TypeInfo getFirstTypeArgument()
+   {
+      JParameterizedType parameterizedType = type.isParameterized();
+      return parameterizedType != null ? wrap(parameterizedType.getTypeArgs()[0]) : null;
+   }
+
+   public TypeInfo getSuperclass()
+   {
+      JClassType classType = type.isClassOrInterface();
+      JClassType superclass = classType != null ? classType.getSuperclass() : null;
+      return superclass != null ? wrap(superclass) : null;
+   }
+
+   public List<MethodInfo> getDeclaredMethods()
+   {
+      ArrayList<MethodInfo> result = new ArrayList<MethodInfo>();
+      for (JMethod method : type.isClassOrInterface().getMethods())
+      {
+         ArrayList<TypeInfo> parameterTypes = new ArrayList<TypeInfo>();
+         for (JParameter parameter : method.getParameters())
+         {
+            parameterTypes.add(wrap(parameter.getType()));
+         }
+
+         result.add(new MethodInfo(method.getName(),
+                                   method.isPublic(),
+                                   method.isStatic(),
+                                   wrap(method.getReturnType()),
+                                   parameterTypes,
+                                   method.getAnnotation(NestedBean.class) != null));
+      }
+      return result;
+   }
+
+   public boolean isSameType(TypeInfo other)
+   {
+      return other instanceof JTypeInfo && type.equals(((JTypeInfo) other).type);
+   }
+
+   private JTypeInfo wrap(JType type)
+   {
+      return new JTypeInfo(type, typeOracle);
+   }
+
+   @Override
+   public String toString()
+   {
+      return type.toString();
+   }
+}
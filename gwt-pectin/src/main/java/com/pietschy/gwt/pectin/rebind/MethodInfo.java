@@ -1,10 +1,6 @@
 package com.pietschy.gwt.pectin.rebind;
 
-import com.google.gwt.core.ext.typeinfo.JMethod;
-import com.google.gwt.core.ext.typeinfo.JParameter;
-import com.google.gwt.core.ext.typeinfo.JPrimitiveType;
-import com.google.gwt.core.ext.typeinfo.JType;
-import com.pietschy.gwt.pectin.client.bean.NestedBean;
+import java.util.List;
 
 /**
  * Created by IntelliJ IDEA.
@@ -13,42 +9,47 @@ import com.pietschy.gwt.pectin.client.bean.NestedBean;
  * Time: 10:03:16 AM
  * To change this template use File | Settings | File Templates.
  */
-class MethodInfo
+public class MethodInfo
 {
-   private JMethod method;
+   private String name;
+   private TypeInfo returnType;
+   private List<TypeInfo> parameterTypes;
+   private boolean annotatedAsNestedBean;
    private boolean getter;
    private boolean setter;
    private String propertyName;
 
-   MethodInfo(JMethod method)
+   public MethodInfo(String name, boolean isPublic, boolean isStatic, TypeInfo returnType, List<TypeInfo> parameterTypes, boolean annotatedAsNestedBean)
    {
-      this.method = method;
-
-      getter = computeGetter(method);
-      setter = computeSetter(method);
-      propertyName = computePropertyName(method);
+      this.name = name;
+      this.returnType = returnType;
+      this.parameterTypes = parameterTypes;
+      this.annotatedAsNestedBean = annotatedAsNestedBean;
+
+      getter = computeGetter(isPublic && !isStatic);
+      setter = computeSetter(isPublic && !isStatic);
+      propertyName = computePropertyName();
    }
 
-   private boolean computeSetter(JMethod method)
+   private boolean computeSetter(boolean publicInstanceMethod)
    {
-      return method.isPublic() && !method.isStatic()
-             && method.getName().startsWith("set")
-             && method.getParameters().length == 1
-             && method.getReturnType() == JPrimitiveType.VOID;
+      return publicInstanceMethod
+             && name.startsWith("set")
+             && parameterTypes.size() == 1
+             && returnType.isVoid();
    }
 
-   private boolean computeGetter(JMethod method)
+   private boolean computeGetter(boolean publicInstanceMethod)
    {
-      String name = method.getName();
-      return method.isPublic() && !method.isStatic()
+      return publicInstanceMethod
           && (name.startsWith("is") || name.startsWith("get"))
-          && method.getParameters().length == 0
-          && method.getReturnType() != JPrimitiveType.VOID;
+          && parameterTypes.size() == 0
+          && !returnType.isVoid();
    }
 
-   private String computePropertyName(JMethod method)
+   private String computePropertyName()
    {
-      String name = method.getName();
+      String name = this.name;
 
       if (isSetter())
       {
@@ -93,7 +94,7 @@ class MethodInfo
 
    public boolean isAnnotatedAsNestedBean()
    {
-      return isGetter() && method.getAnnotation(NestedBean.class) != null;
+      return isGetter() && annotatedAsNestedBean;
    }
 
    public String getPropertyName()
@@ -101,19 +102,18 @@ class MethodInfo
       return propertyName;
    }
 
-   public JType getReturnType()
+   public TypeInfo getReturnType()
    {
-      return method.getReturnType();
+      return returnType;
    }
 
-   public boolean hasSingleParameterOfType(JType type)
+   public boolean hasSingleParameterOfType(TypeInfo type)
    {
-      JParameter[] params = method.getParameters();
-      return params.length == 1 && params[0].getType().equals(type);
+      return parameterTypes.size() == 1 && parameterTypes.get(0).isSameType(type);
    }
 
    public String getName()
    {
-      return method.getName();
+      return name;
    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Generates a constant time lookup from a property path to an expression.  The lookup is a
+ * <code>switch</code> on the path's hash code (which GWT computes the same way as the JVM) with
+ * an <code>equals</code> check for each path that has that hash code, so a lookup costs a
+ * single string comparison regardless of how many paths there are.
+ */
+class PathSwitch
+{
+   private LinkedHashMap<String, String> expressions = new LinkedHashMap<String, String>();
+
+   /**
+    * Adds a path and the expression to return for it.  If the path has already been added the
+    * first expression wins.
+    */
+   public void add(String path, String expression)
+   {
+      if (!expressions.containsKey(path))
+      {
+         expressions.put(path, expression);
+      }
+   }
+
+   /**
+    * Writes the statements that return the expression for the path held by the specified
+    * variable.  Unknown paths fall through to the statements that follow.
+    *
+    * @param source the writer.
+    * @param pathVariable the name of the variable holding the path.
+    */
+   public void write(Writer source, String pathVariable)
+   {
+      if (expressions.isEmpty())
+      {
+         return;
+      }
+
+      source.println("switch (%s.hashCode()) {", pathVariable);
+      source.indent();
+      for (Map.Entry<Integer, List<String>> bucket : groupByHashCode().entrySet())
+      {
+         source.println("case %d:", bucket.getKey());
+         source.indent();
+         for (String path : bucket.getValue())
+         {
+            source.println("if (\"%s\".equals(%s)) return %s;", path, pathVariable, expressions.get(path));
+         }
+         source.println("break;");
+         source.outdent();
+      }
+      source.outdent();
+      source.println("}");
+   }
+
+   private TreeMap<Integer, List<String>> groupByHashCode()
+   {
+      // a sorted map so we generate the same source every time.
+      TreeMap<Integer, List<String>> buckets = new TreeMap<Integer, List<String>>();
+      for (String path : expressions.keySet())
+      {
+         List<String> bucket = buckets.get(path.hashCode());
+         if (bucket == null)
+         {
+            bucket = new ArrayList<String>(1);
+            buckets.put(path.hashCode(), bucket);
+         }
+         bucket.add(path);
+      }
+      return buckets;
+   }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+/**
+ * A property as declared by a bean type, independent of the path it's reached by.  These are
+ * shared between all the {@link PropertyInfo}s of the type by the {@link BeanIntrospector}.
+ */
+class PropertyDeclaration
+{
+   private String name;
+   private TypeInfo type;
+   private String getterMethodName;
+   private String setterMethodName;
+   private boolean annotatedWithNestedBean;
+
+   PropertyDeclaration(String name, TypeInfo type, String getterMethodName, boolean annotatedWithNestedBean)
+   {
+      this.name = name;
+      this.type = type;
+      this.getterMethodName = getterMethodName;
+      this.annotatedWithNestedBean = annotatedWithNestedBean;
+   }
+
+   public String getName()
+   {
+      return name;
+   }
+
+   public TypeInfo getType()
+   {
+      return type;
+   }
+
+   public String getGetterMethodName()
+   {
+      return getterMethodName;
+   }
+
+   public String getSetterMethodName()
+   {
+      return setterMethodName;
+   }
+
+   void setSetterMethodName(String setterMethodName)
+   {
+      this.setterMethodName = setterMethodName;
+   }
+
+   public boolean isAnnotatedWithNestedBean()
+   {
+      return annotatedWithNestedBean;
+   }
+}
@@ -1,7 +1,5 @@
 package com.pietschy.gwt.pectin.rebind;
 
-import com.google.gwt.core.ext.UnableToCompleteException;
-import com.google.gwt.core.ext.typeinfo.*;
 import com.pietschy.gwt.pectin.client.bean.NestedBean;
 
 /**
@@ -16,29 +14,24 @@ class PropertyInfo
    private BeanInfo parentType;
    private BeanInfo myNestedBeanType;
    private String parentPath;
-   private String name;
-   private JType type;
-   private String getterMethodName;
-   private String setterMethodName = null;
-   private boolean annotatedWithNestedBean;
+   private PropertyDeclaration declaration;
+   private TypeInfo type;
 
 
-   PropertyInfo(BeanInfo parentType, String parentPath, String name, JType type, String getterMethodName, boolean hasNestedAnnotation)
+   PropertyInfo(BeanInfo parentType, String parentPath, PropertyDeclaration declaration)
    {
       this.parentType = parentType;
       this.parentPath = parentPath;
-      this.name = name;
-      this.type = type;
-      this.getterMethodName = getterMethodName;
-      this.annotatedWithNestedBean = hasNestedAnnotation;
+      this.declaration = declaration;
+      this.type = declaration.getType();
    }
 
    public String getName()
    {
-      return name;
+      return declaration.getName();
    }
 
-   public JType getType()
+   public TypeInfo getType()
    {
       return type;
    }
@@ -70,7 +63,7 @@ class PropertyInfo
 
    public boolean isAnnotatedWithNestedBean()
    {
-      return annotatedWithNestedBean;
+      return declaration.isAnnotatedWithNestedBean();
    }
 
    public BeanInfo getNestedBeanInfo()
@@ -78,11 +71,9 @@ class PropertyInfo
       return myNestedBeanType;
    }
 
-   public void createNestedBeanInfo() throws UnableToCompleteException
+   public void createNestedBeanInfo()
    {
-      JClassType beanType = isClassOrInterface();
-
-      if (beanType == null)
+      if (!type.isClassOrInterface())
       {
          throw new IllegalStateException("property " + getName() +
                                          " on type " + parentType.getTypeName() +
@@ -108,82 +99,57 @@ class PropertyInfo
 
    public boolean isCollectionProperty()
    {
-      JClassType classType = isClassOrInterface();
-
-      return classType != null && classType.isAssignableTo(getTypeOracle().findType("java.util.Collection"));
-   }
-
-   private TypeOracle getTypeOracle()
-   {
-      return parentType.getContext().getTypeOracle();
+      return type.isClassOrInterface() && type.isAssignableToCollection();
    }
 
    public String getCollectionElementTypeName()
    {
-      JClassType type = getCollectionElementType();
+      TypeInfo type = getCollectionElementType();
       return type != null ? type.getQualifiedSourceName() : "java.lang.Object";
    }
 
-   public JClassType getCollectionElementType()
+   public TypeInfo getCollectionElementType()
    {
       if (!isCollectionProperty())
       {
          throw new IllegalStateException("Property isn't a collection type.");
       }
 
-      JParameterizedType parameterisedType = isParameterised();
-      return parameterisedType != null ? parameterisedType.getTypeArgs()[0] : null;
-   }
-
-   private JClassType isClassOrInterface()
-   {
-      return type.isClassOrInterface();
+      return type.getFirstTypeArgument();
    }
 
-   private JParameterizedType isParameterised()
+   public TypeInfo getAsClassType()
    {
-      return type.isParameterized();
-   }
-
-   public JClassType getAsClassType()
-   {
-      JClassType classType = isClassOrInterface();
-      if (classType == null)
+      if (!type.isClassOrInterface())
       {
          throw new IllegalStateException("Type isn't an interface or class:" + type);
       }
-      return classType;
+      return type;
    }
 
    public String getTypeName()
    {
-      final JPrimitiveType primitive = type.isPrimitive();
-      return primitive != null ? primitive.getQualifiedBoxedSourceName() : type.getQualifiedSourceName();
+      return type.isPrimitive() ? type.getBoxedSourceName() : type.getQualifiedSourceName();
    }
 
    public boolean isPrimitive()
    {
-      return type.isPrimitive() != null;
+      return type.isPrimitive();
    }
 
    public boolean isMutable()
    {
-      return setterMethodName != null;
+      return getSetterMethodName() != null;
    }
 
    public String getGetterMethodName()
    {
-      return getterMethodName;
+      return declaration.getGetterMethodName();
    }
 
    public String getSetterMethodName()
    {
-      return setterMethodName;
-   }
-
-   public void setSetterMethodName(String setterMethodName)
-   {
-      this.setterMethodName = setterMethodName;
+      return declaration.getSetterMethodName();
    }
 
    public PropertyInfo getParentProperty()
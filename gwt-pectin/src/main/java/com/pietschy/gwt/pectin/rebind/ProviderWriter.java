@@ -0,0 +1,171 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import com.pietschy.gwt.pectin.client.bean.CollectionPropertyDescriptor;
+import com.pietschy.gwt.pectin.client.bean.DefaultPropertyDescriptor;
+import com.pietschy.gwt.pectin.client.bean.PropertyDescriptor;
+import com.pietschy.gwt.pectin.client.bean.ReadOnlyPropertyException;
+import com.pietschy.gwt.pectin.client.bean.TargetBeanIsNullException;
+import com.pietschy.gwt.pectin.client.bean.UnknownPropertyException;
+
+/**
+ * Writes the body of a generated bean model provider, i.e. the property descriptors and the
+ * <code>createPropertyDescriptor</code> method.  Shared by the GWT generator and the annotation
+ * processor so both generate the same source.
+ */
+public class ProviderWriter
+{
+   /**
+    * The classes the generated source refers to by their simple names.
+    */
+   public static final Class<?>[] IMPORTS = {PropertyDescriptor.class,
+                                          DefaultPropertyDescriptor.class,
+                                          CollectionPropertyDescriptor.class,
+                                          UnknownPropertyException.class,
+                                          TargetBeanIsNullException.class,
+                                          ReadOnlyPropertyException.class};
+
+   private Writer writer;
+
+   public ProviderWriter(Writer writer)
+   {
+      this.writer = writer;
+   }
+
+   /**
+    * Writes the members of the provider, the class declaration must already have been written.
+    *
+    * @param beanInfo the bean the provider is for.
+    */
+   public void writeBody(BeanInfo beanInfo)
+   {
+      writer.indent();
+
+      writer.println();
+
+      // e.g. private PropertyDescriptor createDescriptor_firstName() {return new DefaultPropertyDescriptor(...);}
+      generateDescriptorFactories(writer, beanInfo);
+
+      writer.println();
+
+      // e.g. private BeanPropertyAccessor accessor_a_package_Class = new BeanPropertyAccessor(){...};
+      generateGetPropertyDescriptorMethod(writer, beanInfo);
+   }
+
+   private String toDescriptorFactoryName(PropertyInfo property)
+   {
+      return "createDescriptor_" + property.getFullPropertyPath().replace('.', '_');
+   }
+
+   private String quote(String string)
+   {
+      return string != null ? "\"" + string + "\"" : null;
+   }
+
+   /**
+    * Generates a factory method for each descriptor rather than a field so the provider only
+    * creates the descriptors for the paths that are actually used (the models are cached by the
+    * provider so each factory is only called once).
+    */
+   private void generateDescriptorFactories(final Writer source, BeanInfo beanInfo)
+   {
+      beanInfo.visitAllProperties(new Visitor<PropertyInfo>()
+      {
+         public void visit(PropertyInfo property)
+         {
+            source.println("private PropertyDescriptor %s() {", toDescriptorFactoryName(property));
+            source.indent();
+
+            // generate an appropriate constructor call...
+            BeanInfo parentBean = property.getParentBeanInfo();
+            if (property.isCollectionProperty())
+            {
+               // CollectionPropertyDescriptor(String fullPath, String parentPath, String propertyName,
+               //                              Class beanType, Class collectionType, Class elementType, boolean mutable)
+               source.println("return new CollectionPropertyDescriptor(%s, %s, %s, %s.class, %s.class, %s.class, %s) {",
+                              quote(property.getFullPropertyPath()),
+                              quote(property.getParentPath()),
+                              quote(property.getName()),
+                              parentBean.getTypeName(),
+                              property.getTypeName(),
+                              property.getCollectionElementTypeName(),
+                              property.isMutable());
+            }
+            else
+            {
+               // DefaultPropertyKey(Class type, String fullPath, String parentPath, String propertyName)
+               source.println("return new DefaultPropertyDescriptor(%s, %s, %s, %s.class, %s.class, %s) {",
+                              quote(property.getFullPropertyPath()),
+                              quote(property.getParentPath()),
+                              quote(property.getName()),
+                              parentBean.getTypeName(),
+                              property.getTypeName(),
+                              property.isMutable());
+            }
+
+            // now implement the methods....
+            source.indent();
+            source.println("public Object readProperty(Object bean) {");
+            source.indent();
+            source.println("return bean == null ? null : ((" + parentBean.getTypeName() + ")bean)." + property.getGetterMethodName() + "();");
+            source.outdent();
+            source.println("}");
+
+            source.println("public void writeProperty(Object bean, Object value) {");
+            source.indent();
+            source.println("if (bean == null) {");
+            source.println("   throw new TargetBeanIsNullException(this, " + parentBean.getTypeName() + ".class);");
+            source.println("}");
+            if (property.isMutable())
+            {
+               source.println("((" + parentBean.getTypeName() + ")bean)." + property.getSetterMethodName() + "((" + property.getTypeName() + ") value);");
+            }
+            else
+            {
+               source.println("throw new ReadOnlyPropertyException(this);");
+            }
+            source.outdent();
+            source.println("}");
+            source.outdent();
+            source.println("};");
+
+            source.outdent();
+            source.println("}");
+         }
+      });
+   }
+
+   private void generateGetPropertyDescriptorMethod(final Writer source, final BeanInfo beanInfo)
+   {
+      final PathSwitch lookup = new PathSwitch();
+      beanInfo.visitAllProperties(new Visitor<PropertyInfo>()
+      {
+         public void visit(PropertyInfo property)
+         {
+            lookup.add(property.getFullPropertyPath(), toDescriptorFactoryName(property) + "()");
+         }
+      });
+
+      source.println("public PropertyDescriptor createPropertyDescriptor(String path) {");
+      source.indent();
+      lookup.write(source, "path");
+      source.println("throw new UnknownPropertyException(path);");
+      source.outdent();
+      source.println("}");
+   }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import java.util.List;
+
+/**
+ * The view of a type used by {@link BeanInfo} and {@link PropertyInfo}.  This lets the same bean
+ * model be built from GWT's type oracle by the deferred binding generator (see
+ * {@link JTypeInfo}) and from <code>javax.lang.model</code> by the annotation processor, so this
+ * interface must not reference any GWT compiler classes.
+ */
+public interface TypeInfo
+{
+   /**
+    * Returns the qualified source name of the type without any type arguments, or the keyword
+    * for primitive types.
+    */
+   String getQualifiedSourceName();
+
+   /**
+    * Returns the qualified source name including any type arguments.  Two types with the same
+    * parameterized name are considered to have the same properties.
+    */
+   String getParameterizedQualifiedSourceName();
+
+   boolean isPrimitive();
+
+   /**
+    * Returns the qualified source name of the wrapper class of a primitive type.
+    */
+   String getBoxedSourceName();
+
+   boolean isVoid();
+
+   boolean isClassOrInterface();
+
+   boolean isAssignableToCollection();
+
+   /**
+    * Returns the first type argument of a parameterized type or <code>null</code> if the type
+    * isn't parameterized.
+    */
+   TypeInfo getFirstTypeArgument();
+
+   /**
+    * Returns the superclass of a class type or <code>null</code> if it doesn't have one.
+    */
+   TypeInfo getSuperclass();
+
+   /**
+    * Returns the methods declared by the type (but not its supertypes).
+    */
+   List<MethodInfo> getDeclaredMethods();
+
+   boolean isSameType(TypeInfo other);
+}
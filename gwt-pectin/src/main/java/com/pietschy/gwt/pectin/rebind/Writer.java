@@ -1,6 +1,5 @@
 package com.pietschy.gwt.pectin.rebind;
 
-import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.user.rebind.SourceWriter;
 
 /**
@@ -54,11 +53,6 @@ public class Writer
       writer.beginJavaDocComment();
    }
 
-   public void commit(TreeLogger logger)
-   {
-      writer.commit(logger);
-   }
-
    public void println()
    {
       writer.println();
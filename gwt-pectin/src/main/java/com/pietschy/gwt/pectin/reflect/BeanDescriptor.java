@@ -8,6 +8,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created by IntelliJ IDEA.
@@ -18,13 +20,20 @@ import java.util.HashMap;
  */
 class BeanDescriptor
 {
+   // the resolved methods of each property by bean class, these are shared by every descriptor
+   // (and every thread) so we only go looking for a property's methods once.
+   private static final ConcurrentMap<Class<?>, ConcurrentMap<String, Accessor>> ACCESSORS_BY_CLASS =
+      new ConcurrentHashMap<Class<?>, ConcurrentMap<String, Accessor>>();
+
    private Class beanClass;
    private HashMap<String, PropertyDescriptor> descriptors = new HashMap<String, PropertyDescriptor>();
+   private ConcurrentMap<String, Accessor> accessors;
    private HashMap<Class<?>, Class<?>> primitives = new HashMap<Class<?>, Class<?>>();
 
    public BeanDescriptor(Class beanClass)
    {
       this.beanClass = beanClass;
+      this.accessors = accessorsFor(beanClass);
       primitives.put(boolean.class, Boolean.class);
       primitives.put(char.class, Character.class);
       primitives.put(byte.class, Byte.class);
@@ -36,6 +45,23 @@ class BeanDescriptor
    }
 
 
+   private static ConcurrentMap<String, Accessor> accessorsFor(Class<?> beanClass)
+   {
+      ConcurrentMap<String, Accessor> accessors = ACCESSORS_BY_CLASS.get(beanClass);
+
+      if (accessors == null)
+      {
+         ConcurrentMap<String, Accessor> newAccessors = new ConcurrentHashMap<String, Accessor>();
+         accessors = ACCESSORS_BY_CLASS.putIfAbsent(beanClass, newAccessors);
+         if (accessors == null)
+         {
+            accessors = newAccessors;
+         }
+      }
+
+      return accessors;
+   }
+
    public PropertyDescriptor getPropertyDescriptor(Path path)
    {
       PropertyDescriptor descriptor = descriptors.get(path.getPropertyName());
@@ -53,19 +79,7 @@ class BeanDescriptor
 
    private boolean isMutable(Path path)
    {
-      // the getter exists...
-      getGetter(path);
-
-      try
-      {
-         // oh so hacky...
-         getSetter(path);
-         return true;
-      }
-      catch (ReadOnlyPropertyException e)
-      {
-         return false;
-      }
+      return getAccessor(path).setter != null;
    }
 
    public Object readProperty(Object bean, Path path) throws UnknownPropertyException
@@ -77,7 +91,7 @@ class BeanDescriptor
 
       try
       {
-         return getGetter(path).invoke(bean);
+         return getAccessor(path).getter.invoke(bean);
       }
       catch (IllegalAccessException e)
       {
@@ -96,7 +110,12 @@ class BeanDescriptor
          throw new TargetBeanIsNullException(path, beanClass);
       }
 
-      Method setter = getSetter(path);
+      Method setter = getAccessor(path).setter;
+
+      if (setter == null)
+      {
+         throw new ReadOnlyPropertyException(path);
+      }
 
       try
       {
@@ -114,8 +133,30 @@ class BeanDescriptor
 
    private void ensurePropertyExists(Path path)
    {
-      // oh so hacky...
-      getGetter(path);
+      getAccessor(path);
+   }
+
+   /**
+    * Returns the accessor for the property, resolving its methods the first time the property
+    * is used with our bean class.  Two threads may both resolve the methods but only the first
+    * accessor is kept.
+    */
+   private Accessor getAccessor(Path path) throws UnknownPropertyException
+   {
+      Accessor accessor = accessors.get(path.getPropertyName());
+
+      if (accessor == null)
+      {
+         Method getter = getGetter(path);
+         Accessor newAccessor = new Accessor(getter, getSetter(path, getter.getReturnType()));
+         accessor = accessors.putIfAbsent(path.getPropertyName(), newAccessor);
+         if (accessor == null)
+         {
+            accessor = newAccessor;
+         }
+      }
+
+      return accessor;
    }
 
    private Method findMethod(String methodName, Class... parameterTypes) throws NoSuchMethodException
@@ -140,16 +181,17 @@ class BeanDescriptor
 
    private Method getGetter(Path path) throws UnknownPropertyException
    {
+      String name = capitalise(path.getPropertyName());
       try
       {
-         return findMethod("get" + capitalise(path.getPropertyName()));
+         return findMethod("get" + name);
       }
       catch (NoSuchMethodException e)
       {
          try
          {
             // should really test it's return type is boolean...
-            return findMethod("is" + capitalise(path.getPropertyName()));
+            return findMethod("is" + name);
          }
          catch (NoSuchMethodException e1)
          {
@@ -158,15 +200,18 @@ class BeanDescriptor
       }
    }
 
-   private Method getSetter(Path path) throws ReadOnlyPropertyException
+   /**
+    * Returns the setter or <code>null</code> if the property is read only.
+    */
+   private Method getSetter(Path path, Class<?> rawType)
    {
       try
       {
-         return beanClass.getMethod("set" + capitalise(path.getPropertyName()), getRawPropertyType(path));
+         return beanClass.getMethod("set" + capitalise(path.getPropertyName()), rawType);
       }
       catch (NoSuchMethodException e)
       {
-         throw new ReadOnlyPropertyException(path);
+         return null;
       }
    }
 
@@ -178,12 +223,12 @@ class BeanDescriptor
 
    private Class<?> getRawPropertyType(Path path)
    {
-      return getGetter(path).getReturnType();
+      return getAccessor(path).getter.getReturnType();
    }
 
    public Class getElementType(Path path)
    {
-      Method method = getGetter(path);
+      Method method = getAccessor(path).getter;
       Class<?> type = method.getReturnType();
 
       if (!Collection.class.isAssignableFrom(type))
@@ -242,4 +287,36 @@ class BeanDescriptor
          BeanDescriptor.this.writeProperty(bean, this, value);
       }
    }
+
+   /**
+    * The resolved methods of a property.  The methods are made accessible so the JVM skips the
+    * access checks on every call, this also allows public methods of non public classes to be
+    * used.
+    */
+   private static class Accessor
+   {
+      private Method getter;
+      private Method setter;
+
+      private Accessor(Method getter, Method setter)
+      {
+         this.getter = makeAccessible(getter);
+         this.setter = setter != null ? makeAccessible(setter) : null;
+      }
+
+      private static Method makeAccessible(Method method)
+      {
+         try
+         {
+            method.setAccessible(true);
+         }
+         catch (RuntimeException e)
+         {
+            // a security manager or the module system won't let us (the latter throws
+            // InaccessibleObjectException, which isn't a SecurityException) so we'll just
+            // have to live with the access checks.
+         }
+         return method;
+      }
+   }
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.apt;
+
+import com.pietschy.gwt.pectin.client.bean.AbstractBeanModelProvider;
+import com.pietschy.gwt.pectin.client.bean.PropertyDescriptor;
+import com.pietschy.gwt.pectin.client.bean.data.TestBean;
+import com.pietschy.gwt.pectin.client.bean.runner.BeanModelProviderGeneralTestRunner;
+import com.pietschy.gwt.pectin.client.bean.runner.BeanModelProviderListModelTestRunner;
+import com.pietschy.gwt.pectin.client.bean.runner.BeanModelProviderPropertyDescriptorTestRunner;
+import com.pietschy.gwt.pectin.client.bean.runner.BeanModelProviderValueModelTestRunner;
+import com.pietschy.gwt.pectin.reflect.TestNgResultCallback;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * BeanModelProviderProcessor Tester.  Compiles providers with the processor and runs the same
+ * tests as the reflection and GWT providers against the generated code.
+ */
+public class BeanModelProviderProcessorTest
+{
+   private static final String PACKAGE = "com.pietschy.gwt.pectin.apt.generated";
+
+   private static final String TEST_PROVIDER =
+      "package " + PACKAGE + ";\n" +
+      "import com.pietschy.gwt.pectin.client.bean.*;\n" +
+      "import com.pietschy.gwt.pectin.client.bean.data.*;\n" +
+      "@GenerateProvider\n" +
+      "@NestedTypes({AnotherBean.class})\n" +
+      "public abstract class TestProvider extends BeanModelProvider<TestBean> {}\n";
+
+   private static final String NESTED_PROVIDER =
+      "package " + PACKAGE + ";\n" +
+      "import com.pietschy.gwt.pectin.client.bean.*;\n" +
+      "import com.pietschy.gwt.pectin.client.bean.data.*;\n" +
+      "public class Holder {\n" +
+      "   @GenerateProvider\n" +
+      "   @NestedTypes({AnotherBean.class})\n" +
+      "   public abstract static class Provider extends BeanModelProvider<TestBean> {}\n" +
+      "}\n";
+
+   private static final String RECURSIVE_PROVIDER =
+      "package " + PACKAGE + ";\n" +
+      "import com.pietschy.gwt.pectin.client.bean.*;\n" +
+      "import com.pietschy.gwt.pectin.client.bean.data.recursion.*;\n" +
+      "@GenerateProvider\n" +
+      "@NestedTypes({RecursiveBeanOne.class, RecursiveBeanTwo.class})\n" +
+      "public abstract class RecursiveProvider extends BeanModelProvider<TestBean> {}\n";
+
+   // the annotation is inherited by the subclass but the generic base itself is skipped.
+   private static final String GENERIC_PROVIDER =
+      "package " + PACKAGE + ";\n" +
+      "import com.pietschy.gwt.pectin.client.bean.*;\n" +
+      "import com.pietschy.gwt.pectin.client.bean.data.*;\n" +
+      "@GenerateProvider\n" +
+      "public abstract class GenericProvider<B> extends BeanModelProvider<B> {}\n";
+
+   private static final String GENERIC_SUBCLASS_PROVIDER =
+      "package " + PACKAGE + ";\n" +
+      "import com.pietschy.gwt.pectin.client.bean.data.*;\n" +
+      "public abstract class AnotherBeanProvider extends GenericProvider<AnotherBean> {}\n";
+
+   private static final String UNANNOTATED_PROVIDER =
+      "package " + PACKAGE + ";\n" +
+      "import com.pietschy.gwt.pectin.client.bean.*;\n" +
+      "import com.pietschy.gwt.pectin.client.bean.data.*;\n" +
+      "public abstract class UnannotatedProvider extends BeanModelProvider<TestBean> {}\n";
+
+   private ClassLoader generatedClasses;
+
+   private List<File> outputDirectories = new ArrayList<File>();
+
+   @BeforeClass
+   protected void compileProviders() throws Exception
+   {
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+      File output = compile(diagnostics,
+                            source("TestProvider", TEST_PROVIDER),
+                            source("Holder", NESTED_PROVIDER),
+                            source("GenericProvider", GENERIC_PROVIDER),
+                            source("AnotherBeanProvider", GENERIC_SUBCLASS_PROVIDER),
+                            source("UnannotatedProvider", UNANNOTATED_PROVIDER));
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+      {
+         assertFalse(diagnostic.getKind() == Diagnostic.Kind.ERROR, diagnostic.toString());
+      }
+
+      generatedClasses = new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+   }
+
+   @AfterClass
+   protected void deleteOutputDirectories()
+   {
+      for (File directory : outputDirectories)
+      {
+         delete(directory);
+      }
+      outputDirectories.clear();
+   }
+
+   private void delete(File file)
+   {
+      File[] children = file.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+
+   @SuppressWarnings("unchecked")
+   private AbstractBeanModelProvider<TestBean> createProvider(String className) throws Exception
+   {
+      return (AbstractBeanModelProvider<TestBean>) generatedClasses.loadClass(PACKAGE + "." + className).getDeclaredConstructor().newInstance();
+   }
+
+   private BeanModelProviderPropertyDescriptorTestRunner descriptorRunner() throws Exception
+   {
+      return new BeanModelProviderPropertyDescriptorTestRunner(createProvider("TestProviderImpl"), new TestNgResultCallback());
+   }
+
+   private BeanModelProviderValueModelTestRunner valueModelRunner() throws Exception
+   {
+      return new BeanModelProviderValueModelTestRunner(createProvider("TestProviderImpl"), new TestNgResultCallback());
+   }
+
+   private BeanModelProviderListModelTestRunner listModelRunner() throws Exception
+   {
+      return new BeanModelProviderListModelTestRunner(createProvider("TestProviderImpl"), new TestNgResultCallback());
+   }
+
+   private BeanModelProviderGeneralTestRunner generalRunner() throws Exception
+   {
+      return new BeanModelProviderGeneralTestRunner(createProvider("TestProviderImpl"), new TestNgResultCallback());
+   }
+
+   @Test
+   public void propertyDescriptors() throws Exception
+   {
+      // each runner method expects a fresh provider.
+      descriptorRunner().a_createDescriptorForUnknownPath();
+      descriptorRunner().b_createDescriptorForUnknownNestedPath();
+      descriptorRunner().c_isMutable();
+      descriptorRunner().d_readValue();
+      descriptorRunner().e_readNestedValue();
+      descriptorRunner().f_writeValue();
+      descriptorRunner().g_writeNestedValue();
+      descriptorRunner().h_writeValueWithNullBean();
+      descriptorRunner().i_writeValueToImmutable();
+      descriptorRunner().j_getValueType();
+      descriptorRunner().k_getElementType();
+      descriptorRunner().l_getElementTypeForNonCollection();
+      descriptorRunner().m_createDescriptorForUnknownProperty();
+      descriptorRunner().n_createDescriptorWithUnknownNestedProperty();
+   }
+
+   @Test
+   public void valueModels() throws Exception
+   {
+      valueModelRunner().a_getNestedValueModel();
+      valueModelRunner().b_getValueModelForUnknownProperty();
+      valueModelRunner().c_getValueModelWithWrongType();
+   }
+
+   @Test
+   public void listModels() throws Exception
+   {
+      listModelRunner().a_getNestedListModel();
+      listModelRunner().b_getListModelWithUnknownProperty();
+      listModelRunner().c_getListModelWithNonCollectionProperty();
+      listModelRunner().d_getListModelWithWrongElementType();
+      listModelRunner().e_getListModelWithUnsupportedCollectionType();
+   }
+
+   @Test
+   public void general() throws Exception
+   {
+      generalRunner().a_modelsUpdateWhenBeanChanges();
+      generalRunner().b_modelsInitialisedWhenCreatedAfterBeanConfigured();
+      generalRunner().c_modelCommit();
+      generalRunner().d_allModelsUpdatedBeforeEventsFire();
+   }
+
+   @Test
+   public void descriptorsAreCreatedOnDemand() throws Exception
+   {
+      // the descriptors are created by the lookup rather than held in fields when the
+      // provider is constructed.
+      for (Field field : generatedClasses.loadClass(PACKAGE + ".TestProviderImpl").getDeclaredFields())
+      {
+         assertFalse(PropertyDescriptor.class.isAssignableFrom(field.getType()), field.toString());
+      }
+   }
+
+   @Test
+   public void nestedProviderUsesGeneratorNaming() throws Exception
+   {
+      new BeanModelProviderPropertyDescriptorTestRunner(createProvider("Holder_ProviderImpl"), new TestNgResultCallback())
+         .e_readNestedValue();
+   }
+
+   @Test
+   public void onlyAnnotatedProvidersWithABeanTypeAreGenerated() throws Exception
+   {
+      assertTrue(isGenerated("AnotherBeanProviderImpl"));
+      assertFalse(isGenerated("GenericProviderImpl"));
+      assertFalse(isGenerated("UnannotatedProviderImpl"));
+   }
+
+   private boolean isGenerated(String className)
+   {
+      try
+      {
+         generatedClasses.loadClass(PACKAGE + "." + className);
+         return true;
+      }
+      catch (ClassNotFoundException e)
+      {
+         return false;
+      }
+   }
+
+   @Test
+   public void recursiveBeanWithoutDepthLimitIsAnError() throws Exception
+   {
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+      compile(diagnostics, source("RecursiveProvider", RECURSIVE_PROVIDER));
+
+      boolean reported = false;
+      for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+      {
+         reported |= diagnostic.getKind() == Diagnostic.Kind.ERROR
+                     && diagnostic.getMessage(null).contains("Found recursive path");
+      }
+      assertTrue(reported, diagnostics.getDiagnostics().toString());
+   }
+
+   private File compile(DiagnosticCollector<JavaFileObject> diagnostics, JavaFileObject... sources) throws Exception
+   {
+      File output = File.createTempFile("generatedProviders", "");
+      assertTrue(output.delete());
+      assertTrue(output.mkdirs());
+      outputDirectories.add(output);
+
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      assertFalse(compiler == null, "the tests must be run with a JDK");
+
+      StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+      List<String> options = new ArrayList<String>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                                                                 "-d", output.getPath(),
+                                                                 "-s", output.getPath()));
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, Arrays.asList(sources));
+      task.setProcessors(Arrays.asList(new BeanModelProviderProcessor()));
+      task.call();
+      fileManager.close();
+      return output;
+   }
+
+   private JavaFileObject source(String className, final String source)
+   {
+      return new SimpleJavaFileObject(URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + className + ".java"),
+                                      JavaFileObject.Kind.SOURCE)
+      {
+         @Override
+         public CharSequence getCharContent(boolean ignoreEncodingErrors)
+         {
+            return source;
+         }
+      };
+   }
+}
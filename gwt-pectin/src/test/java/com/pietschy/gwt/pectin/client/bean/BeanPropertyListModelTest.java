@@ -20,6 +20,10 @@ package com.pietschy.gwt.pectin.client.bean;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.pietschy.gwt.pectin.client.bean.data.TestBean;
+import com.pietschy.gwt.pectin.client.list.ArrayListModel;
+import com.pietschy.gwt.pectin.client.list.ListModelChangedEvent;
+import com.pietschy.gwt.pectin.client.list.ListModelChangedHandler;
+import com.pietschy.gwt.pectin.client.list.ListMutation;
 import com.pietschy.gwt.pectin.client.value.ValueHolder;
 import com.pietschy.gwt.pectin.reflect.ComputedPath;
 import org.mockito.ArgumentMatcher;
@@ -30,6 +34,7 @@ import org.testng.annotations.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.*;
@@ -319,6 +324,82 @@ public class BeanPropertyListModelTest
                                                argThat(new ThatMatchesList(listTwo)));
    }
 
+   @Test
+   public void dirtyTracksIndividualEdits()
+   {
+      when(propertyDescriptor.isMutable()).thenReturn(true);
+      when(propertyDescriptor.readProperty(sourceBean)).thenReturn(listTwo);
+      model.readFromSource();
+
+      model.set(1, "xxx");
+      assertTrue(model.dirty().getValue());
+      model.set(1, "jkl");
+      assertFalse(model.dirty().getValue());
+
+      model.add(1, "xxx");
+      assertTrue(model.dirty().getValue());
+      model.removeAt(1);
+      assertFalse(model.dirty().getValue());
+
+      model.move(0, 2);
+      assertTrue(model.dirty().getValue());
+      model.move(2, 0);
+      assertFalse(model.dirty().getValue());
+   }
+
+   @Test
+   public void checkpointIsNotAffectedByLaterEdits()
+   {
+      when(propertyDescriptor.isMutable()).thenReturn(true);
+      when(propertyDescriptor.readProperty(sourceBean)).thenReturn(listTwo);
+      model.readFromSource();
+
+      model.set(0, "xxx");
+      model.add("yyy");
+      model.removeAt(1);
+      model.revert();
+
+      assertEquals(model.asUnmodifiableList(), listTwo);
+      assertFalse(model.dirty().getValue());
+   }
+
+   @Test
+   public void dirtyMatchesEqualityForRandomEdits()
+   {
+      when(propertyDescriptor.isMutable()).thenReturn(true);
+      Random random = new Random(17);
+
+      for (int run = 0; run < 100; run++)
+      {
+         model.setElements(Arrays.asList("a", "b", "c", "a"));
+         model.checkpoint();
+         List<String> checkpoint = new ArrayList<String>(model.asUnmodifiableList());
+
+         for (int i = 0; i < 8; i++)
+         {
+            String element = Character.toString((char) ('a' + random.nextInt(3)));
+            int size = model.size();
+            switch (random.nextInt(size == 0 ? 1 : 4))
+            {
+               case 0:
+                  model.add(random.nextInt(size + 1), element);
+                  break;
+               case 1:
+                  model.removeAt(random.nextInt(size));
+                  break;
+               case 2:
+                  model.set(random.nextInt(size), element);
+                  break;
+               case 3:
+                  model.move(random.nextInt(size), random.nextInt(size));
+                  break;
+            }
+
+            assertEquals(model.dirty().getValue().booleanValue(), !model.asUnmodifiableList().equals(checkpoint));
+         }
+      }
+   }
+
    @Test
    public void dirtyChecksCollectionOrder()
    {
@@ -369,6 +450,34 @@ public class BeanPropertyListModelTest
    }
 
 
+   @Test
+   public void autoCommitWritesOncePerMutation()
+   {
+      autoCommit.setValue(true);
+
+      when(propertyDescriptor.isMutable()).thenReturn(true);
+      when(propertyDescriptor.readProperty(sourceBean)).thenReturn(listOne);
+      model.readFromSource();
+
+      ListModelChangedHandler<String> listHandler = mock(ListModelChangedHandler.class);
+      model.addListModelChangedHandler(listHandler);
+
+      model.mutate(new ListMutation<String>()
+      {
+         public void execute(ArrayListModel<String> list)
+         {
+            list.addAll(listTwo);
+            list.remove("abc");
+            list.set(0, "xyz");
+         }
+      });
+
+      verify(listHandler, times(1)).onListDataChanged(isA(ListModelChangedEvent.class));
+      verify(propertyDescriptor, times(1)).writeProperty(Matchers.<Object>any(), Matchers.<Object>any());
+      verify(propertyDescriptor).writeProperty(isA(TestBean.class),
+                                               argThat(new ThatMatchesList(Arrays.asList("xyz", "ghi", "jkl", "mno"))));
+   }
+
    @Test
    public void readFromSourceDoesNotWriteToBeanWithAutoCommit()
    {
@@ -79,6 +79,22 @@ public class BeanPropertyValueModelTest
       assertTrue(model.isMutable());
    }
 
+   @Test
+   public void mutableModelOnlyFiresWhenItChanges()
+   {
+      when(propertyDescriptor.isMutable()).thenReturn(true);
+      source.setValue(new TestBean());
+      ValueChangeHandler<Boolean> handler = mock(ValueChangeHandler.class);
+      model.mutable().addValueChangeHandler(handler);
+
+      // a new non-null bean leaves the property mutable.
+      source.setValue(new TestBean());
+      verify(handler, never()).onValueChange(Matchers.<ValueChangeEvent<Boolean>>any());
+
+      source.setValue(null);
+      verify(handler, times(1)).onValueChange(Matchers.<ValueChangeEvent<Boolean>>any());
+   }
+
    @Test
    public void immutableWhenPropertyIsReadOnly()
    {
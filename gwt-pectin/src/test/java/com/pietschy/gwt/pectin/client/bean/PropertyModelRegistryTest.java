@@ -2,8 +2,10 @@ package com.pietschy.gwt.pectin.client.bean;
 
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.value.Batch;
 import com.pietschy.gwt.pectin.client.value.ValueHolder;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
@@ -12,6 +14,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.*;
 
@@ -142,5 +146,49 @@ public class PropertyModelRegistryTest
 
    }
 
+   @Test
+   public void readAllFromSourceReadsValueModelsBeforeListModels()
+   {
+      registry.add(stringValueKey, stringValue);
+      registry.add(stringListKey, stringList);
+      registry.add(objectValueKey, objectValue);
+
+      Runnable notifier = Mockito.mock(Runnable.class);
+      registry.readAllFromSource(notifier);
+
+      InOrder order = Mockito.inOrder(stringValue, objectValue, stringList, notifier);
+      order.verify(stringValue).readAheadFromSource();
+      order.verify(objectValue).readAheadFromSource();
+      order.verify(stringList).readAheadFromSource();
+      order.verify(notifier).run();
+      order.verify(stringValue).clearReadAhead();
+      order.verify(objectValue).clearReadAhead();
+      order.verify(stringList).clearReadAhead();
+   }
+
+   @Test
+   public void readAheadsAreLeftForEventsDeferredByAnOuterBatch()
+   {
+      final PropertyModelRegistry registry = new PropertyModelRegistry();
+      BeanPropertyValueModel<String> value = createValueMock(String.class);
+      BeanPropertyListModel<String> list = createListMock(String.class);
+      registry.add(stringValueKey, value);
+      registry.add(stringListKey, list);
+
+      final Runnable notifier = Mockito.mock(Runnable.class);
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            registry.readAllFromSource(notifier);
+         }
+      });
+
+      verify(value).readAheadFromSource();
+      verify(list).readAheadFromSource();
+      verify(value, never()).clearReadAhead();
+      verify(list, never()).clearReadAhead();
+   }
+
 
 }
\ No newline at end of file
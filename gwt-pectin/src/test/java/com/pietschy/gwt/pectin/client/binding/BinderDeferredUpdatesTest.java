@@ -0,0 +1,134 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.binding;
+
+import com.google.gwt.user.client.ui.HasText;
+import com.pietschy.gwt.pectin.client.list.ArrayListModel;
+import com.pietschy.gwt.pectin.client.util.FakeTaskScheduler;
+import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests binders in deferred update mode.
+ */
+public class BinderDeferredUpdatesTest
+{
+   private FakeTaskScheduler scheduler;
+   private BindingUpdateQueue queue;
+   private Binder binder;
+   private ValueHolder<String> model;
+   private HasText hasText;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      scheduler = new FakeTaskScheduler();
+      queue = new BindingUpdateQueue(scheduler);
+      binder = new Binder();
+      binder.deferUpdates(queue);
+      model = new ValueHolder<String>("a");
+      hasText = mock(HasText.class);
+   }
+
+   @Test
+   public void initialValueIsWrittenImmediately()
+   {
+      binder.bind(model).toTextOf(hasText);
+
+      verify(hasText).setText("a");
+      assertFalse(queue.hasPendingUpdates());
+   }
+
+   @Test
+   public void changesAreCoalescedUntilTheEndOfTheEvent()
+   {
+      binder.bind(model).toTextOf(hasText);
+
+      model.setValue("b");
+      model.setValue("c");
+      model.setValue("d");
+
+      verify(hasText, never()).setText("d");
+      assertTrue(queue.hasPendingUpdates());
+
+      scheduler.runDueTasks();
+
+      verify(hasText, times(1)).setText("d");
+      verify(hasText, never()).setText("b");
+      verify(hasText, never()).setText("c");
+      assertFalse(queue.hasPendingUpdates());
+   }
+
+   @Test
+   public void listBindingsAreDeferred()
+   {
+      ArrayListModel<String> list = new ArrayListModel<String>();
+      binder.bind(list).toTextOf(hasText);
+      reset(hasText);
+
+      list.add("a");
+      list.add("b");
+      verify(hasText, never()).setText(anyString());
+
+      scheduler.runDueTasks();
+      verify(hasText, times(1)).setText(anyString());
+   }
+
+   @Test
+   public void flushUpdatesImmediately()
+   {
+      binder.bind(model).toTextOf(hasText);
+
+      model.setValue("b");
+      queue.flush();
+
+      verify(hasText).setText("b");
+      scheduler.runDueTasks();
+      verify(hasText, times(1)).setText("b");
+   }
+
+   @Test
+   public void disposedBindingsAreNotUpdated()
+   {
+      binder.bind(model).toTextOf(hasText);
+
+      model.setValue("b");
+      binder.dispose();
+      scheduler.runDueTasks();
+
+      verify(hasText, never()).setText(eq("b"));
+   }
+
+   @Test
+   public void immediateModeIsUnchanged()
+   {
+      Binder immediateBinder = new Binder();
+      immediateBinder.bind(model).toTextOf(hasText);
+
+      model.setValue("b");
+
+      verify(hasText).setText("b");
+      assertFalse(queue.hasPendingUpdates());
+   }
+}
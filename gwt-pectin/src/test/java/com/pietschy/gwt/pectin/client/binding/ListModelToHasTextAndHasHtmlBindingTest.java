@@ -2,12 +2,20 @@ package com.pietschy.gwt.pectin.client.binding;
 
 import com.google.gwt.user.client.ui.HasHTML;
 import com.google.gwt.user.client.ui.HasText;
+import com.pietschy.gwt.pectin.client.command.AsyncCommandCallback;
+import com.pietschy.gwt.pectin.client.form.FormModel;
+import com.pietschy.gwt.pectin.client.form.ListFieldModel;
 import com.pietschy.gwt.pectin.client.function.Join;
 import com.pietschy.gwt.pectin.client.list.ArrayListModel;
+import com.pietschy.gwt.pectin.client.list.PageLoader;
+import com.pietschy.gwt.pectin.client.list.PagedListModel;
+import org.mockito.ArgumentCaptor;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -52,6 +60,60 @@ public class ListModelToHasTextAndHasHtmlBindingTest
 
    }
 
+   @Test
+   @SuppressWarnings("unchecked")
+   public void lazyModelIsRequestedAgainWhenSized()
+   {
+      Binder binder = new Binder();
+      PageLoader<String, String> loader = mock(PageLoader.class);
+      PagedListModel<String, String> model = new PagedListModel<String, String>(loader, 10, 1);
+      HasText hasText = mock(HasText.class);
+
+      binder.bind(model).toTextOf(hasText);
+      verify(loader, never()).loadPage(anyInt(), anyInt(), any(AsyncCommandCallback.class));
+
+      // the size arrives later, e.g. from a count query.
+      model.setTotalSize(3);
+
+      ArgumentCaptor<AsyncCommandCallback> callback = ArgumentCaptor.forClass(AsyncCommandCallback.class);
+      verify(loader, times(1)).loadPage(eq(0), eq(3), callback.capture());
+
+      callback.getValue().publishSuccess(Arrays.asList("a", "b", "c"));
+      verify(hasText, times(1)).setText(eq("a, b, c"));
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void boundLazyModelOnlyLoadsTheFirstPage()
+   {
+      Binder binder = new Binder();
+      PageLoader<String, String> loader = mock(PageLoader.class);
+      PagedListModel<String, String> model = new PagedListModel<String, String>(loader, 10, 2);
+      model.setTotalSize(100000);
+
+      binder.bind(model).toTextOf(mock(HasText.class));
+      model.invalidate();
+
+      // once for the initial update and again after the refresh, but never beyond the first page.
+      verify(loader, times(2)).loadPage(eq(0), eq(10), any(AsyncCommandCallback.class));
+      verify(loader, times(2)).loadPage(anyInt(), anyInt(), any(AsyncCommandCallback.class));
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void listFieldsPassRequestsToTheirLazySource()
+   {
+      Binder binder = new Binder();
+      PageLoader<String, String> loader = mock(PageLoader.class);
+      PagedListModel<String, String> model = new PagedListModel<String, String>(loader, 10, 2);
+      model.setTotalSize(100);
+      ListFieldModel<String> field = new FormModel().listOfType(String.class).boundTo(model);
+
+      binder.bind(field).toTextOf(mock(HasText.class));
+
+      verify(loader, times(1)).loadPage(eq(0), eq(10), any(AsyncCommandCallback.class));
+   }
+
    @Test
    public void toHtmlBindingWorks()
    {
@@ -42,4 +42,21 @@ public class MutableListModelToMutableListModelBindingTest
       assertEquals(b.asUnmodifiableList(), Arrays.asList("e", "f"));
 
    }
-}
\ No newline at end of file
+
+   @Test
+   public void indexedChangesAreAppliedToTheTarget()
+   {
+      Binder binder = new Binder();
+      ArrayListModel<String> a = new ArrayListModel<String>("a", "b", "c");
+      ArrayListModel<String> b = new ArrayListModel<String>();
+
+      binder.bind(a).to(b);
+
+      a.add(1, "x");
+      a.set(0, "z");
+      a.move(3, 0);
+      a.remove("b");
+      assertEquals(b.asUnmodifiableList(), Arrays.asList("c", "z", "x"));
+      assertEquals(a.asUnmodifiableList(), Arrays.asList("c", "z", "x"));
+   }
+}
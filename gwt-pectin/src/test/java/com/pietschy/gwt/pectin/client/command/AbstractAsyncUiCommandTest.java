@@ -1,5 +1,7 @@
 package com.pietschy.gwt.pectin.client.command;
 
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import org.mockito.Matchers;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
@@ -66,7 +68,25 @@ public class AbstractAsyncUiCommandTest
       verify(events, times(1)).onFinish();
    }
 
+   @Test
+   public void activeOnlyFiresWhenItChanges()
+   {
+      AbstractAsyncUiCommand<Void, Void> test = new AbstractAsyncUiCommand<Void, Void>()
+      {
+         @Override
+         protected void performAsyncOperation(AsyncCommandCallback<Void, Void> callback)
+         {
+         }
+      };
 
+      ValueChangeHandler<Boolean> handler = mock(ValueChangeHandler.class);
+      test.active().addValueChangeHandler(handler);
 
+      test.setActive(false);
+      verify(handler, never()).onValueChange(Matchers.any(ValueChangeEvent.class));
 
+      test.setActive(true);
+      test.setActive(true);
+      verify(handler, times(1)).onValueChange(Matchers.any(ValueChangeEvent.class));
+   }
 }
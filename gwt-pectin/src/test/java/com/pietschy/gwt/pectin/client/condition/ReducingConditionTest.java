@@ -0,0 +1,128 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.condition;
+
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.value.ReducingValueModel;
+import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import com.pietschy.gwt.pectin.client.value.ValueModel;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Checks the incremental reductions used by ReducingCondition stay in step with their sources.
+ */
+public class ReducingConditionTest
+{
+   private ValueHolder<Boolean> a;
+   private ValueHolder<Boolean> b;
+   private ValueHolder<Boolean> c;
+   private List<ValueModel<Boolean>> sources;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      a = new ValueHolder<Boolean>(false);
+      b = new ValueHolder<Boolean>(false);
+      c = new ValueHolder<Boolean>(null);
+      sources = Arrays.<ValueModel<Boolean>>asList(a, b, c);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void andTracksChanges()
+   {
+      ReducingCondition condition = new ReducingCondition(new AndFunction(), sources);
+      condition.addValueChangeHandler(mock(ValueChangeHandler.class));
+      assertEquals(condition.getValue(), Boolean.FALSE);
+
+      a.setValue(true);
+      b.setValue(true);
+      assertEquals(condition.getValue(), Boolean.FALSE);
+
+      c.setValue(true);
+      assertEquals(condition.getValue(), Boolean.TRUE);
+
+      c.setValue(null);
+      assertEquals(condition.getValue(), Boolean.FALSE);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void orTracksChanges()
+   {
+      ReducingCondition condition = new ReducingCondition(new OrFunction(), sources);
+      condition.addValueChangeHandler(mock(ValueChangeHandler.class));
+      assertEquals(condition.getValue(), Boolean.FALSE);
+
+      c.setValue(true);
+      assertEquals(condition.getValue(), Boolean.TRUE);
+
+      // firing the same value again mustn't be counted twice.
+      c.setValue(true);
+      c.setValue(false);
+      assertEquals(condition.getValue(), Boolean.FALSE);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void countTracksAddedSourcesAndResubscription()
+   {
+      ReducingValueModel<Integer, Boolean> count = new ReducingValueModel<Integer, Boolean>(new CountTrueFunction(), sources);
+      HandlerRegistration registration = count.addValueChangeHandler(mock(ValueChangeHandler.class));
+
+      a.setValue(true);
+      assertEquals(count.getValue(), (Integer) 1);
+
+      count.addSourceModel(new ValueHolder<Boolean>(true));
+      assertEquals(count.getValue(), (Integer) 2);
+
+      // changes made while we're not listening must be picked up when we start again.
+      registration.removeHandler();
+      b.setValue(true);
+      c.setValue(true);
+      assertEquals(count.getValue(), (Integer) 4);
+
+      count.addValueChangeHandler(mock(ValueChangeHandler.class));
+      a.setValue(false);
+      assertEquals(count.getValue(), (Integer) 3);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void changingFunctionRestartsAccumulation()
+   {
+      ReducingValueModel<Boolean, Boolean> condition = new ReducingValueModel<Boolean, Boolean>(new OrFunction(), sources);
+      condition.addValueChangeHandler(mock(ValueChangeHandler.class));
+      a.setValue(true);
+      assertEquals(condition.getValue(), Boolean.TRUE);
+
+      condition.setFunction(new AndFunction());
+      assertEquals(condition.getValue(), Boolean.FALSE);
+
+      b.setValue(true);
+      c.setValue(true);
+      assertEquals(condition.getValue(), Boolean.TRUE);
+   }
+}
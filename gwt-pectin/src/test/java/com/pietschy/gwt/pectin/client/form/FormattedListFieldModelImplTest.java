@@ -67,6 +67,23 @@ public class FormattedListFieldModelImplTest
       verify(textHandler).onListDataChanged(isListChangeEventWithValues("42", "0"));
    }
 
+   @Test
+   public void indexedSourceChangesOnlyFormatTheChangedValues()
+   {
+      field.setFormat(new IntegerFormat());
+      source.setElements(Arrays.asList(1, 2, 3));
+      // the source is in sync with the text so switching formats shouldn't be noticed.
+      when(mockFormat.format(anyInt())).thenReturn("1", "2", "3");
+      field.setFormat(mockFormat);
+      reset(mockFormat);
+      when(mockFormat.format(42)).thenReturn("42");
+
+      source.set(1, 42);
+
+      assertContentEquals(field.getTextModel().asUnmodifiableList(), "1", "42", "3");
+      verify(mockFormat, times(1)).format(anyInt());
+   }
+
    @Test
    public void sourceValueChangesTriggerTextModelUpdates()
    {
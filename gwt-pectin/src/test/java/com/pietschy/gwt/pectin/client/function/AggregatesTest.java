@@ -0,0 +1,133 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.function;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Aggregates Tester.
+ */
+public class AggregatesTest
+{
+   private static final Function<Boolean, Integer> IS_EVEN = new Function<Boolean, Integer>()
+   {
+      public Boolean compute(Integer source)
+      {
+         return source % 2 == 0;
+      }
+   };
+
+   @Test
+   public void compute()
+   {
+      List<Integer> values = Arrays.asList(3, 1, 4, 1, 5);
+
+      assertEquals(Aggregates.count().compute(values), (Integer) 5);
+      assertEquals(Aggregates.sumOfIntegers().compute(values), (Integer) 14);
+      assertEquals(Aggregates.sumOfLongs().compute(values), (Long) 14L);
+      assertEquals(Aggregates.sumOfDoubles().compute(values), 14.0);
+      assertEquals(Aggregates.average().compute(values), 2.8);
+      assertEquals(Aggregates.<Integer>min().compute(values), (Integer) 1);
+      assertEquals(Aggregates.<Integer>max().compute(values), (Integer) 5);
+
+      Map<Boolean, Integer> expected = new HashMap<Boolean, Integer>();
+      expected.put(true, 1);
+      expected.put(false, 4);
+      assertEquals(Aggregates.countBy(IS_EVEN).compute(values), expected);
+   }
+
+   @Test
+   public void emptyAndNullValues()
+   {
+      List<Integer> values = Arrays.asList(null, null);
+
+      assertEquals(Aggregates.count().compute(values), (Integer) 2);
+      assertEquals(Aggregates.sumOfIntegers().compute(values), (Integer) 0);
+      assertNull(Aggregates.average().compute(values));
+      assertNull(Aggregates.<Integer>min().compute(values));
+      assertNull(Aggregates.<Integer>max().compute(new ArrayList<Integer>()));
+   }
+
+   @Test
+   public void accumulatorsMatchCompute()
+   {
+      checkAccumulatorMatchesCompute(Aggregates.sumOfIntegers());
+      checkAccumulatorMatchesCompute(Aggregates.<Integer>min());
+      checkAccumulatorMatchesCompute(Aggregates.<Integer>max());
+      checkAccumulatorMatchesCompute(Aggregates.countBy(IS_EVEN));
+      checkAccumulatorMatchesCompute(Aggregates.groupBy(IS_EVEN, Aggregates.<Integer>max()));
+   }
+
+   @Test
+   public void sumOfDoublesRecoversFromNonFiniteValues()
+   {
+      IncrementalReduce.Accumulator<Double, Number> sum = Aggregates.sumOfDoubles().createAccumulator();
+      sum.add(1.5);
+      sum.add(Double.NaN);
+      sum.add(Double.POSITIVE_INFINITY);
+      assertEquals(sum.getResult(), Double.NaN);
+
+      sum.remove(Double.NaN);
+      assertEquals(sum.getResult(), Double.POSITIVE_INFINITY);
+      sum.add(Double.NEGATIVE_INFINITY);
+      assertEquals(sum.getResult(), Double.NaN);
+
+      sum.remove(Double.POSITIVE_INFINITY);
+      assertEquals(sum.getResult(), Double.NEGATIVE_INFINITY);
+      sum.remove(Double.NEGATIVE_INFINITY);
+      assertEquals(sum.getResult(), 1.5);
+
+      IncrementalReduce.Accumulator<Double, Number> average = Aggregates.average().createAccumulator();
+      average.add(2);
+      average.add(Double.NaN);
+      average.remove(Double.NaN);
+      assertEquals(average.getResult(), 2.0);
+   }
+
+   private <T> void checkAccumulatorMatchesCompute(IncrementalReduce<T, ? super Integer> reduce)
+   {
+      Random random = new Random(18);
+      List<Integer> values = new ArrayList<Integer>();
+      IncrementalReduce.Accumulator<T, ? super Integer> accumulator = reduce.createAccumulator();
+
+      for (int i = 0; i < 500; i++)
+      {
+         if (values.isEmpty() || random.nextInt(3) > 0)
+         {
+            Integer value = random.nextInt(20);
+            values.add(value);
+            accumulator.add(value);
+         }
+         else
+         {
+            accumulator.remove(values.remove(random.nextInt(values.size())));
+         }
+
+         assertEquals(accumulator.getResult(), reduce.compute(values));
+      }
+   }
+}
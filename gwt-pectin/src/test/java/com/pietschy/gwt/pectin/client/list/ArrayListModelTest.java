@@ -0,0 +1,230 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * ArrayListModel Tester.
+ */
+public class ArrayListModelTest
+{
+   private ArrayListModel<String> list;
+   private List<ListModelChangedEvent<String>> events;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      list = new ArrayListModel<String>("a", "b", "c");
+      events = new ArrayList<ListModelChangedEvent<String>>();
+      list.addListModelChangedHandler(new ListModelChangedHandler<String>()
+      {
+         public void onListDataChanged(ListModelChangedEvent<String> event)
+         {
+            events.add(event);
+         }
+      });
+   }
+
+   @Test
+   public void addDescribesInsertedRange()
+   {
+      list.add("d");
+      list.add(1, "x");
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("a", "x", "b", "c", "d"));
+      assertEquals(events.size(), 2);
+      assertChange(events.get(0), ListChange.Type.INSERTED, 3, 1);
+      assertEquals(events.get(0).getChanges().get(0).getNewElements(), Arrays.asList("d"));
+      assertChange(events.get(1), ListChange.Type.INSERTED, 1, 1);
+      assertEquals(events.get(1).getChanges().get(0).getNewElements(), Arrays.asList("x"));
+   }
+
+   @Test
+   public void removeDescribesRemovedRange()
+   {
+      list.remove("b");
+
+      assertEquals(events.size(), 1);
+      assertChange(events.get(0), ListChange.Type.REMOVED, 1, 1);
+      assertEquals(events.get(0).getChanges().get(0).getOldElements(), Arrays.asList("b"));
+   }
+
+   @Test
+   public void removingMissingElementDoesntFire()
+   {
+      list.remove("z");
+      assertEquals(events.size(), 0);
+   }
+
+   @Test
+   public void setDescribesUpdatedRange()
+   {
+      assertEquals(list.set(2, "z"), "c");
+
+      assertEquals(events.size(), 1);
+      assertChange(events.get(0), ListChange.Type.UPDATED, 2, 1);
+      assertEquals(events.get(0).getChanges().get(0).getOldElements(), Arrays.asList("c"));
+      assertEquals(events.get(0).getChanges().get(0).getNewElements(), Arrays.asList("z"));
+   }
+
+   @Test
+   public void moveDescribesMove()
+   {
+      list.move(0, 2);
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("b", "c", "a"));
+      assertEquals(events.size(), 1);
+      assertChange(events.get(0), ListChange.Type.MOVED, 0, 1);
+      assertEquals(events.get(0).getChanges().get(0).getToIndex(), 2);
+   }
+
+   @Test
+   public void clearDescribesRemovalOfEverything()
+   {
+      list.clear();
+      list.clear();
+
+      assertEquals(events.size(), 1);
+      assertChange(events.get(0), ListChange.Type.REMOVED, 0, 3);
+      assertEquals(events.get(0).getChanges().get(0).getOldElements(), Arrays.asList("a", "b", "c"));
+   }
+
+   @Test
+   public void setElementsIsARefresh()
+   {
+      list.setElements(Collections.singletonList("z"));
+
+      assertEquals(events.size(), 1);
+      assertTrue(events.get(0).isRefresh());
+   }
+
+   @Test
+   public void addAllFiresOnce()
+   {
+      list.addAll(Arrays.asList("d", "e"));
+      list.addAll(Collections.<String>emptyList());
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("a", "b", "c", "d", "e"));
+      assertEquals(events.size(), 1);
+      assertChange(events.get(0), ListChange.Type.INSERTED, 3, 2);
+   }
+
+   @Test
+   public void insertFiresOnce()
+   {
+      list.insert(1, Arrays.asList("x", "y"));
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("a", "x", "y", "b", "c"));
+      assertEquals(events.size(), 1);
+      assertChange(events.get(0), ListChange.Type.INSERTED, 1, 2);
+   }
+
+   @Test
+   public void removeAllDescribesEachRemovedRun()
+   {
+      list.addAll(Arrays.asList("d", "e"));
+      events.clear();
+
+      list.removeAll(Arrays.asList("b", "c", "e"));
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("a", "d"));
+      assertEquals(events.size(), 1);
+      List<ListChange<String>> changes = events.get(0).getChanges();
+      assertEquals(changes.size(), 2);
+      assertEquals(changes.get(0).getIndex(), 1);
+      assertEquals(changes.get(0).getOldElements(), Arrays.asList("b", "c"));
+      assertEquals(changes.get(1).getIndex(), 2);
+      assertEquals(changes.get(1).getOldElements(), Arrays.asList("e"));
+   }
+
+   @Test
+   public void retainAllFiresOnce()
+   {
+      list.retainAll(Arrays.asList("b"));
+      list.retainAll(Arrays.asList("b"));
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("b"));
+      assertEquals(events.size(), 1);
+      assertEquals(events.get(0).getChanges().size(), 2);
+   }
+
+   @Test
+   public void mutateFiresOnceWithAllTheChanges()
+   {
+      list.mutate(new ListMutation<String>()
+      {
+         public void execute(ArrayListModel<String> list)
+         {
+            list.add("d");
+            list.remove("a");
+            list.set(0, "z");
+         }
+      });
+
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("z", "c", "d"));
+      assertEquals(events.size(), 1);
+      List<ListChange<String>> changes = events.get(0).getChanges();
+      assertEquals(changes.size(), 3);
+      assertEquals(changes.get(0).getType(), ListChange.Type.INSERTED);
+      assertEquals(changes.get(1).getType(), ListChange.Type.REMOVED);
+      assertEquals(changes.get(2).getType(), ListChange.Type.UPDATED);
+   }
+
+   @Test
+   public void mutateWithSetElementsIsARefresh()
+   {
+      list.mutate(new ListMutation<String>()
+      {
+         public void execute(ArrayListModel<String> list)
+         {
+            list.add("d");
+            list.setElements(Arrays.asList("x"));
+         }
+      });
+
+      assertEquals(events.size(), 1);
+      assertTrue(events.get(0).isRefresh());
+   }
+
+   @Test(expectedExceptions = UnsupportedOperationException.class)
+   public void iteratorCantModifyTheList()
+   {
+      Iterator<String> iterator = list.iterator();
+      iterator.next();
+      iterator.remove();
+   }
+
+   private void assertChange(ListModelChangedEvent<String> event, ListChange.Type type, int index, int count)
+   {
+      assertEquals(event.getChanges().size(), 1);
+      ListChange<String> change = event.getChanges().get(0);
+      assertEquals(change.getType(), type);
+      assertEquals(change.getIndex(), index);
+      assertEquals(change.getCount(), count);
+   }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * IndexedListModel Tester.
+ */
+public class IndexedListModelTest
+{
+   @Test
+   public void initialValuesAreIndexed()
+   {
+      IndexedListModel<String> list = new IndexedListModel<String>("a", "b", "a");
+
+      assertTrue(list.contains("a"));
+      assertFalse(list.contains("c"));
+      assertEquals(list.indexOf("a"), 0);
+      assertEquals(list.indexOf("b"), 1);
+      assertEquals(list.indexOf("c"), -1);
+      assertTrue(list.containsAll(Arrays.asList("a", "b")));
+      assertFalse(list.containsAll(Arrays.asList("a", "c")));
+   }
+
+   @Test
+   public void indexTracksMutations()
+   {
+      IndexedListModel<String> list = new IndexedListModel<String>();
+      list.add("a");
+      list.add("b");
+      assertEquals(list.indexOf("b"), 1);
+
+      list.add(0, "b");
+      assertEquals(list.indexOf("b"), 0);
+
+      list.remove("b");
+      assertEquals(list.indexOf("b"), 1);
+
+      list.clear();
+      assertFalse(list.contains("a"));
+      assertEquals(list.indexOf("a"), -1);
+   }
+
+   @Test
+   public void randomChangesMatchLinearSearch()
+   {
+      RandomListMutator mutator = new RandomListMutator(3);
+      IndexedListModel<String> list = new IndexedListModel<String>();
+      List<String> candidates = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "z");
+
+      for (int i = 0; i < 500; i++)
+      {
+         mutator.mutate(list);
+         if (i % 100 == 0)
+         {
+            list.setElements(new ArrayList<String>(list.asUnmodifiableList()));
+         }
+
+         for (String candidate : candidates)
+         {
+            List<String> contents = list.asUnmodifiableList();
+            assertEquals(list.contains(candidate), contents.contains(candidate), candidate);
+            assertEquals(list.indexOf(candidate), contents.indexOf(candidate), candidate);
+         }
+      }
+   }
+
+   @Test
+   public void sparseLookupsMatchLinearSearch()
+   {
+      // several changes (some in a single event) between lookups of a single element so
+      // the positions are only partly re-indexed.
+      final RandomListMutator mutator = new RandomListMutator(11);
+      IndexedListModel<String> list = new IndexedListModel<String>();
+      List<String> candidates = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "z");
+
+      for (int i = 0; i < 1000; i++)
+      {
+         mutator.mutate(list);
+         if (i % 3 == 0)
+         {
+            list.mutate(new ListMutation<String>()
+            {
+               public void execute(ArrayListModel<String> list)
+               {
+                  mutator.mutate(list);
+                  mutator.mutate(list);
+               }
+            });
+         }
+
+         String candidate = candidates.get(i % candidates.size());
+         assertEquals(list.indexOf(candidate), list.asUnmodifiableList().indexOf(candidate), candidate);
+      }
+   }
+}
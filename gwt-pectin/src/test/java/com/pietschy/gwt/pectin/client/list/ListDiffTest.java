@@ -0,0 +1,183 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.function.Function;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * ListDiff Tester.
+ */
+public class ListDiffTest
+{
+   private static final Function<Character, String> FIRST_LETTER = new Function<Character, String>()
+   {
+      public Character compute(String source)
+      {
+         return source.charAt(0);
+      }
+   };
+
+   @Test
+   public void insertIsReportedAsInsert()
+   {
+      List<ListChange<String>> changes = ListDiffs.<String>byEquality().diff(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "b", "c"));
+
+      assertEquals(changes.size(), 1);
+      assertEquals(changes.get(0).getType(), ListChange.Type.INSERTED);
+      assertEquals(changes.get(0).getIndex(), 1);
+      assertEquals(changes.get(0).getNewElements(), Arrays.asList("x"));
+   }
+
+   @Test
+   public void replacementIsReportedAsUpdate()
+   {
+      List<ListChange<String>> changes = ListDiffs.<String>byEquality().diff(Arrays.asList("a", "b", "c"), Arrays.asList("a", "x", "c"));
+
+      assertEquals(changes.size(), 1);
+      assertEquals(changes.get(0).getType(), ListChange.Type.UPDATED);
+      assertEquals(changes.get(0).getIndex(), 1);
+      assertEquals(changes.get(0).getOldElements(), Arrays.asList("b"));
+      assertEquals(changes.get(0).getNewElements(), Arrays.asList("x"));
+   }
+
+   @Test
+   public void keyedDiffReportsChangedElementsAsUpdates()
+   {
+      ListDiff<String> diff = ListDiffs.byKey(FIRST_LETTER);
+      List<ListChange<String>> changes = diff.diff(Arrays.asList("a1", "b1", "c1"), Arrays.asList("a1", "b2", "d1", "c1"));
+
+      assertEquals(changes.size(), 2);
+      assertEquals(changes.get(0).getType(), ListChange.Type.UPDATED);
+      assertEquals(changes.get(0).getIndex(), 1);
+      assertEquals(changes.get(0).getNewElements(), Arrays.asList("b2"));
+      assertEquals(changes.get(1).getType(), ListChange.Type.INSERTED);
+      assertEquals(changes.get(1).getIndex(), 2);
+      assertEquals(changes.get(1).getNewElements(), Arrays.asList("d1"));
+   }
+
+   @Test
+   public void tooManyEditsReturnsNull()
+   {
+      ListDiff<String> diff = ListDiffs.byKey(null, 2);
+
+      assertTrue(diff.diff(Arrays.asList("a", "b", "c"), Arrays.asList("b", "c", "d")) != null);
+      assertEquals(diff.diff(Arrays.asList("a", "b", "c"), Arrays.asList("c", "d", "e")), null);
+   }
+
+   @Test
+   public void setElementsFiresOnlyTheChanges()
+   {
+      ArrayListModel<String> list = new ArrayListModel<String>("a", "b", "c");
+      list.setElementDiff(ListDiffs.<String>byEquality());
+      EventRecorder recorder = new EventRecorder(list);
+
+      list.setElements(Arrays.asList("a", "b", "c"));
+      assertTrue(recorder.events.isEmpty());
+
+      list.setElements(Arrays.asList("a", "c"));
+      assertEquals(recorder.events.size(), 1);
+      ListModelChangedEvent<String> event = recorder.events.get(0);
+      assertFalse(event.isRefresh());
+      assertEquals(event.getChanges().size(), 1);
+      assertEquals(event.getChanges().get(0).getType(), ListChange.Type.REMOVED);
+      assertEquals(event.getChanges().get(0).getIndex(), 1);
+      assertEquals(list.asUnmodifiableList(), Arrays.asList("a", "c"));
+   }
+
+   @Test
+   public void setElementsWithoutDiffFiresRefresh()
+   {
+      ArrayListModel<String> list = new ArrayListModel<String>("a", "b", "c");
+      EventRecorder recorder = new EventRecorder(list);
+
+      list.setElements(Arrays.asList("a", "b", "c"));
+
+      assertEquals(recorder.events.size(), 1);
+      assertTrue(recorder.events.get(0).isRefresh());
+   }
+
+   @Test
+   public void randomChangesReplayCorrectly()
+   {
+      RandomListMutator mutator = new RandomListMutator(16);
+      for (int run = 0; run < 200; run++)
+      {
+         ArrayListModel<String> scratch = new ArrayListModel<String>();
+         for (int i = 0; i < 10; i++)
+         {
+            mutator.mutate(scratch);
+         }
+
+         ArrayListModel<String> list = new ArrayListModel<String>(scratch.asUnmodifiableList());
+         list.setElementDiff(mutator.nextBoolean() ? ListDiffs.<String>byEquality() : ListDiffs.byKey(FIRST_LETTER));
+         ReplayingListModel<String> replay = new ReplayingListModel<String>(list);
+         EventRecorder recorder = new EventRecorder(list);
+
+         for (int i = 0; i < 5; i++)
+         {
+            mutator.mutate(scratch);
+         }
+         list.setElements(scratch.asUnmodifiableList());
+
+         replay.assertMatches(scratch.asUnmodifiableList());
+         for (ListModelChangedEvent<String> event : recorder.events)
+         {
+            assertFalse(event.isRefresh());
+         }
+      }
+   }
+
+   @Test
+   public void indexedListStaysConsistent()
+   {
+      IndexedListModel<String> list = new IndexedListModel<String>("a", "b", "c", "d", "e");
+      list.setElementDiff(ListDiffs.<String>byEquality());
+
+      list.setElements(Arrays.asList("b", "x", "d", "y"));
+
+      assertFalse(list.contains("a"));
+      assertTrue(list.contains("y"));
+      assertEquals(list.indexOf("d"), 2);
+      assertEquals(list.indexOf("y"), 3);
+      assertEquals(list.indexOf("c"), -1);
+   }
+
+   private static class EventRecorder
+   implements ListModelChangedHandler<String>
+   {
+      private List<ListModelChangedEvent<String>> events = new ArrayList<ListModelChangedEvent<String>>();
+
+      private EventRecorder(ListModel<String> list)
+      {
+         list.addListModelChangedHandler(this);
+      }
+
+      public void onListDataChanged(ListModelChangedEvent<String> event)
+      {
+         events.add(event);
+      }
+   }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.function.Function;
+import com.pietschy.gwt.pectin.client.value.ValueHolder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests the derived list views created by {@link ListModels#from(ListModel)}.
+ */
+public class ListViewTest
+{
+   private ValueHolder<String> cutoff;
+
+   private Function<Boolean, String> beforeCutoff = new Function<Boolean, String>()
+   {
+      public Boolean compute(String source)
+      {
+         return source.compareTo(cutoff.getValue()) < 0;
+      }
+   };
+
+   private Function<String, String> toUpperCase = new Function<String, String>()
+   {
+      public String compute(String source)
+      {
+         return source.toUpperCase();
+      }
+   };
+
+   private Comparator<String> reverse = Collections.reverseOrder();
+
+   @BeforeMethod
+   public void setUp()
+   {
+      cutoff = new ValueHolder<String>("d");
+   }
+
+   @Test
+   public void pipelineUpdatesAsSourceChanges()
+   {
+      ArrayListModel<String> source = new ArrayListModel<String>("b", "e", "a", "c");
+      ListModel<String> view = ListModels.from(source)
+         .filter(beforeCutoff, cutoff)
+         .map(toUpperCase)
+         .sortedBy(reverse);
+
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("C", "B", "A"));
+
+      source.add("a");
+      source.remove("b");
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("C", "A", "A"));
+
+      cutoff.setValue("b");
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("A", "A"));
+   }
+
+   @Test
+   public void filterOnlyEvaluatesChangedElements()
+   {
+      ArrayListModel<String> source = new ArrayListModel<String>("a", "b", "c");
+      final List<String> evaluated = new ArrayList<String>();
+      FilteredListModel<String> view = ListModels.from(source).filter(new Function<Boolean, String>()
+      {
+         public Boolean compute(String source)
+         {
+            evaluated.add(source);
+            return true;
+         }
+      });
+      evaluated.clear();
+
+      source.add("d");
+      source.set(0, "z");
+
+      assertEquals(evaluated, Arrays.asList("d", "z"));
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("z", "b", "c", "d"));
+   }
+
+   @Test
+   public void sortedViewResortsWhenComparatorChanges()
+   {
+      ArrayListModel<String> source = new ArrayListModel<String>("b", "c", "a");
+      ValueHolder<Comparator<String>> comparator = new ValueHolder<Comparator<String>>();
+      SortedListModel<String> view = ListModels.from(source).sortedBy(comparator);
+
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("b", "c", "a"));
+      comparator.setValue(reverse);
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("c", "b", "a"));
+      comparator.setValue(null);
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("b", "c", "a"));
+   }
+
+   @Test
+   public void disposedViewStopsListening()
+   {
+      ArrayListModel<String> source = new ArrayListModel<String>("b", "e", "a");
+      FilteredListModel<String> view = ListModels.from(source).filter(beforeCutoff, cutoff);
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("b", "a"));
+
+      view.dispose();
+      source.add("c");
+      cutoff.setValue("b");
+
+      assertEquals(view.asUnmodifiableList(), Arrays.asList("b", "a"));
+   }
+
+   @Test
+   public void randomChangesMatchRecomputation()
+   {
+      RandomListMutator mutator = new RandomListMutator(7);
+      ArrayListModel<String> source = new ArrayListModel<String>();
+
+      FilteredListModel<String> filtered = ListModels.from(source).filter(beforeCutoff, cutoff);
+      MappedListModel<String, String> mapped = ListModels.from(source).map(toUpperCase);
+      SortedListModel<String> sorted = ListModels.from(source).sortedBy(reverse);
+      DistinctListModel<String> distinct = ListModels.from(source).distinct();
+
+      ReplayingListModel<String> filteredMirror = new ReplayingListModel<String>(filtered);
+      ReplayingListModel<String> mappedMirror = new ReplayingListModel<String>(mapped);
+      ReplayingListModel<String> sortedMirror = new ReplayingListModel<String>(sorted);
+      ReplayingListModel<String> distinctMirror = new ReplayingListModel<String>(distinct);
+
+      for (int i = 0; i < 500; i++)
+      {
+         mutator.mutate(source);
+         if (i % 50 == 0)
+         {
+            cutoff.setValue(mutator.nextBoolean() ? "c" : "f");
+         }
+
+         List<String> expectedFiltered = new ArrayList<String>();
+         List<String> expectedMapped = new ArrayList<String>();
+         for (String value : source)
+         {
+            if (beforeCutoff.compute(value))
+            {
+               expectedFiltered.add(value);
+            }
+            expectedMapped.add(toUpperCase.compute(value));
+         }
+         List<String> expectedSorted = new ArrayList<String>(source.asUnmodifiableList());
+         Collections.sort(expectedSorted, reverse);
+         List<String> expectedDistinct = new ArrayList<String>(new LinkedHashSet<String>(source.asUnmodifiableList()));
+
+         assertEquals(filtered.asUnmodifiableList(), expectedFiltered);
+         assertEquals(mapped.asUnmodifiableList(), expectedMapped);
+         assertEquals(sorted.asUnmodifiableList(), expectedSorted);
+         assertEquals(distinct.asUnmodifiableList(), expectedDistinct);
+
+         filteredMirror.assertMatches(expectedFiltered);
+         mappedMirror.assertMatches(expectedMapped);
+         sortedMirror.assertMatches(expectedSorted);
+         distinctMirror.assertMatches(expectedDistinct);
+      }
+   }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import com.pietschy.gwt.pectin.client.channel.Destination;
+import com.pietschy.gwt.pectin.client.command.AsyncCommandCallback;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * PagedListModel Tester.
+ */
+public class PagedListModelTest
+{
+   private RecordingLoader loader;
+   private PagedListModel<String, String> list;
+   private List<ListModelChangedEvent<String>> events;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      loader = new RecordingLoader();
+      list = new PagedListModel<String, String>(loader, 10, 2);
+      list.setTotalSize(35);
+      events = new ArrayList<ListModelChangedEvent<String>>();
+      list.addListModelChangedHandler(new ListModelChangedHandler<String>()
+      {
+         public void onListDataChanged(ListModelChangedEvent<String> event)
+         {
+            events.add(event);
+         }
+      });
+   }
+
+   @Test
+   public void onlyRequestedPagesAreLoaded()
+   {
+      list.requestRange(5, 10);
+
+      assertEquals(loader.requests, Arrays.asList("0+10", "10+10"));
+      assertTrue(list.loading().getValue());
+      assertEquals(list.size(), 35);
+      assertNull(list.get(5));
+      assertFalse(list.isLoaded(5));
+
+      // requesting again doesn't reload pending pages
+      list.requestRange(0, 20);
+      assertEquals(loader.requests.size(), 2);
+   }
+
+   @Test
+   public void arrivingPagesFireUpdatedRanges()
+   {
+      list.requestRange(30, 10);
+      loader.complete(0);
+
+      assertFalse(list.loading().getValue());
+      assertTrue(list.isLoaded(31));
+      assertEquals(list.get(31), "item-31");
+      assertEquals(events.size(), 1);
+      ListChange<String> change = events.get(0).getChanges().get(0);
+      assertEquals(change.getType(), ListChange.Type.UPDATED);
+      assertEquals(change.getIndex(), 30);
+      // the last page is short.
+      assertEquals(change.getCount(), 5);
+   }
+
+   @Test
+   public void leastRecentlyUsedPagesAreDiscarded()
+   {
+      list.requestRange(0, 1);
+      loader.complete(0);
+      list.requestRange(10, 1);
+      loader.complete(1);
+      // page zero becomes the most recently used.
+      list.requestRange(0, 1);
+      list.requestRange(20, 1);
+      loader.complete(2);
+
+      assertTrue(list.isLoaded(0));
+      assertFalse(list.isLoaded(10));
+      assertTrue(list.isLoaded(20));
+
+      ListModelChangedEvent<String> last = events.get(events.size() - 1);
+      assertEquals(last.getChanges().size(), 2);
+      ListChange<String> eviction = last.getChanges().get(1);
+      assertEquals(eviction.getIndex(), 10);
+      assertEquals(eviction.getOldElements().get(0), "item-10");
+      assertNull(eviction.getNewElements().get(0));
+   }
+
+   @Test
+   public void lateResultsAreIgnoredAfterInvalidate()
+   {
+      list.requestRange(0, 1);
+      list.invalidate();
+      loader.complete(0);
+
+      assertFalse(list.isLoaded(0));
+      assertFalse(list.loading().getValue());
+      assertTrue(events.get(0).isRefresh());
+      assertEquals(events.size(), 1);
+   }
+
+   @Test
+   public void errorsArePublished()
+   {
+      final List<String> errors = new ArrayList<String>();
+      list.getErrors().sendTo(new Destination<String>()
+      {
+         public void receive(String value)
+         {
+            errors.add(value);
+         }
+      });
+
+      list.requestRange(0, 1);
+      loader.callbacks.get(0).publishError("failed");
+
+      assertEquals(errors, Arrays.asList("failed"));
+      assertFalse(list.loading().getValue());
+      // the page can be requested again.
+      list.requestRange(0, 1);
+      assertEquals(loader.requests.size(), 2);
+   }
+
+   private static class RecordingLoader implements PageLoader<String, String>
+   {
+      private List<String> requests = new ArrayList<String>();
+      private List<Integer> offsets = new ArrayList<Integer>();
+      private List<AsyncCommandCallback<List<String>, String>> callbacks = new ArrayList<AsyncCommandCallback<List<String>, String>>();
+
+      public void loadPage(int offset, int count, AsyncCommandCallback<List<String>, String> callback)
+      {
+         requests.add(offset + "+" + count);
+         offsets.add(offset);
+         callbacks.add(callback);
+      }
+
+      public void complete(int request)
+      {
+         int offset = offsets.get(request);
+         int count = Integer.parseInt(requests.get(request).substring(requests.get(request).indexOf('+') + 1));
+         List<String> page = new ArrayList<String>();
+         for (int i = offset; i < offset + count; i++)
+         {
+            page.add("item-" + i);
+         }
+         callbacks.get(request).publishSuccess(page);
+      }
+   }
+}
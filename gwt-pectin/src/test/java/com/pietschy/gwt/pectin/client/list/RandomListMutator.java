@@ -0,0 +1,66 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Makes random changes to a list of single letter strings, used to exercise the
+ * incremental list models.
+ */
+class RandomListMutator
+{
+   private Random random;
+
+   RandomListMutator(long seed)
+   {
+      random = new Random(seed);
+   }
+
+   public boolean nextBoolean()
+   {
+      return random.nextBoolean();
+   }
+
+   public void mutate(ArrayListModel<String> list)
+   {
+      String element = Character.toString((char) ('a' + random.nextInt(8)));
+      int size = list.size();
+      switch (random.nextInt(size == 0 ? 1 : 6))
+      {
+         case 0:
+            list.add(random.nextInt(size + 1), element);
+            break;
+         case 1:
+            list.removeAt(random.nextInt(size));
+            break;
+         case 2:
+            list.set(random.nextInt(size), element);
+            break;
+         case 3:
+            list.move(random.nextInt(size), random.nextInt(size));
+            break;
+         case 4:
+            list.removeAll(Arrays.asList(element));
+            break;
+         case 5:
+            list.insert(random.nextInt(size + 1), Arrays.asList(element, element, "z"));
+            break;
+      }
+   }
+}
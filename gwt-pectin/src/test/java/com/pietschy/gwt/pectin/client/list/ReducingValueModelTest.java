@@ -17,8 +17,13 @@
 package com.pietschy.gwt.pectin.client.list;
 
 
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.function.Aggregates;
+import com.pietschy.gwt.pectin.client.function.Function;
+import com.pietschy.gwt.pectin.client.function.IncrementalReduce;
 import com.pietschy.gwt.pectin.client.function.Reduce;
+import com.pietschy.gwt.pectin.client.value.Batch;
 import com.pietschy.gwt.pectin.client.value.IsValueChangeEventWithValue;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -26,10 +31,12 @@ import org.testng.annotations.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
 /**
  * AbstractComputedValueModel Tester.
@@ -46,6 +53,14 @@ public class ReducingValueModelTest
    private Reduce<String, String> concat = new Concat();
    private Reduce<String, String> reverseConcat = new ConcatReverse();
 
+   private static final Function<Boolean, Integer> IS_EVEN = new Function<Boolean, Integer>()
+   {
+      public Boolean compute(Integer source)
+      {
+         return source % 2 == 0;
+      }
+   };
+
    @BeforeMethod
    public void setUp()
    {
@@ -192,6 +207,100 @@ public class ReducingValueModelTest
       verify(changeHandler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<String>("ab")));
    }
 
+   @Test
+   @SuppressWarnings("unchecked")
+   public void incrementalFunctionOnlySeesChanges()
+   {
+      ArrayListModel<Integer> numbers = new ArrayListModel<Integer>(1, 2, 3);
+      CountingSum sum = new CountingSum();
+      ReducingValueModel<Integer, Integer> total = new ReducingValueModel<Integer, Integer>(numbers, sum);
+      ValueChangeHandler<Integer> changeHandler = mock(ValueChangeHandler.class);
+      total.addValueChangeHandler(changeHandler);
+
+      numbers.add(4);
+      assertEquals(total.getValue(), (Integer) 10);
+      numbers.set(0, 11);
+      assertEquals(total.getValue(), (Integer) 20);
+      numbers.move(0, 3);
+      numbers.removeAt(0);
+      assertEquals(total.getValue(), (Integer) 18);
+      numbers.retainAll(Arrays.asList(3));
+      assertEquals(total.getValue(), (Integer) 3);
+
+      verify(changeHandler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<Integer>(20)));
+      verify(changeHandler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<Integer>(3)));
+      assertEquals(sum.computeCount, 0);
+
+      numbers.setElements(Arrays.asList(5, 5));
+      assertEquals(total.getValue(), (Integer) 10);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void groupedResultIsUpdatedInPlace()
+   {
+      final ArrayListModel<Integer> numbers = new ArrayListModel<Integer>(1, 2, 3);
+      ReducingValueModel<Map<Boolean, Integer>, Integer> counts =
+         new ReducingValueModel<Map<Boolean, Integer>, Integer>(numbers, Aggregates.countBy(IS_EVEN));
+      ValueChangeHandler<Map<Boolean, Integer>> changeHandler = mock(ValueChangeHandler.class);
+      counts.addValueChangeHandler(changeHandler);
+      Map<Boolean, Integer> result = counts.getValue();
+
+      numbers.add(4);
+      assertSame(counts.getValue(), result);
+      assertEquals(result.get(true), (Integer) 2);
+      verify(changeHandler, times(1)).onValueChange(any(ValueChangeEvent.class));
+
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            numbers.add(5);
+            numbers.add(7);
+         }
+      });
+      assertEquals(result.get(false), (Integer) 4);
+      verify(changeHandler, times(2)).onValueChange(any(ValueChangeEvent.class));
+
+      // moving an element leaves every group as it was.
+      numbers.move(0, 3);
+      verify(changeHandler, times(2)).onValueChange(any(ValueChangeEvent.class));
+   }
+
+   private static class CountingSum implements IncrementalReduce<Integer, Integer>
+   {
+      private IncrementalReduce<Integer, Number> sum = Aggregates.sumOfIntegers();
+      private int computeCount = 0;
+
+      public Accumulator<Integer, Integer> createAccumulator()
+      {
+         final Accumulator<Integer, Number> accumulator = sum.createAccumulator();
+         return new Accumulator<Integer, Integer>()
+         {
+            public void add(Integer value)
+            {
+               accumulator.add(value);
+            }
+
+            public void remove(Integer value)
+            {
+               accumulator.remove(value);
+            }
+
+            public Integer getResult()
+            {
+               return accumulator.getResult();
+            }
+         };
+      }
+
+      public Integer compute(List<? extends Integer> source)
+      {
+         computeCount++;
+         return sum.compute(source);
+      }
+   }
+
    private static class Concat implements Reduce<String, String>
    {
       public String compute(List<? extends String> source)
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Keeps a copy of a list model by replaying the changes described by its events.  Used to
+ * check the change ranges a list model reports are consistent with its contents.
+ */
+class ReplayingListModel<T>
+extends ArrayListModel<T>
+{
+   ReplayingListModel(ListModel<T> source)
+   {
+      super(source.asUnmodifiableList());
+      source.addListModelChangedHandler(new ListModelChangedHandler<T>()
+      {
+         public void onListDataChanged(ListModelChangedEvent<T> event)
+         {
+            replay(event);
+         }
+      });
+   }
+
+   private void replay(ListModelChangedEvent<T> event)
+   {
+      if (event.isRefresh())
+      {
+         setElements(event.getSourceModel().asUnmodifiableList());
+         return;
+      }
+
+      for (ListChange<T> change : event.getChanges())
+      {
+         switch (change.getType())
+         {
+            case INSERTED:
+               insert(change.getIndex(), change.getNewElements());
+               break;
+            case REMOVED:
+               for (int i = 0; i < change.getCount(); i++)
+               {
+                  assertEquals(removeAt(change.getIndex()), change.getOldElements().get(i));
+               }
+               break;
+            case UPDATED:
+               for (int i = 0; i < change.getCount(); i++)
+               {
+                  assertEquals(set(change.getIndex() + i, change.getNewElements().get(i)), change.getOldElements().get(i));
+               }
+               break;
+            case MOVED:
+               move(change.getIndex(), change.getToIndex());
+               break;
+         }
+      }
+   }
+
+   public void assertMatches(List<T> expected)
+   {
+      assertEquals(asUnmodifiableList(), expected);
+   }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.list;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests the difference, intersection and union list models against a simple
+ * recomputation of their expected contents.
+ */
+public class SetOperationListModelTest
+{
+   @DataProvider
+   public Object[][] operations()
+   {
+      return new Object[][]{{Operation.DIFFERENCE}, {Operation.INTERSECTION}, {Operation.UNION}};
+   }
+
+   @Test(dataProvider = "operations")
+   public void initialContents(Operation operation)
+   {
+      ArrayListModel<String> a = new ArrayListModel<String>("a", "b", "c", "b");
+      ArrayListModel<String> b = new ArrayListModel<String>("b", "d");
+
+      ListModel<String> subject = operation.create(a, b);
+
+      assertEquals(subject.asUnmodifiableList(), operation.expected(a, b));
+   }
+
+   @Test
+   public void differenceUpdatesWhenEitherSourceChanges()
+   {
+      ArrayListModel<String> available = new ArrayListModel<String>("a", "b", "c", "d");
+      ArrayListModel<String> selected = new ArrayListModel<String>();
+      DifferenceListModel<String> subject = new DifferenceListModel<String>(available, selected);
+      List<ListModelChangedEvent<String>> events = recordEvents(subject);
+
+      selected.add("b");
+      assertEquals(subject.asUnmodifiableList(), Arrays.asList("a", "c", "d"));
+      selected.addAll(Arrays.asList("a", "d"));
+      assertEquals(subject.asUnmodifiableList(), Arrays.asList("c"));
+      selected.remove("a");
+      assertEquals(subject.asUnmodifiableList(), Arrays.asList("a", "c"));
+      available.add(1, "e");
+      assertEquals(subject.asUnmodifiableList(), Arrays.asList("a", "e", "c"));
+
+      assertEquals(events.size(), 4);
+      for (ListModelChangedEvent<String> event : events)
+      {
+         assertEquals(event.isRefresh(), false);
+      }
+   }
+
+   @Test(dataProvider = "operations")
+   public void randomChangesMatchRecomputation(Operation operation)
+   {
+      RandomListMutator mutator = new RandomListMutator(42);
+      ArrayListModel<String> a = new ArrayListModel<String>();
+      ArrayListModel<String> b = new ArrayListModel<String>();
+      ListModel<String> subject = operation.create(a, b);
+
+      // we also check the change ranges by replaying them on a copy.
+      ReplayingListModel<String> mirror = new ReplayingListModel<String>(subject);
+
+      for (int i = 0; i < 500; i++)
+      {
+         mutator.mutate(mutator.nextBoolean() ? a : b);
+         assertEquals(subject.asUnmodifiableList(), operation.expected(a, b));
+         mirror.assertMatches(subject.asUnmodifiableList());
+      }
+   }
+
+   private List<ListModelChangedEvent<String>> recordEvents(ListModel<String> model)
+   {
+      final List<ListModelChangedEvent<String>> events = new ArrayList<ListModelChangedEvent<String>>();
+      model.addListModelChangedHandler(new ListModelChangedHandler<String>()
+      {
+         public void onListDataChanged(ListModelChangedEvent<String> event)
+         {
+            events.add(event);
+         }
+      });
+      return events;
+   }
+
+   public enum Operation
+   {
+      DIFFERENCE
+      {
+         ListModel<String> create(ListModel<String> a, ListModel<String> b)
+         {
+            return new DifferenceListModel<String>(a, b);
+         }
+
+         List<String> expected(ListModel<String> a, ListModel<String> b)
+         {
+            ArrayList<String> result = new ArrayList<String>(a.asUnmodifiableList());
+            result.removeAll(b.asUnmodifiableList());
+            return result;
+         }
+      },
+      INTERSECTION
+      {
+         ListModel<String> create(ListModel<String> a, ListModel<String> b)
+         {
+            return new IntersectionListModel<String>(a, b);
+         }
+
+         List<String> expected(ListModel<String> a, ListModel<String> b)
+         {
+            ArrayList<String> result = new ArrayList<String>(a.asUnmodifiableList());
+            result.retainAll(b.asUnmodifiableList());
+            return result;
+         }
+      },
+      UNION
+      {
+         ListModel<String> create(ListModel<String> a, ListModel<String> b)
+         {
+            return new UnionListModel<String>(a, b);
+         }
+
+         List<String> expected(ListModel<String> a, ListModel<String> b)
+         {
+            ArrayList<String> result = new ArrayList<String>(a.asUnmodifiableList());
+            ArrayList<String> rest = new ArrayList<String>(b.asUnmodifiableList());
+            rest.removeAll(a.asUnmodifiableList());
+            result.addAll(rest);
+            return result;
+         }
+      };
+
+      abstract ListModel<String> create(ListModel<String> a, ListModel<String> b);
+
+      abstract List<String> expected(ListModel<String> a, ListModel<String> b);
+   }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.util;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * HandlerList Tester.
+ */
+public class HandlerListTest
+{
+   private HandlerList<Recorder> handlers;
+   private List<String> calls;
+   private int firstAddedCount;
+   private int lastRemovedCount;
+
+   private HandlerList.Dispatcher<Recorder, String> dispatcher = new HandlerList.Dispatcher<Recorder, String>()
+   {
+      public void dispatch(Recorder handler, String event)
+      {
+         handler.record(event);
+      }
+   };
+
+   @BeforeMethod
+   public void setUp()
+   {
+      calls = new ArrayList<String>();
+      firstAddedCount = 0;
+      lastRemovedCount = 0;
+      handlers = new HandlerList<Recorder>()
+      {
+         protected void onFirstHandlerAdded()
+         {
+            firstAddedCount++;
+         }
+
+         protected void onLastHandlerRemoved()
+         {
+            lastRemovedCount++;
+         }
+      };
+   }
+
+   @Test(dataProvider = "sizes")
+   public void dispatchesInOrderAdded(int count)
+   {
+      List<String> expected = new ArrayList<String>();
+      for (int i = 0; i < count; i++)
+      {
+         handlers.add(new Recorder("h" + i));
+         expected.add("h" + i + ":e");
+      }
+
+      handlers.dispatch(dispatcher, "e");
+
+      assertEquals(handlers.size(), count);
+      assertEquals(calls, expected);
+   }
+
+   @Test(dataProvider = "sizes")
+   public void removeFromEachPosition(int count)
+   {
+      for (int removeIndex = 0; removeIndex < count; removeIndex++)
+      {
+         setUp();
+         List<HandlerRegistration> registrations = new ArrayList<HandlerRegistration>();
+         List<String> expected = new ArrayList<String>();
+         for (int i = 0; i < count; i++)
+         {
+            registrations.add(handlers.add(new Recorder("h" + i)));
+            if (i != removeIndex)
+            {
+               expected.add("h" + i + ":e");
+            }
+         }
+
+         registrations.get(removeIndex).removeHandler();
+         handlers.dispatch(dispatcher, "e");
+
+         assertEquals(handlers.size(), count - 1);
+         assertEquals(calls, expected);
+      }
+   }
+
+   @DataProvider
+   public Object[][] sizes()
+   {
+      return new Object[][]{{1}, {2}, {3}, {4}, {7}};
+   }
+
+   @Test
+   public void removingDuringDispatchOnlyAffectsNextDispatch()
+   {
+      final HandlerRegistration[] second = new HandlerRegistration[1];
+      handlers.add(new Recorder("a")
+      {
+         void record(String event)
+         {
+            super.record(event);
+            second[0].removeHandler();
+         }
+      });
+      second[0] = handlers.add(new Recorder("b"));
+      handlers.add(new Recorder("c"));
+
+      handlers.dispatch(dispatcher, "1");
+      handlers.dispatch(dispatcher, "2");
+
+      assertEquals(calls, Arrays.asList("a:1", "b:1", "c:1", "a:2", "c:2"));
+   }
+
+   @Test
+   public void multipleRemovesAreIgnored()
+   {
+      Recorder recorder = new Recorder("a");
+      HandlerRegistration first = handlers.add(recorder);
+      handlers.add(recorder);
+
+      first.removeHandler();
+      first.removeHandler();
+
+      assertEquals(handlers.size(), 1);
+   }
+
+   @Test
+   public void firstAndLastCallbacks()
+   {
+      HandlerRegistration a = handlers.add(new Recorder("a"));
+      HandlerRegistration b = handlers.add(new Recorder("b"));
+      HandlerRegistration c = handlers.add(new Recorder("c"));
+      assertEquals(firstAddedCount, 1);
+
+      c.removeHandler();
+      a.removeHandler();
+      assertEquals(lastRemovedCount, 0);
+
+      b.removeHandler();
+      assertEquals(lastRemovedCount, 1);
+      assertTrue(handlers.isEmpty());
+
+      handlers.add(new Recorder("d"));
+      assertEquals(firstAddedCount, 2);
+   }
+
+   private class Recorder
+   {
+      private String name;
+
+      private Recorder(String name)
+      {
+         this.name = name;
+      }
+
+      void record(String event)
+      {
+         calls.add(name + ":" + event);
+      }
+   }
+}
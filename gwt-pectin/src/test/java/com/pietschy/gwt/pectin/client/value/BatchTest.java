@@ -0,0 +1,232 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.function.Reduce;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Batch Tester.
+ */
+public class BatchTest
+{
+   private ValueHolder<String> sourceA;
+   private ValueHolder<String> sourceB;
+   private CountingConcat concat;
+   private ReducingValueModel<String, String> reducer;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      sourceA = new ValueHolder<String>("a");
+      sourceB = new ValueHolder<String>("b");
+      concat = new CountingConcat();
+      reducer = new ReducingValueModel<String, String>(concat, sourceA, sourceB);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void eachModelFiresOnceWithFinalValue()
+   {
+      ValueChangeHandler<String> handler = mock(ValueChangeHandler.class);
+      sourceA.addValueChangeHandler(handler);
+
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            sourceA.setValue("1");
+            sourceA.setValue("2");
+            sourceA.setValue("3");
+            assertTrue(Batch.isActive());
+         }
+      });
+
+      assertFalse(Batch.isActive());
+      verify(handler, times(1)).onValueChange(isA(ValueChangeEvent.class));
+      verify(handler).onValueChange(argThat(new IsValueChangeEventWithValue<String>("3")));
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void derivedModelsRecomputeAfterBatch()
+   {
+      ValueChangeHandler<String> handler = mock(ValueChangeHandler.class);
+      reducer.addValueChangeHandler(handler);
+      concat.count = 0;
+
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            sourceA.setValue("c");
+            sourceA.setValue("d");
+            sourceB.setValue("e");
+         }
+      });
+
+      assertEquals(reducer.getValue(), "de");
+      verify(handler, times(1)).onValueChange(isA(ValueChangeEvent.class));
+      verify(handler).onValueChange(argThat(new IsValueChangeEventWithValue<String>("de")));
+      // propagation waits for both sources so we only compute once.
+      assertEquals(concat.count, 1);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void nestedBatchesFireWhenOutermostCompletes()
+   {
+      final ValueChangeHandler<String> handler = mock(ValueChangeHandler.class);
+      sourceA.addValueChangeHandler(handler);
+
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            Batch.run(new Runnable()
+            {
+               public void run()
+               {
+                  sourceA.setValue("1");
+               }
+            });
+
+            verify(handler, never()).onValueChange(isA(ValueChangeEvent.class));
+            sourceA.setValue("2");
+         }
+      });
+
+      verify(handler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<String>("2")));
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void changesThatRevertDontFireForEqualityCheckingModels()
+   {
+      final ValueHolder<String> holder = new ValueHolder<String>("a");
+      holder.setFireEventsEvenWhenValuesEqual(false);
+      ValueHolder<String> other = new ValueHolder<String>();
+
+      final ReducingValueModel<String, String> model = new ReducingValueModel<String, String>(concat, holder, other);
+
+      ValueChangeHandler<String> handler = mock(ValueChangeHandler.class);
+      model.addValueChangeHandler(handler);
+
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            holder.setValue("b");
+            model.setFunction(concat);
+            holder.setValue("a");
+            model.setFunction(concat);
+         }
+      });
+
+      verify(handler, never()).onValueChange(isA(ValueChangeEvent.class));
+   }
+
+   @Test
+   public void batchIsClosedWhenRunnableThrows()
+   {
+      try
+      {
+         Batch.run(new Runnable()
+         {
+            public void run()
+            {
+               sourceA.setValue("x");
+               throw new IllegalStateException();
+            }
+         });
+      }
+      catch (IllegalStateException e)
+      {
+         // expected
+      }
+
+      assertFalse(Batch.isActive());
+      assertEquals(reducer.getValue(), "xb");
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void remainingEventsFireWhenAHandlerThrows()
+   {
+      sourceA.addValueChangeHandler(new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            throw new IllegalStateException("handler failed");
+         }
+      });
+      ValueChangeHandler<String> handler = mock(ValueChangeHandler.class);
+      sourceB.addValueChangeHandler(handler);
+
+      try
+      {
+         Batch.run(new Runnable()
+         {
+            public void run()
+            {
+               sourceA.setValue("x");
+               sourceB.setValue("y");
+            }
+         });
+         fail("the handler's exception should have been rethrown");
+      }
+      catch (IllegalStateException e)
+      {
+         assertEquals(e.getMessage(), "handler failed");
+      }
+
+      verify(handler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<String>("y")));
+      assertFalse(Batch.isActive());
+   }
+
+   private static class CountingConcat implements Reduce<String, String>
+   {
+      private int count = 0;
+
+      public String compute(List<? extends String> source)
+      {
+         count++;
+         String result = "";
+         for (String s : source)
+         {
+            if (s != null)
+            {
+               result += s;
+            }
+         }
+         return result;
+      }
+   }
+}
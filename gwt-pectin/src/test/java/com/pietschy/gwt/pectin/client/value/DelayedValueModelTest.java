@@ -0,0 +1,173 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.condition.Condition;
+import com.pietschy.gwt.pectin.client.condition.Conditions;
+import com.pietschy.gwt.pectin.client.util.FakeTaskScheduler;
+import com.pietschy.gwt.pectin.client.util.TaskSchedulers;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * DebouncedValueModel and ThrottledValueModel Tester.
+ */
+public class DelayedValueModelTest
+{
+   private FakeTaskScheduler scheduler;
+   private ValueHolder<String> source;
+   private List<String> published;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      scheduler = new FakeTaskScheduler();
+      source = new ValueHolder<String>("");
+      published = new ArrayList<String>();
+   }
+
+   @AfterMethod
+   public void tearDown()
+   {
+      TaskSchedulers.setDefault(null);
+   }
+
+   @Test
+   public void debouncePublishesOnceAfterQuietPeriod()
+   {
+      DebouncedValueModel<String> model = new DebouncedValueModel<String>(source, 100, 0, scheduler);
+      record(model);
+
+      type("a", "ab", "abc");
+      assertEquals(model.getValue(), "");
+      assertTrue(model.hasPendingChange());
+
+      scheduler.advance(99);
+      assertTrue(published.isEmpty());
+
+      scheduler.advance(1);
+      assertEquals(published, Arrays.asList("abc"));
+      assertEquals(model.getValue(), "abc");
+   }
+
+   @Test
+   public void debounceMaxWaitPublishesDuringLongBursts()
+   {
+      DebouncedValueModel<String> model = new DebouncedValueModel<String>(source, 100, 250, scheduler);
+      record(model);
+
+      // a change every 50ms never satisfies the quiet period.
+      for (int i = 1; i <= 6; i++)
+      {
+         source.setValue("v" + i);
+         scheduler.advance(50);
+      }
+
+      assertEquals(published, Arrays.asList("v5"));
+
+      scheduler.advance(100);
+      assertEquals(published, Arrays.asList("v5", "v6"));
+   }
+
+   @Test
+   public void flushPublishesImmediately()
+   {
+      DebouncedValueModel<String> model = new DebouncedValueModel<String>(source, 100, 0, scheduler);
+      record(model);
+
+      type("a");
+      model.flush();
+
+      assertEquals(published, Arrays.asList("a"));
+      assertFalse(model.hasPendingChange());
+      assertEquals(scheduler.getPendingTaskCount(), 0);
+   }
+
+   @Test
+   public void unobservedModelTracksSourceDirectly()
+   {
+      DebouncedValueModel<String> model = new DebouncedValueModel<String>(source, 100, 0, scheduler);
+
+      type("a");
+
+      assertEquals(model.getValue(), "a");
+      assertEquals(scheduler.getPendingTaskCount(), 0);
+   }
+
+   @Test
+   public void throttlePublishesLeadingAndTrailingChanges()
+   {
+      ThrottledValueModel<String> model = new ThrottledValueModel<String>(source, 100, scheduler);
+      record(model);
+
+      type("a");
+      assertEquals(published, Arrays.asList("a"));
+
+      type("ab", "abc");
+      scheduler.advance(50);
+      type("abcd");
+      assertEquals(published, Arrays.asList("a"));
+
+      scheduler.advance(50);
+      assertEquals(published, Arrays.asList("a", "abcd"));
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void debouncedTextCondition()
+   {
+      TaskSchedulers.setDefault(scheduler);
+      Condition notBlank = Conditions.textOf(source).debounced(100).isNotBlank();
+      notBlank.addValueChangeHandler(mock(ValueChangeHandler.class));
+
+      type("a");
+      assertEquals(notBlank.getValue(), Boolean.FALSE);
+
+      scheduler.advance(100);
+      assertEquals(notBlank.getValue(), Boolean.TRUE);
+   }
+
+   private void type(String... values)
+   {
+      for (String value : values)
+      {
+         source.setValue(value);
+      }
+   }
+
+   private void record(ValueModel<String> model)
+   {
+      model.addValueChangeHandler(new ValueChangeMonitor<String>()
+      {
+         public void onValueChanged(String value)
+         {
+            published.add(value);
+         }
+      });
+   }
+}
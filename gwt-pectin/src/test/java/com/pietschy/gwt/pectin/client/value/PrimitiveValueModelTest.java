@@ -0,0 +1,154 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.condition.Condition;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * BooleanValueModel, IntValueModel and DoubleValueModel Tester.
+ */
+public class PrimitiveValueModelTest
+{
+   private BooleanValueModel model;
+   private ValueChangeHandler<Boolean> handler;
+
+   @BeforeMethod
+   @SuppressWarnings("unchecked")
+   public void setUp()
+   {
+      model = new BooleanValueModel(false);
+      handler = mock(ValueChangeHandler.class);
+      model.addValueChangeHandler(handler);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void onlyFiresWhenValueChanges()
+   {
+      model.setBooleanValue(false);
+      verify(handler, never()).onValueChange(any(ValueChangeEvent.class));
+
+      model.setValue(true);
+      model.setBooleanValue(true);
+      verify(handler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<Boolean>(true)));
+      assertTrue(model.booleanValue());
+      assertEquals(model.getValue(), Boolean.TRUE);
+   }
+
+   @Test
+   public void nullIsTreatedAsFalse()
+   {
+      model.setBooleanValue(true);
+      model.setValue(null);
+
+      assertFalse(model.booleanValue());
+      assertEquals(model.getValue(), Boolean.FALSE);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void conditionCombinators()
+   {
+      BooleanValueModel other = new BooleanValueModel(true);
+      Condition and = model.and(other);
+      Condition or = model.or(other);
+      Condition not = model.not();
+      and.addValueChangeHandler(mock(ValueChangeHandler.class));
+
+      assertEquals(and.getValue(), Boolean.FALSE);
+      assertEquals(or.getValue(), Boolean.TRUE);
+      assertEquals(not.getValue(), Boolean.TRUE);
+
+      model.setBooleanValue(true);
+
+      assertEquals(and.getValue(), Boolean.TRUE);
+      assertEquals(not.getValue(), Boolean.FALSE);
+   }
+
+   @Test
+   public void doubleModelTreatsNaNAsEqual()
+   {
+      final int[] count = new int[1];
+      DoubleValueModel doubleModel = new DoubleValueModel(1);
+      doubleModel.addValueChangeHandler(new ValueChangeMonitor<Double>()
+      {
+         public void onValueChanged(Double value)
+         {
+            count[0]++;
+         }
+      });
+
+      doubleModel.setDoubleValue(1);
+      doubleModel.setDoubleValue(Double.NaN);
+      doubleModel.setDoubleValue(Double.NaN);
+      doubleModel.setValue(null);
+
+      assertEquals(count[0], 2);
+      assertEquals(doubleModel.doubleValue(), 0.0);
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void unobservedChangeInBatchStillFires()
+   {
+      final IntValueModel intModel = new IntValueModel(0);
+      final ValueChangeHandler<Integer> intHandler = mock(ValueChangeHandler.class);
+
+      Batch.run(new Runnable()
+      {
+         public void run()
+         {
+            intModel.setIntValue(1000);
+            intModel.addValueChangeHandler(intHandler);
+         }
+      });
+
+      verify(intHandler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<Integer>(1000)));
+   }
+
+   @Test
+   public void intModelOnlyFiresOnChange()
+   {
+      final int[] count = new int[1];
+      IntValueModel intModel = new IntValueModel(0);
+      intModel.addValueChangeHandler(new ValueChangeMonitor<Integer>()
+      {
+         public void onValueChanged(Integer value)
+         {
+            count[0]++;
+         }
+      });
+
+      intModel.setIntValue(0);
+      intModel.setIntValue(1000);
+      intModel.setValue(1000);
+
+      assertEquals(count[0], 1);
+      assertEquals(intModel.intValue(), 1000);
+   }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.pietschy.gwt.pectin.client.condition.AndFunction;
+import com.pietschy.gwt.pectin.client.condition.Condition;
+import com.pietschy.gwt.pectin.client.condition.Conditions;
+import com.pietschy.gwt.pectin.client.form.FieldModel;
+import com.pietschy.gwt.pectin.client.form.FormModel;
+import com.pietschy.gwt.pectin.client.function.Function;
+import com.pietschy.gwt.pectin.client.function.Reduce;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Propagation Tester.
+ */
+public class PropagationTest
+{
+   private ValueHolder<String> field;
+   private Condition isA;
+   private Condition isNotB;
+   private CountingAnd and;
+   private ReducingValueModel<Boolean, Boolean> diamond;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      field = new ValueHolder<String>("a");
+      isA = Conditions.textOf(field).is("a");
+      isNotB = Conditions.textOf(field).isNot("b");
+      and = new CountingAnd();
+      diamond = new ReducingValueModel<Boolean, Boolean>(and, isA, isNotB);
+      // models only recompute while someone's listening.
+      diamond.addValueChangeHandler(new ValueChangeHandler<Boolean>()
+      {
+         public void onValueChange(ValueChangeEvent<Boolean> event)
+         {
+         }
+      });
+   }
+
+   @Test
+   public void heightIsOneAboveHighestSource()
+   {
+      assertEquals(Propagation.heightOf(field), 0);
+      assertEquals(Propagation.heightOf(isA), 1);
+      // isNot wraps is so it's one higher again
+      assertEquals(Propagation.heightOf(isNotB), 2);
+      assertEquals(Propagation.heightOf(diamond), 3);
+   }
+
+   @Test
+   public void diamondRecomputesOncePerChange()
+   {
+      and.count = 0;
+
+      field.setValue("b");
+      assertEquals(and.count, 1);
+      assertEquals(diamond.getValue(), Boolean.FALSE);
+
+      field.setValue("a");
+      assertEquals(and.count, 2);
+      assertEquals(diamond.getValue(), Boolean.TRUE);
+   }
+
+   @Test
+   public void diamondNeverExposesInconsistentValues()
+   {
+      final List<Boolean> values = new ArrayList<Boolean>();
+      diamond.addValueChangeHandler(new ValueChangeHandler<Boolean>()
+      {
+         public void onValueChange(ValueChangeEvent<Boolean> event)
+         {
+            values.add(event.getValue());
+         }
+      });
+
+      field.setValue("c");
+      field.setValue("b");
+      field.setValue("a");
+
+      // "c" makes isA false, "b" leaves the and false, "a" makes it true again.
+      assertEquals(values.size(), 2);
+      assertEquals(values.get(0), Boolean.FALSE);
+      assertEquals(values.get(1), Boolean.TRUE);
+   }
+
+   @Test
+   public void readsDuringPropagationAreNotStale()
+   {
+      final List<Boolean> seen = new ArrayList<Boolean>();
+
+      // this handler is notified before the diamond has been recomputed
+      field.addValueChangeHandler(new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            seen.add(diamond.getValue());
+         }
+      });
+
+      field.setValue("b");
+
+      assertEquals(seen.size(), 1);
+      assertEquals(seen.get(0), Boolean.FALSE);
+   }
+
+   @Test
+   public void heightsFollowANewDelegate()
+   {
+      ValueHolder<String> source = new ValueHolder<String>("a");
+      ValueModel<String> low = identity(source);
+      ValueModel<String> high = identity(identity(identity(identity(low))));
+      DelegatingValueModel<String> delegatingModel = new DelegatingValueModel<String>(low);
+      ValueModel<String> computed = identity(delegatingModel);
+      CountingConcat concat = new CountingConcat();
+      ReducingValueModel<String, String> reducer = new ReducingValueModel<String, String>(concat, computed, low);
+
+      final List<String> values = new ArrayList<String>();
+      reducer.addValueChangeHandler(new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            values.add(event.getValue());
+         }
+      });
+
+      assertEquals(Propagation.heightOf(computed), 2);
+      assertEquals(Propagation.heightOf(reducer), 3);
+
+      delegatingModel.setDelegate(high);
+
+      assertEquals(Propagation.heightOf(computed), 6);
+      assertEquals(Propagation.heightOf(reducer), 7);
+
+      concat.count = 0;
+      values.clear();
+      source.setValue("b");
+
+      // if the reducer kept its old height it would run before the new delegate had
+      // updated and briefly expose "ab".
+      assertEquals(concat.count, 1);
+      assertEquals(values.size(), 1);
+      assertEquals(values.get(0), "bb");
+   }
+
+   @Test
+   public void fieldsAreRankedAboveTheirSource()
+   {
+      ValueHolder<String> source = new ValueHolder<String>("a");
+      ValueModel<String> high = identity(identity(identity(source)));
+      FieldModel<String> field = new FormModel().fieldOfType(String.class).boundTo(high);
+      CountingConcat concat = new CountingConcat();
+      ReducingValueModel<String, String> reducer = new ReducingValueModel<String, String>(concat, field, identity(source));
+
+      final List<String> values = new ArrayList<String>();
+      reducer.addValueChangeHandler(new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            values.add(event.getValue());
+         }
+      });
+
+      assertEquals(Propagation.heightOf(field), 4);
+      assertEquals(Propagation.heightOf(reducer), 5);
+
+      concat.count = 0;
+      source.setValue("b");
+
+      // if the field had no height the reducer would run before it had updated.
+      assertEquals(concat.count, 1);
+      assertEquals(values, Arrays.asList("bb"));
+   }
+
+   private ValueModel<String> identity(ValueModel<String> source)
+   {
+      return new ComputedValueModel<String, String>(source, new Function<String, String>()
+      {
+         public String compute(String value)
+         {
+            return value;
+         }
+      });
+   }
+
+   private static class CountingConcat implements Reduce<String, String>
+   {
+      private int count = 0;
+
+      public String compute(List<? extends String> source)
+      {
+         count++;
+         StringBuilder builder = new StringBuilder();
+         for (String value : source)
+         {
+            builder.append(value);
+         }
+         return builder.toString();
+      }
+   }
+
+   private static class CountingAnd implements Reduce<Boolean, Boolean>
+   {
+      private AndFunction delegate = new AndFunction();
+      private int count = 0;
+
+      public Boolean compute(List<? extends Boolean> source)
+      {
+         count++;
+         return delegate.compute(source);
+      }
+   }
+}
@@ -18,6 +18,8 @@ package com.pietschy.gwt.pectin.client.value;
 
 
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.pietschy.gwt.pectin.client.condition.OrFunction;
 import com.pietschy.gwt.pectin.client.function.Reduce;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -197,6 +199,78 @@ public class ReducingValueModelTest
       verify(changeHandler, times(1)).onValueChange(argThat(new IsValueChangeEventWithValue<String>("ab")));
    }
 
+   @Test
+   @SuppressWarnings("unchecked")
+   public void onlyListensToSourcesWhileObserved()
+   {
+      CountingReduce counter = new CountingReduce();
+      subject.setFunction(counter);
+
+      sourceA.setValue("a");
+      sourceB.setValue("b");
+      assertEquals(counter.count, 0);
+
+      // but we still compute on demand.
+      assertEquals(subject.getValue(), "ab");
+      assertEquals(counter.count, 1);
+
+      HandlerRegistration registration = subject.addValueChangeHandler(mock(ValueChangeHandler.class));
+      counter.count = 0;
+      sourceA.setValue("c");
+      assertEquals(counter.count, 1);
+      assertEquals(subject.getValue(), "cb");
+      assertEquals(counter.count, 1);
+
+      registration.removeHandler();
+      counter.count = 0;
+      sourceA.setValue("d");
+      assertEquals(counter.count, 0);
+      assertEquals(subject.getValue(), "db");
+   }
+
+   @Test
+   @SuppressWarnings("unchecked")
+   public void incrementalFunctionsDontRecomputeFromScratch()
+   {
+      ValueHolder<Boolean> a = new ValueHolder<Boolean>(false);
+      ValueHolder<Boolean> b = new ValueHolder<Boolean>(false);
+      CountingOr or = new CountingOr();
+      ReducingValueModel<Boolean, Boolean> model = new ReducingValueModel<Boolean, Boolean>(or, a, b);
+      model.addValueChangeHandler(mock(ValueChangeHandler.class));
+      or.count = 0;
+
+      a.setValue(true);
+      b.setValue(true);
+      a.setValue(false);
+
+      assertEquals(model.getValue(), Boolean.TRUE);
+      assertEquals(or.count, 0);
+   }
+
+   private static class CountingOr extends OrFunction
+   {
+      private int count = 0;
+
+      @Override
+      public Boolean compute(List<? extends Boolean> source)
+      {
+         count++;
+         return super.compute(source);
+      }
+   }
+
+   private static class CountingReduce extends Concat
+   {
+      private int count = 0;
+
+      @Override
+      public String compute(List<? extends String> source)
+      {
+         count++;
+         return super.compute(source);
+      }
+   }
+
    private static class Concat implements Reduce<String, String>
    {
       public String compute(List<? extends String> source)
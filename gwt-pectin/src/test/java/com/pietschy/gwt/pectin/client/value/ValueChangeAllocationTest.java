@@ -0,0 +1,241 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.value;
+
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks that notifying {@link ValueChangeMonitor}s doesn't allocate.  This uses the HotSpot
+ * specific thread allocation counters and is skipped on JVMs that don't support them.
+ */
+public class ValueChangeAllocationTest
+{
+   private static final int ITERATIONS = 100000;
+   // generous enough to cover any allocation done by the counter itself.
+   private static final long ALLOWED_BYTES = 1024;
+
+   private ValueHolder<String> holder;
+   private CountingMonitor monitor;
+
+   @BeforeMethod
+   public void setUp()
+   {
+      holder = new ValueHolder<String>("a");
+      monitor = new CountingMonitor();
+   }
+
+   @Test
+   public void monitorsReceiveValueDirectly()
+   {
+      holder.addValueChangeHandler(monitor);
+
+      holder.setValue("b");
+
+      assertEquals(monitor.count, 1);
+      assertEquals(monitor.lastValue, "b");
+   }
+
+   @Test
+   public void ordinaryHandlersStillReceiveEventsWithSource()
+   {
+      final List<ValueChangeEvent<String>> events = new ArrayList<ValueChangeEvent<String>>();
+      holder.addValueChangeHandler(monitor);
+      holder.addValueChangeHandler(new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            events.add(event);
+         }
+      });
+
+      holder.setValue("b");
+
+      assertEquals(monitor.count, 1);
+      assertEquals(events.size(), 1);
+      assertEquals(events.get(0).getValue(), "b");
+      assertSame(events.get(0).getSource(), holder);
+   }
+
+   @Test
+   public void monitorsWorkWithForeignEvents()
+   {
+      holder.addValueChangeHandler(monitor);
+
+      ValueChangeEvent.fire(holder, "c");
+
+      assertEquals(monitor.count, 1);
+      assertEquals(monitor.lastValue, "c");
+   }
+
+   @Test
+   public void foreignEventsHaveTheirSourceSet()
+   {
+      final List<ValueChangeEvent<String>> events = new ArrayList<ValueChangeEvent<String>>();
+      ValueChangeHandler<String> handler = new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            events.add(event);
+         }
+      };
+      holder.addValueChangeHandler(handler);
+      DelegatingValueModel<String> delegatingModel = new DelegatingValueModel<String>();
+      delegatingModel.addValueChangeHandler(handler);
+
+      ValueChangeEvent.fire(holder, "c");
+      ValueChangeEvent.fire(delegatingModel, "d");
+
+      assertEquals(events.size(), 2);
+      assertSame(events.get(0).getSource(), holder);
+      assertEquals(events.get(0).getValue(), "c");
+      assertSame(events.get(1).getSource(), delegatingModel);
+      assertEquals(events.get(1).getValue(), "d");
+   }
+
+   @Test
+   public void setValueWithMonitorsDoesNotAllocate()
+   {
+      // three monitors so we're past the inline handler storage.
+      holder.addValueChangeHandler(monitor);
+      holder.addValueChangeHandler(new CountingMonitor());
+      holder.addValueChangeHandler(new CountingMonitor());
+
+      assertNoAllocation(new Runnable()
+      {
+         public void run()
+         {
+            holder.setValue(monitor.count % 2 == 0 ? "a" : "b");
+         }
+      });
+   }
+
+   @Test
+   public void delegatingModelDoesNotAllocate()
+   {
+      DelegatingValueModel<String> delegatingModel = new DelegatingValueModel<String>(holder);
+      delegatingModel.addValueChangeHandler(monitor);
+
+      assertNoAllocation(new Runnable()
+      {
+         public void run()
+         {
+            holder.setValue(monitor.count % 2 == 0 ? "a" : "b");
+         }
+      });
+   }
+
+   @Test
+   public void ordinaryHandlersShareTheEventOfEachDispatch()
+   {
+      final List<ValueChangeEvent<String>> events = new ArrayList<ValueChangeEvent<String>>();
+      ValueChangeHandler<String> handler = new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            events.add(event);
+         }
+      };
+      holder.addValueChangeHandler(handler);
+      holder.addValueChangeHandler(handler);
+
+      holder.setValue("a");
+      holder.setValue("a");
+
+      assertEquals(events.size(), 4);
+      assertSame(events.get(0), events.get(1));
+      assertSame(events.get(2), events.get(3));
+      // the event isn't held onto between dispatches.
+      assertNotSame(events.get(1), events.get(2));
+   }
+
+   @Test
+   public void unobservedIntModelDoesNotBox()
+   {
+      final IntValueModel intModel = new IntValueModel();
+
+      assertNoAllocation(new Runnable()
+      {
+         public void run()
+         {
+            // well outside the Integer cache.
+            intModel.setIntValue(intModel.intValue() == 1000 ? 2000 : 1000);
+         }
+      }, 0);
+   }
+
+   private void assertNoAllocation(Runnable setValue)
+   {
+      assertNoAllocation(setValue, 1);
+   }
+
+   private void assertNoAllocation(Runnable setValue, int eventsPerCall)
+   {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (!(bean instanceof com.sun.management.ThreadMXBean)
+          || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+      {
+         throw new SkipException("thread allocation counting isn't supported by this JVM");
+      }
+
+      com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+      threadBean.setThreadAllocatedMemoryEnabled(true);
+      long threadId = Thread.currentThread().getId();
+
+      // warm up so any lazily created state (dispatchers, events) exists before we measure.
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         setValue.run();
+      }
+
+      int countBefore = monitor.count;
+      long before = threadBean.getThreadAllocatedBytes(threadId);
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         setValue.run();
+      }
+      long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+      assertEquals(monitor.count - countBefore, ITERATIONS * eventsPerCall);
+      assertTrue(allocated < ALLOWED_BYTES, "allocated " + allocated + " bytes for " + ITERATIONS + " calls to setValue");
+   }
+
+   private static class CountingMonitor extends ValueChangeMonitor<String>
+   {
+      private int count = 0;
+      private String lastValue;
+
+      public void onValueChanged(String value)
+      {
+         count++;
+         lastValue = value;
+      }
+   }
+}
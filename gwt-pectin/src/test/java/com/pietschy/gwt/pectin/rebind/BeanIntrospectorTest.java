@@ -0,0 +1,90 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * BeanIntrospector Tester.
+ */
+public class BeanIntrospectorTest
+{
+   private StubTypeInfo stringType;
+   private StubTypeInfo addressType;
+   private StubTypeInfo personType;
+
+   @BeforeMethod
+   protected void setUp()
+   {
+      stringType = new StubTypeInfo("java.lang.String");
+      addressType = new StubTypeInfo("test.Address");
+      addressType.addGetter("getStreet", stringType);
+      addressType.addSetter("setStreet", stringType);
+
+      personType = new StubTypeInfo("test.Person");
+      personType.addGetter("getName", stringType);
+      personType.addGetter("getHome", addressType);
+      personType.addGetter("getWork", addressType);
+      personType.addSetter("setName", addressType);
+   }
+
+   @Test
+   public void extractsProperties()
+   {
+      List<PropertyDeclaration> properties = new BeanIntrospector().getProperties(addressType);
+
+      assertEquals(properties.size(), 1);
+      assertEquals(properties.get(0).getName(), "street");
+      assertEquals(properties.get(0).getGetterMethodName(), "getStreet");
+      assertEquals(properties.get(0).getSetterMethodName(), "setStreet");
+   }
+
+   @Test
+   public void setterWithDifferentTypeIsIgnored()
+   {
+      for (PropertyDeclaration property : new BeanIntrospector().getProperties(personType))
+      {
+         assertNull(property.getSetterMethodName());
+      }
+   }
+
+   @Test
+   public void typesAreOnlyIntrospectedOnce()
+   {
+      BeanIntrospector introspector = new BeanIntrospector();
+
+      assertSame(introspector.getProperties(personType), introspector.getProperties(personType));
+
+      // the address is nested at two paths in two providers.
+      HashSet<String> nestedTypes = new HashSet<String>(Arrays.asList("test.Address"));
+      new BeanInfo(new Context("ProviderOne", nestedTypes, -1, introspector), personType);
+      new BeanInfo(new Context("ProviderTwo", nestedTypes, -1, introspector), personType);
+
+      assertEquals(introspector.getTypeCount(), 2);
+      assertEquals(personType.getDeclaredMethodsCallCount(), 1);
+      assertEquals(addressType.getDeclaredMethodsCallCount(), 1);
+   }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import com.google.gwt.user.rebind.StringSourceWriter;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the cost of looking up a property path using the {@link PathSwitch} the generator
+ * now emits against the chain of <code>if (..equals(path))</code> statements it used to emit.
+ * Both lookups are generated for a bean with 500 paths, compiled with the system java compiler
+ * and timed on the JVM.  Run it with a JDK and the test classpath:
+ * <pre>
+ * java -cp &lt;test classpath&gt; com.pietschy.gwt.pectin.rebind.PathLookupBenchmark [pathCount]
+ * </pre>
+ * This is a benchmark rather than a test so it isn't run as part of the build.
+ */
+public class PathLookupBenchmark
+{
+   private static final int WARM_UP_ROUNDS = 200;
+   private static final int TIMED_ROUNDS = 2000;
+
+   private static Object[] values;
+
+   /**
+    * The base class of the generated lookups.
+    */
+   public abstract static class Lookup
+   {
+      public abstract Object lookup(String path);
+   }
+
+   public static void main(String[] args) throws Exception
+   {
+      int pathCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+      List<String> paths = createPaths(pathCount);
+
+      File directory = File.createTempFile("pathLookup", "");
+      directory.delete();
+      directory.mkdirs();
+
+      Lookup linear;
+      Lookup hashed;
+      try
+      {
+         compile(directory, "LinearLookup", generateLinearLookup(paths));
+         compile(directory, "SwitchLookup", generateSwitchLookup(paths));
+
+         ClassLoader loader = new URLClassLoader(new URL[]{directory.toURI().toURL()}, PathLookupBenchmark.class.getClassLoader());
+         linear = (Lookup) loader.loadClass("LinearLookup").getDeclaredConstructor().newInstance();
+         hashed = (Lookup) loader.loadClass("SwitchLookup").getDeclaredConstructor().newInstance();
+      }
+      finally
+      {
+         delete(directory);
+      }
+
+      for (String path : paths)
+      {
+         if (linear.lookup(path) != hashed.lookup(path))
+         {
+            throw new IllegalStateException("lookups disagree on " + path);
+         }
+      }
+
+      System.out.println(pathCount + " paths");
+      System.out.println("if/else chain: " + time(linear, paths) + " ns/lookup");
+      System.out.println("hash switch:   " + time(hashed, paths) + " ns/lookup");
+   }
+
+   /**
+    * Creates paths that look like those of a nested bean graph, i.e. <code>a.b.c</code>.
+    */
+   private static List<String> createPaths(int count)
+   {
+      List<String> paths = new ArrayList<String>(count);
+      for (int i = 0; paths.size() < count; i++)
+      {
+         paths.add("property" + i);
+         for (int j = 0; j < 4 && paths.size() < count; j++)
+         {
+            paths.add("property" + i + ".nested" + j);
+         }
+      }
+      return paths;
+   }
+
+   private static String generateLinearLookup(List<String> paths)
+   {
+      StringSourceWriter source = new StringSourceWriter();
+      Writer writer = new Writer(source);
+      writeHeader(writer, "LinearLookup", paths.size());
+      // this is what BeanModelProviderCreator used to generate.
+      for (int i = 0; i < paths.size(); i++)
+      {
+         writer.println("if (\"%s\".equals(path)) {", paths.get(i));
+         writer.println("   return VALUES[%d];", i);
+         writer.print("} else ");
+      }
+      writer.println("{");
+      writer.println("   return null;");
+      writer.println("}");
+      writeFooter(writer);
+      return source.toString();
+   }
+
+   private static String generateSwitchLookup(List<String> paths)
+   {
+      StringSourceWriter source = new StringSourceWriter();
+      Writer writer = new Writer(source);
+      writeHeader(writer, "SwitchLookup", paths.size());
+      PathSwitch lookup = new PathSwitch();
+      for (int i = 0; i < paths.size(); i++)
+      {
+         lookup.add(paths.get(i), "VALUES[" + i + "]");
+      }
+      lookup.write(writer, "path");
+      writer.println("return null;");
+      writeFooter(writer);
+      return source.toString();
+   }
+
+   private static void writeHeader(Writer writer, String className, int pathCount)
+   {
+      writer.println("public class %s extends %s {", className, Lookup.class.getCanonicalName());
+      writer.indent();
+      writer.println("static final Object[] VALUES = %s.values(%d);", PathLookupBenchmark.class.getName(), pathCount);
+      writer.println("public Object lookup(String path) {");
+      writer.indent();
+   }
+
+   private static void writeFooter(Writer writer)
+   {
+      writer.outdent();
+      writer.println("}");
+      writer.outdent();
+      writer.println("}");
+   }
+
+   /**
+    * Used by the generated classes so the same values are returned by both lookups.
+    */
+   public static synchronized Object[] values(int count)
+   {
+      if (values == null || values.length != count)
+      {
+         values = new Object[count];
+         for (int i = 0; i < count; i++)
+         {
+            values[i] = new Object();
+         }
+      }
+      return values;
+   }
+
+   private static void delete(File file)
+   {
+      File[] children = file.listFiles();
+      if (children != null)
+      {
+         for (File child : children)
+         {
+            delete(child);
+         }
+      }
+      file.delete();
+   }
+
+   private static void compile(File directory, String className, String source) throws IOException
+   {
+      File file = new File(directory, className + ".java");
+      FileWriter writer = new FileWriter(file);
+      try
+      {
+         writer.write(source);
+      }
+      finally
+      {
+         writer.close();
+      }
+
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      if (compiler == null)
+      {
+         throw new IllegalStateException("the benchmark must be run with a JDK");
+      }
+
+      int result = compiler.run(null, null, null,
+                                "-cp", System.getProperty("java.class.path"),
+                                "-d", directory.getPath(),
+                                file.getPath());
+      if (result != 0)
+      {
+         throw new IllegalStateException("couldn't compile " + className);
+      }
+   }
+
+   private static long time(Lookup lookup, List<String> paths)
+   {
+      String[] pathArray = paths.toArray(new String[paths.size()]);
+      // copy the strings so we don't benefit from the identity check in equals or a cached
+      // hash code, the generator's callers don't use interned paths.
+      String[] probes = new String[pathArray.length];
+
+      Object sink = null;
+      long elapsed = 0;
+      for (int round = 0; round < WARM_UP_ROUNDS + TIMED_ROUNDS; round++)
+      {
+         for (int i = 0; i < pathArray.length; i++)
+         {
+            probes[i] = new String(pathArray[i]);
+         }
+
+         long start = System.nanoTime();
+         for (String probe : probes)
+         {
+            sink = lookup.lookup(probe);
+         }
+         if (round >= WARM_UP_ROUNDS)
+         {
+            elapsed += System.nanoTime() - start;
+         }
+      }
+
+      if (sink == null)
+      {
+         throw new IllegalStateException();
+      }
+
+      return elapsed / ((long) TIMED_ROUNDS * pathArray.length);
+   }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.rebind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A hand built {@link TypeInfo} for testing the bean model without a type oracle.
+ */
+class StubTypeInfo implements TypeInfo
+{
+   private String name;
+   private List<MethodInfo> methods = new ArrayList<MethodInfo>();
+   private int declaredMethodsCallCount = 0;
+
+   StubTypeInfo(String name)
+   {
+      this.name = name;
+   }
+
+   void addGetter(String methodName, TypeInfo type)
+   {
+      methods.add(new MethodInfo(methodName, true, false, type, Collections.<TypeInfo>emptyList(), false));
+   }
+
+   void addSetter(String methodName, TypeInfo type)
+   {
+      methods.add(new MethodInfo(methodName, true, false, new StubTypeInfo("void"), Arrays.<TypeInfo>asList(type), false));
+   }
+
+   public String getQualifiedSourceName()
+   {
+      return name;
+   }
+
+   public String getParameterizedQualifiedSourceName()
+   {
+      return name;
+   }
+
+   public boolean isPrimitive()
+   {
+      return false;
+   }
+
+   public String getBoxedSourceName()
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   public boolean isVoid()
+   {
+      return name.equals("void");
+   }
+
+   public boolean isClassOrInterface()
+   {
+      return !isVoid();
+   }
+
+   public boolean isAssignableToCollection()
+   {
+      return false;
+   }
+
+   public TypeInfo getFirstTypeArgument()
+   {
+      return null;
+   }
+
+   public TypeInfo getSuperclass()
+   {
+      return null;
+   }
+
+   public List<MethodInfo> getDeclaredMethods()
+   {
+      declaredMethodsCallCount++;
+      return methods;
+   }
+
+   int getDeclaredMethodsCallCount()
+   {
+      return declaredMethodsCallCount;
+   }
+
+   public boolean isSameType(TypeInfo other)
+   {
+      return other == this;
+   }
+}
@@ -43,4 +43,10 @@ public class BeanModelProviderGeneralTest
    {
       general.c_modelCommit();
    }
+
+   @Test
+   public void testAllModelsUpdatedBeforeEventsFire()
+   {
+      general.d_allModelsUpdatedBeforeEventsFire();
+   }
 }
\ No newline at end of file
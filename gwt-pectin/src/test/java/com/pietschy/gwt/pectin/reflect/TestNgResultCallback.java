@@ -10,7 +10,7 @@ import org.testng.Assert;
 * Time: 12:34:38 PM
 * To change this template use File | Settings | File Templates.
 */
-class TestNgResultCallback extends AbstractResultCallback
+public class TestNgResultCallback extends AbstractResultCallback
 {
    public void fail(String message)
    {
@@ -8,8 +8,11 @@ import com.pietschy.gwt.pectin.client.bean.ResultCallback;
 import com.pietschy.gwt.pectin.client.bean.data.AnotherBean;
 import com.pietschy.gwt.pectin.client.bean.data.BeanWithCollections;
 import com.pietschy.gwt.pectin.client.bean.data.TestBean;
+import com.google.gwt.event.logical.shared.ValueChangeEvent;
+import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.pietschy.gwt.pectin.client.value.ValueModel;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 
 
@@ -104,4 +107,33 @@ public class BeanModelProviderGeneralTestRunner extends AbstractRunner<TestBean>
       callback.assertContentEquals(stringList.asUnmodifiableList(), "hij", "klm");
    }
 
+   public void d_allModelsUpdatedBeforeEventsFire()
+   {
+      BeanPropertyValueModel<String> stringModel = provider.getValueModel("string", String.class);
+      final BeanPropertyValueModel<String> nestedString = provider.getValueModel("nestedBean.string", String.class);
+
+      // record what the nested model holds when the top level model tells us about the new bean.
+      final ArrayList<String> nestedValues = new ArrayList<String>();
+      stringModel.addValueChangeHandler(new ValueChangeHandler<String>()
+      {
+         public void onValueChange(ValueChangeEvent<String> event)
+         {
+            nestedValues.add(nestedString.getValue());
+         }
+      });
+
+      TestBean bean = new TestBean();
+      bean.setString("abc");
+      bean.setNestedBean(new AnotherBean());
+      bean.getNestedBean().setString("def");
+
+      provider.setValue(bean);
+
+      // one event and the nested model had already been updated.
+      callback.assertEquals(nestedValues.size(), 1);
+      callback.assertEquals(nestedValues.get(0), "def");
+      callback.assertEquals(nestedString.getValue(), "def");
+      callback.assertFalse(provider.dirty().getValue());
+   }
+
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2010 Andrew Pietsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You may
+ * obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.pietschy.gwt.pectin.client.util;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link TaskScheduler} for tests.  Time only moves when {@link #advance(int)} is called, at
+ * which point any tasks that have come due are run in order.  Deferred tasks are treated as
+ * being due immediately, so {@link #runDueTasks()} simulates the end of the current event.
+ */
+public class FakeTaskScheduler implements TaskScheduler
+{
+   private double now = 0;
+   private int sequence = 0;
+   private ArrayList<FakeTask> tasks = new ArrayList<FakeTask>();
+
+   public Task schedule(Runnable task, int delayMillis)
+   {
+      FakeTask fakeTask = new FakeTask(task, now + Math.max(delayMillis, 0), sequence++);
+      tasks.add(fakeTask);
+      return fakeTask;
+   }
+
+   public Task scheduleDeferred(Runnable task)
+   {
+      return schedule(task, 0);
+   }
+
+   public double currentTimeMillis()
+   {
+      return now;
+   }
+
+   /**
+    * Advances time by the specified amount running any tasks that come due along the way.
+    *
+    * @param millis the number of milliseconds to advance.
+    */
+   public void advance(int millis)
+   {
+      double end = now + millis;
+      FakeTask next;
+      while ((next = nextDueBy(end)) != null)
+      {
+         tasks.remove(next);
+         now = Math.max(now, next.dueTime);
+         next.task.run();
+      }
+      now = end;
+   }
+
+   /**
+    * Runs any tasks that are due now, such as those scheduled with a delay of zero.
+    */
+   public void runDueTasks()
+   {
+      advance(0);
+   }
+
+   public int getPendingTaskCount()
+   {
+      return tasks.size();
+   }
+
+   private FakeTask nextDueBy(double time)
+   {
+      FakeTask next = null;
+      for (FakeTask task : tasks)
+      {
+         if (task.dueTime <= time && (next == null || task.dueTime < next.dueTime
+                                      || (task.dueTime == next.dueTime && task.sequence < next.sequence)))
+         {
+            next = task;
+         }
+      }
+      return next;
+   }
+
+   private class FakeTask implements Task
+   {
+      private Runnable task;
+      private double dueTime;
+      private int sequence;
+
+      private FakeTask(Runnable task, double dueTime, int sequence)
+      {
+         this.task = task;
+         this.dueTime = dueTime;
+         this.sequence = sequence;
+      }
+
+      public void cancel()
+      {
+         tasks.remove(this);
+      }
+   }
+}